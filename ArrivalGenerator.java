@@ -0,0 +1,141 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Endless (or trace-backed) source of arrivals for the online simulator, in non-decreasing time
+// order. Each call to next() produces one process into the public fields. Generators are seeded,
+// so a run can be repeated; several of them with different seeds can feed one simulator.
+abstract class ArrivalGenerator {
+    long time;
+    int burst, priority;
+
+    // False when the source is exhausted
+    abstract boolean next() throws IOException;
+
+    void close() throws IOException {
+    }
+
+    // Poisson arrivals offering the given load (expected busy fraction of one CPU)
+    static ArrivalGenerator poisson(WorkloadGenerator.Bursts bursts, double load, long seed) {
+        return new Poisson(bursts, load, seed);
+    }
+
+    // On/off source: Poisson arrivals during "on" periods, nothing during "off" periods. The
+    // average load matches poisson(); it just comes in bursts.
+    static ArrivalGenerator bursty(WorkloadGenerator.Bursts bursts, double load, long seed) {
+        return new OnOff(bursts, load, seed);
+    }
+
+    // Replays a trace file, which must be sorted by arrival time
+    static ArrivalGenerator replay(Path path) throws IOException {
+        return new Replay(TraceReader.open(path));
+    }
+
+    // "poisson" or "bursty" with the load split evenly over the given number of producers (seeded
+    // seed, seed + 1, ...), or else the path of a trace file to replay on a single producer
+    static List<ArrivalGenerator> forSource(String source, int producers, double load, long seed) throws IOException {
+        if (producers < 1) {
+            throw new IllegalArgumentException("Producer count must be positive");
+        }
+        List<ArrivalGenerator> generators = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            if (source.equalsIgnoreCase("poisson")) {
+                generators.add(poisson(WorkloadGenerator.Bursts.EXPONENTIAL, load / producers, seed + i));
+            } else if (source.equalsIgnoreCase("bursty")) {
+                generators.add(bursty(WorkloadGenerator.Bursts.EXPONENTIAL, load / producers, seed + i));
+            } else if (producers == 1) {
+                generators.add(replay(Paths.get(source)));
+            } else {
+                throw new IllegalArgumentException("A replayed trace runs on one producer");
+            }
+        }
+        return generators;
+    }
+
+    private static class Poisson extends ArrivalGenerator {
+        final SplittableRandom random;
+        final WorkloadGenerator.Bursts bursts;
+        final double meanGap;
+        double clock;
+
+        Poisson(WorkloadGenerator.Bursts bursts, double load, long seed) {
+            if (load <= 0) {
+                throw new IllegalArgumentException("Load must be positive");
+            }
+            this.random = new SplittableRandom(seed);
+            this.bursts = bursts;
+            this.meanGap = WorkloadGenerator.MEAN_BURST / load;
+        }
+
+        @Override
+        boolean next() {
+            clock += WorkloadGenerator.exponential(random, meanGap);
+            emit();
+            return true;
+        }
+
+        void emit() {
+            time = (long) clock;
+            burst = WorkloadGenerator.burst(random, bursts);
+            priority = random.nextInt(WorkloadGenerator.MAX_PRIORITY);
+        }
+    }
+
+    private static final class OnOff extends Poisson {
+        private static final double MEAN_ON = 200, MEAN_OFF = 600;
+        private double onUntil;
+
+        OnOff(WorkloadGenerator.Bursts bursts, double load, long seed) {
+            super(bursts, load * (MEAN_ON + MEAN_OFF) / MEAN_ON, seed);
+            onUntil = WorkloadGenerator.exponential(random, MEAN_ON);
+        }
+
+        @Override
+        boolean next() {
+            clock += WorkloadGenerator.exponential(random, meanGap);
+            while (clock > onUntil) {
+                // The rest of the gap carries over past an off period into the next on period
+                double overshoot = clock - onUntil;
+                double onFrom = onUntil + WorkloadGenerator.exponential(random, MEAN_OFF);
+                onUntil = onFrom + WorkloadGenerator.exponential(random, MEAN_ON);
+                clock = onFrom + overshoot;
+            }
+            emit();
+            return true;
+        }
+    }
+
+    private static final class Replay extends ArrivalGenerator {
+        private final TraceReader trace;
+
+        Replay(TraceReader trace) {
+            this.trace = trace;
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (!trace.next()) {
+                return false;
+            }
+            long record = trace.records() - 1;
+            if (trace.arrival < 0 || trace.burst < 0) {
+                throw new IOException("Record " + record + ": arrival and burst times must not be negative");
+            }
+            if (record > 0 && trace.arrival < time) {
+                throw new IOException("Record " + record + ": replay needs a trace sorted by arrival time");
+            }
+            time = trace.arrival;
+            burst = trace.burst;
+            priority = trace.priority;
+            return true;
+        }
+
+        @Override
+        void close() throws IOException {
+            trace.close();
+        }
+    }
+}
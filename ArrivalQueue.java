@@ -0,0 +1,73 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded lock-free queue of arrivals from many producer threads to one consumer (the online
+// simulator). Each cell has a sequence number that says whose turn it is: producers claim a cell
+// with one compare-and-set on the tail, write the fields and publish by advancing the cell's
+// sequence; the consumer reads a cell once it is published and hands it back for the next lap.
+// Nothing is allocated per arrival and no thread ever blocks another.
+final class ArrivalQueue {
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final long[] time;
+    private final int[] source, burst, priority;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // only touched by the consumer
+
+    // Fields of the arrival taken by the last successful poll()
+    int polledSource;
+    long polledTime;
+    int polledBurst, polledPriority;
+
+    ArrivalQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        mask = size - 1;
+        sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequence.set(i, i);
+        }
+        source = new int[size];
+        time = new long[size];
+        burst = new int[size];
+        priority = new int[size];
+    }
+
+    // False when the queue is full; the producer should back off and retry
+    boolean offer(int producer, long arrivalTime, int burstTime, int priorityValue) {
+        long position;
+        int cell;
+        while (true) {
+            position = tail.get();
+            cell = (int) position & mask;
+            long lag = sequence.get(cell) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (lag < 0) {
+                return false; // the consumer has not freed this cell yet
+            }
+        }
+        source[cell] = producer;
+        time[cell] = arrivalTime;
+        burst[cell] = burstTime;
+        priority[cell] = priorityValue;
+        sequence.set(cell, position + 1); // publishes the fields written above
+        return true;
+    }
+
+    // Consumer only: takes the oldest published arrival into the polled fields
+    boolean poll() {
+        int cell = (int) head & mask;
+        if (sequence.get(cell) != head + 1) {
+            return false;
+        }
+        polledSource = source[cell];
+        polledTime = time[cell];
+        polledBurst = burst[cell];
+        polledPriority = priority[cell];
+        sequence.set(cell, head + mask + 1);
+        head++;
+        return true;
+    }
+}
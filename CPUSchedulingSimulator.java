@@ -1,56 +1,40 @@
 import javax.swing.*;
 import javax.swing.border.LineBorder;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
-import java.util.*;
-
-class Process {
-    String id;
-    int arrivalTime, burstTime, remainingTime, priority, waitingTime, turnaroundTime, finishTime, startTime, originalBurstTime;
-    boolean started; // Tracks the first execution (for SJF Preemptive)
-
-    // Constructor for general processes
-    Process(String id, int arrivalTime, int burstTime) {
-        this.id = id;
-        this.arrivalTime = arrivalTime;
-        this.burstTime = burstTime;
-        this.originalBurstTime = burstTime;
-        this.remainingTime = burstTime; // Initially, remaining time = burst time
-        this.started = false;
-    }
-
-     // Constructor for priority scheduling
-    Process(String id, int arrivalTime, int burstTime, int priority) {
-        this(id, arrivalTime, burstTime);
-        this.priority = priority;
-    }
-}
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 public class CPUSchedulingSimulator {
     private JFrame frame;
     private JTable processTable;
-    private DefaultTableModel tableModel;
-    private ArrayList<Process> processes;
-    private JLabel avgWaitingTimeLabel, avgTurnaroundTimeLabel;
-    private JPanel ganttChartPanel;
-    private ArrayList<String> ganttChartLog = new ArrayList<>();
+    private ResultTableModel tableModel;
+    private ProcessTable processes;
+    private JButton calculateButton, cancelButton, importButton;
+    private JProgressBar progressBar;
+    private SwingWorker<SimulationResult, Void> worker; // the simulation currently running, if any
+    private JLabel avgWaitingTimeLabel, avgTurnaroundTimeLabel, tailLatencyLabel, machineLabel;
+    private GanttChartPanel ganttChart;
+    private SimulationResult shownResult; // the result in the table and chart, for Export...
     private JComboBox<String> algorithmSelector;
+    private JTextField quantumField, contextSwitchField, cpuField;
+    private JComboBox<String> queueSelector, balancingSelector;
+    private JCheckBox affinityBox;
+    private final ResultCache cache = createCache();
+    private final IncrementalSimulator incremental = new IncrementalSimulator(); // resumes after edits
     
-    private final Color[] PASTEL_COLORS = {
-        new Color(168, 201, 241),
-        new Color(184, 168, 241),
-        new Color(168, 241, 214),
-        new Color(241, 168, 214),
-        new Color(168, 214, 241),
-        new Color(241, 168, 168),
-        new Color(214, 241, 168),
-        new Color(168, 241, 168),
-        new Color(241, 214, 168),
-        new Color(241, 225, 168)
-    };
+    private final Color[] PASTEL_COLORS = GanttRenderer.PASTEL_COLORS;
 
     public CPUSchedulingSimulator() {
-        processes = new ArrayList<>();
+        processes = new ProcessTable(10);
         createGUI();
     }
 
@@ -109,7 +93,7 @@ public class CPUSchedulingSimulator {
 
         // Process Count
         gbc.gridx = 0; gbc.gridy = 0;
-        JLabel processCountLabel = new JLabel("Number of Processes (3-10):");
+        JLabel processCountLabel = new JLabel("Number of Processes:");
         inputPanel.add(processCountLabel, gbc);
 
         gbc.gridx = 1;
@@ -132,6 +116,8 @@ public class CPUSchedulingSimulator {
 
         gbc.gridx = 1;
         JTextField burstTimeField = new JTextField(10);
+        burstTimeField.setToolTipText("A process that does I/O lists CPU and I/O phases in turn, "
+                + "e.g. 4/10@1/3: 4 on the CPU, 10 on device 1, 3 on the CPU");
         inputPanel.add(burstTimeField, gbc);
 
         // Priority
@@ -143,20 +129,85 @@ public class CPUSchedulingSimulator {
         JTextField priorityField = new JTextField(10);
         inputPanel.add(priorityField, gbc);
 
-        // Algorithm Selector
+        // Deadline, optional: absolute times, used by EDF and counted as missed or met for every algorithm
         gbc.gridx = 0; gbc.gridy = 4;
+        JLabel deadlineLabel = new JLabel("Deadline (comma-separated, optional):");
+        inputPanel.add(deadlineLabel, gbc);
+
+        gbc.gridx = 1;
+        JTextField deadlineField = new JTextField(10);
+        inputPanel.add(deadlineField, gbc);
+
+        // Algorithm Selector
+        gbc.gridx = 0; gbc.gridy = 5;
         JLabel algorithmLabel = new JLabel("Select Algorithm:");
         inputPanel.add(algorithmLabel, gbc);
 
         gbc.gridx = 1;
-        String[] algorithms = {"Round Robin", "SJF Non-Preemptive", "Priority Non-Preemptive", "SJF Preemptive"};
-        algorithmSelector = new JComboBox<>(algorithms);
+        algorithmSelector = new JComboBox<>(SchedulingEngine.algorithmNames());
         inputPanel.add(algorithmSelector, gbc);
 
+        // Round Robin quantum
+        gbc.gridx = 0; gbc.gridy = 6;
+        JLabel quantumLabel = new JLabel("Time Quantum (Round Robin):");
+        inputPanel.add(quantumLabel, gbc);
+
+        gbc.gridx = 1;
+        quantumField = new JTextField(String.valueOf(SchedulerConfig.DEFAULT.quantum), 10);
+        inputPanel.add(quantumField, gbc);
+
+        // Context switch cost
+        gbc.gridx = 0; gbc.gridy = 7;
+        JLabel contextSwitchLabel = new JLabel("Context Switch Cost:");
+        inputPanel.add(contextSwitchLabel, gbc);
+
+        gbc.gridx = 1;
+        contextSwitchField = new JTextField(String.valueOf(SchedulerConfig.DEFAULT.contextSwitchCost), 10);
+        inputPanel.add(contextSwitchField, gbc);
+
+        // Multi-CPU machine: number of CPUs, queue layout, load balancing and affinity
+        gbc.gridx = 0; gbc.gridy = 8;
+        JLabel cpuLabel = new JLabel("Number of CPUs:");
+        inputPanel.add(cpuLabel, gbc);
+
+        gbc.gridx = 1;
+        cpuField = new JTextField(String.valueOf(SchedulerConfig.DEFAULT.cpus), 10);
+        inputPanel.add(cpuField, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 9;
+        JLabel queueLabel = new JLabel("Run Queues:");
+        inputPanel.add(queueLabel, gbc);
+
+        gbc.gridx = 1;
+        queueSelector = new JComboBox<>(new String[]{"Global queue", "Per-CPU queues"});
+        inputPanel.add(queueSelector, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 10;
+        JLabel balancingLabel = new JLabel("Load Balancing (per-CPU queues):");
+        inputPanel.add(balancingLabel, gbc);
+
+        gbc.gridx = 1;
+        balancingSelector = new JComboBox<>(new String[]{"None", "Work stealing", "Periodic rebalancing"});
+        inputPanel.add(balancingSelector, gbc);
+
+        gbc.gridx = 1; gbc.gridy = 11;
+        affinityBox = new JCheckBox("Keep processes on the CPU they ran on");
+        affinityBox.setOpaque(false);
+        inputPanel.add(affinityBox, gbc);
+
+        // Per-CPU options only apply to per-CPU queues
+        balancingSelector.setEnabled(false);
+        affinityBox.setEnabled(false);
+        queueSelector.addActionListener(e -> {
+            boolean perCpu = queueSelector.getSelectedIndex() == 1;
+            balancingSelector.setEnabled(perCpu);
+            affinityBox.setEnabled(perCpu);
+        });
+
         // Calculate Button
-        gbc.gridx = 1; gbc.gridy = 7;
+        gbc.gridx = 1; gbc.gridy = 12;
         // gbc.gridwidth = 2;
-        JButton calculateButton = new JButton("Calculate");
+        calculateButton = new JButton("Calculate");
         calculateButton.setBackground(new Color(220, 240, 247));
         calculateButton.setOpaque(true);
         calculateButton.setForeground(Color.BLACK);
@@ -164,13 +215,82 @@ public class CPUSchedulingSimulator {
         calculateButton.setBorder(new LineBorder(new Color(25, 25, 25), 2, true));
         inputPanel.add(calculateButton, gbc);
 
+        // Runs the selected algorithm on a workload trace file (CSV or binary) instead of the fields above
+        gbc.gridx = 0; gbc.gridy = 12;
+        importButton = new JButton("Import Trace...");
+        importButton.setBackground(new Color(220, 240, 247));
+        importButton.setOpaque(true);
+        importButton.setForeground(Color.BLACK);
+        importButton.setFont(new Font("Comic Sans MS", Font.BOLD, 14));
+        importButton.setBorder(new LineBorder(new Color(25, 25, 25), 2, true));
+        importButton.addActionListener(e -> {
+            SchedulerConfig config = selectedConfig();
+            SchedulingAlgorithm algorithm = config == null ? null : selectedAlgorithm(config);
+            if (algorithm == null) {
+                return;
+            }
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            File file = chooser.getSelectedFile();
+            // The file is read on the worker thread too, since a trace may hold millions of processes
+            startSimulation(algorithm, config, () -> WorkloadFile.read(file.toPath()));
+        });
+        inputPanel.add(importButton, gbc);
+
+        // Progress of the running simulation and a button to stop it
+        gbc.gridx = 0; gbc.gridy = 13;
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        inputPanel.add(progressBar, gbc);
+
+        gbc.gridx = 1;
+        cancelButton = new JButton("Cancel");
+        cancelButton.setBackground(new Color(220, 240, 247));
+        cancelButton.setOpaque(true);
+        cancelButton.setForeground(Color.BLACK);
+        cancelButton.setFont(new Font("Comic Sans MS", Font.BOLD, 14));
+        cancelButton.setBorder(new LineBorder(new Color(25, 25, 25), 2, true));
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> {
+            if (worker != null) {
+                worker.cancel(true);
+            }
+        });
+        inputPanel.add(cancelButton, gbc);
+
+        // Open system: processes keep arriving from a generator while the selected algorithm runs
+        gbc.gridx = 1; gbc.gridy = 14;
+        JButton liveButton = new JButton("Live Simulation...");
+        liveButton.setBackground(new Color(220, 240, 247));
+        liveButton.setOpaque(true);
+        liveButton.setForeground(Color.BLACK);
+        liveButton.setFont(new Font("Comic Sans MS", Font.BOLD, 14));
+        liveButton.setBorder(new LineBorder(new Color(25, 25, 25), 2, true));
+        liveButton.addActionListener(e -> {
+            SchedulerConfig config = selectedConfig();
+            if (config == null) {
+                return;
+            }
+            if (config.isMultiCore()) {
+                JOptionPane.showMessageDialog(frame, "Live simulation runs on a single CPU.",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            new LiveSimulationWindow(frame, (String) algorithmSelector.getSelectedItem(), config, PASTEL_COLORS)
+                    .setVisible(true);
+        });
+        inputPanel.add(liveButton, gbc);
+
         // Add Calculate Button Action Listener
         calculateButton.addActionListener(e -> {
             try {
                 int processCount = Integer.parseInt(processCountField.getText());
 
-                if (processCount < 3 || processCount > 10) {
-                    JOptionPane.showMessageDialog(frame, "The number of processes must be between 3 and 10.",
+                if (processCount < 1) {
+                    JOptionPane.showMessageDialog(frame, "The number of processes must be at least 1.",
                             "Error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
@@ -178,6 +298,7 @@ public class CPUSchedulingSimulator {
                 String[] arrivalTimes = arrivalTimeField.getText().split(",");
                 String[] burstTimes = burstTimeField.getText().split(",");
                 String[] priorities = priorityField.getText().isEmpty() ? new String[0] : priorityField.getText().split(",");
+                String[] deadlines = deadlineField.getText().trim().isEmpty() ? new String[0] : deadlineField.getText().split(",");
 
                 if (arrivalTimes.length != processCount || burstTimes.length != processCount) {
                     JOptionPane.showMessageDialog(frame, "Mismatch in number of processes and input values.",
@@ -185,42 +306,65 @@ public class CPUSchedulingSimulator {
                     return;
                 }
 
-                if (algorithmSelector.getSelectedItem().equals("Priority Non-Preemptive") && priorities.length != processCount) {
+                SchedulerConfig config = selectedConfig();
+                SchedulingAlgorithm algorithm = config == null ? null : selectedAlgorithm(config);
+                if (algorithm == null) {
+                    return;
+                }
+                if (algorithm.usesPriority() && priorities.length != processCount) {
                     JOptionPane.showMessageDialog(frame, "Mismatch in number of processes and priorities.",
                             "Error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
+                if (deadlines.length > 0 && deadlines.length != processCount) {
+                    JOptionPane.showMessageDialog(frame, "Mismatch in number of processes and deadlines.",
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-                processes.clear();
-                tableModel.setRowCount(0);
-
+                ProcessTable input = new ProcessTable(processCount);
                 for (int i = 0; i < processCount; i++) {
                     int arrivalTime = Integer.parseInt(arrivalTimes[i].trim());
-                    int burstTime = Integer.parseInt(burstTimes[i].trim());
-                    if (priorities.length > 0) {
-                        int priority = Integer.parseInt(priorities[i].trim());
-                        processes.add(new Process("P" + i, arrivalTime, burstTime, priority));
-                    } else {
-                        processes.add(new Process("P" + i, arrivalTime, burstTime));
+                    String[] phases = burstTimes[i].trim().split("/");
+                    int burstTime = Integer.parseInt(phases[0].trim());
+                    int priority = priorities.length > 0 ? Integer.parseInt(priorities[i].trim()) : 0;
+                    int deadline = deadlines.length > 0 ? Integer.parseInt(deadlines[i].trim()) : ProcessTable.NO_DEADLINE;
+                    if (arrivalTime < 0 || burstTime < 0) {
+                        JOptionPane.showMessageDialog(frame, "Arrival and burst times must not be negative.",
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    if (deadline < arrivalTime) {
+                        JOptionPane.showMessageDialog(frame, "A deadline must not be before its arrival time.",
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    if (phases.length == 1) {
+                        input.add(arrivalTime, burstTime, priority, deadline);
+                        continue;
+                    }
+                    // CPU and I/O phases, each I/O phase optionally "length@device"
+                    int[] lengths = new int[phases.length];
+                    int[] devices = new int[phases.length / 2];
+                    for (int k = 0; k < phases.length; k++) {
+                        String[] parts = phases[k].trim().split("@", 2);
+                        lengths[k] = Integer.parseInt(parts[0].trim());
+                        if (parts.length > 1) {
+                            if (k % 2 == 0) {
+                                throw new NumberFormatException();
+                            }
+                            devices[k / 2] = Integer.parseInt(parts[1].trim());
+                        }
+                    }
+                    try {
+                        input.add(arrivalTime, lengths, devices, priority, deadline);
+                    } catch (IllegalArgumentException ex) {
+                        JOptionPane.showMessageDialog(frame, ProcessTable.name(i) + ": " + ex.getMessage() + ".",
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
                     }
                 }
-
-                switch ((String) algorithmSelector.getSelectedItem()) {
-                    case "Round Robin":
-                        calculateRoundRobin();
-                        break;
-                    case "SJF Non-Preemptive":
-                        calculateSJFNonPreemptive();
-                        break;
-                    case "Priority Non-Preemptive":
-                        calculatePriorityNonPreemptive();
-                        break;
-                    case "SJF Preemptive":
-                        calculateSJFPreemptive();
-                        break;
-                }
-
-                ganttChartPanel.repaint();
+                startSimulation(algorithm, config, () -> input);
 
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(frame, "Invalid input. Please check your values.",
@@ -231,6 +375,172 @@ public class CPUSchedulingSimulator {
         return inputPanel;
     }
 
+    // The algorithm chosen in the selector, built from the given configuration; null (after telling
+    // the user) if it cannot run with it
+    private SchedulingAlgorithm selectedAlgorithm(SchedulerConfig config) {
+        try {
+            return SchedulingEngine.forName((String) algorithmSelector.getSelectedItem(), config);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(frame, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+    }
+
+    // The configuration from the quantum, context-switch and CPU fields; null (after telling the
+    // user) if a field is invalid
+    private SchedulerConfig selectedConfig() {
+        SchedulerConfig config;
+        try {
+            config = SchedulerConfig.DEFAULT
+                    .withQuantum(Integer.parseInt(quantumField.getText().trim()))
+                    .withContextSwitchCost(Integer.parseInt(contextSwitchField.getText().trim()))
+                    .withCpus(Integer.parseInt(cpuField.getText().trim()));
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(frame, "Invalid quantum, context switch cost or number of CPUs.",
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+        if (queueSelector.getSelectedIndex() == 1) {
+            config = config.withQueues(SchedulerConfig.Queues.PER_CORE)
+                    .withBalancing(SchedulerConfig.Balancing.values()[balancingSelector.getSelectedIndex()])
+                    .withAffinity(affinityBox.isSelected());
+        }
+        return config;
+    }
+
+    // Results are cached in memory, and also on disk when -Dscheduler.cacheDir names a directory
+    private static ResultCache createCache() {
+        long maxBytes = Runtime.getRuntime().maxMemory() / 8;
+        String directory = System.getProperty("scheduler.cacheDir");
+        if (directory != null) {
+            try {
+                return new ResultCache(maxBytes, Paths.get(directory));
+            } catch (IOException | InvalidPathException ex) {
+                System.err.println("Cannot use cache directory " + directory + ": " + ex.getMessage());
+            }
+        }
+        return new ResultCache(maxBytes);
+    }
+
+    // Loads the workload and runs the simulation on a background worker so the window stays
+    // responsive; a run that matches an earlier one is answered from the cache, and one that differs
+    // from the previous run only in a few processes resumes from a checkpoint before the first of them
+    private void startSimulation(SchedulingAlgorithm algorithm, SchedulerConfig config, Callable<ProcessTable> workload) {
+        tableModel.clear();
+        calculateButton.setEnabled(false);
+        importButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
+        progressBar.setString("Running " + algorithm.name() + "...");
+
+        worker = new SwingWorker<SimulationResult, Void>() {
+            private int resumedAt = -1;
+
+            @Override
+            protected SimulationResult doInBackground() throws Exception {
+                ProcessTable input = workload.call();
+                String key = ResultCache.key(input, algorithm.name(), config);
+                SimulationResult result = cache.get(key);
+                if (result == null) {
+                    result = incremental.run(algorithm, config, input, (time, horizon) -> {
+                        if (isCancelled()) {
+                            throw new CancellationException();
+                        }
+                        setProgress((int) Math.min(100, 100 * time / Math.max(horizon, 1)));
+                    });
+                    cache.put(key, result);
+                    resumedAt = incremental.resumedAt();
+                }
+                return result;
+            }
+
+            @Override
+            protected void done() {
+                calculateButton.setEnabled(true);
+                importButton.setEnabled(true);
+                cancelButton.setEnabled(false);
+                worker = null;
+                if (isCancelled()) {
+                    progressBar.setString("Cancelled");
+                    return;
+                }
+                try {
+                    SimulationResult result = get();
+                    processes = result.processes;
+                    showResult(result, algorithm.usesPriority());
+                    progressBar.setValue(100);
+                    progressBar.setString(resumedAt > 0 ? "Done (resumed from time " + resumedAt + ")" : "Done");
+                } catch (InterruptedException | ExecutionException ex) {
+                    progressBar.setString("Failed");
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(frame, "Simulation failed: " + cause.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                progressBar.setValue((Integer) event.getNewValue());
+            }
+        });
+        worker.execute();
+    }
+
+    // Fills the table, averages and Gantt chart from a finished simulation
+    private void showResult(SimulationResult result, boolean showPriority) {
+        shownResult = result;
+        tableModel.setResult(result, showPriority);
+        ganttChart.setLanes(result.lanes);
+        avgWaitingTimeLabel.setText(String.format("Average Waiting Time: %.2f", result.averageWaitingTime));
+        avgTurnaroundTimeLabel.setText(String.format("Average Turnaround Time: %.2f", result.averageTurnaroundTime));
+        SchedulingMetrics metrics = result.metrics();
+        tailLatencyLabel.setText(String.format("Waiting p50/p99/p99.9/max: %d / %d / %d / %d    Response p50/p99: %d / %d",
+                metrics.waiting.percentile(0.5), metrics.waiting.percentile(0.99), metrics.waiting.percentile(0.999),
+                metrics.waiting.max(), metrics.response.percentile(0.5), metrics.response.percentile(0.99)));
+        machineLabel.setText(String.format("Utilization: %.1f%%    Throughput: %.4f per unit    Context switches: %d%s%s",
+                100 * metrics.utilization(), metrics.throughput(), metrics.contextSwitches,
+                metrics.overheadTime > 0 ? String.format("    Switch overhead: %.1f%%", 100 * metrics.overhead()) : "",
+                metrics.deadlines > 0 ? String.format("    Missed deadlines: %d of %d",
+                        metrics.missedDeadlines, metrics.deadlines) : ""));
+    }
+
+    // Saves the shown result as SVG, PNG, CSV or JSON, chosen by the file's extension; the export
+    // runs on a background worker since a long timeline takes a while to write
+    private void exportResult() {
+        SimulationResult result = shownResult;
+        if (result == null) {
+            JOptionPane.showMessageDialog(frame, "Run a simulation first.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("Gantt chart or results (svg, png, csv, json)",
+                ResultExporter.FORMATS));
+        if (chooser.showSaveDialog(frame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        new SwingWorker<List<Path>, Void>() {
+            @Override
+            protected List<Path> doInBackground() throws Exception {
+                return ResultExporter.export(result, file.toPath(), PASTEL_COLORS,
+                        ResultExporter.defaultScale(result), ForkJoinPool.commonPool());
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    List<Path> files = get();
+                    progressBar.setString(files.size() == 1 ? "Exported " + files.get(0).getFileName()
+                            : "Exported " + files.size() + " files");
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(frame, "Export failed: " + cause.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
     private JPanel createTablePanel() {
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setBackground(new Color(245, 250, 252));
@@ -239,9 +549,7 @@ public class CPUSchedulingSimulator {
             " Process Details "
         ));
 
-        tableModel = new DefaultTableModel(new Object[]{
-            "Process", "Arrival Time", "Burst Time", "Priority", "Finish Time", "Waiting Time", "Turnaround Time"
-        }, 0);
+        tableModel = new ResultTableModel();
         processTable = new JTable(tableModel);
         processTable.setPreferredScrollableViewportSize(new Dimension(800, 500));
         JScrollPane scrollPane = new JScrollPane(processTable);
@@ -255,24 +563,47 @@ public class CPUSchedulingSimulator {
         bottomPanel.setBackground(new Color(220, 240, 247));
 
         // Results Panel
-        JPanel resultsPanel = new JPanel(new GridLayout(2, 1));
+        JPanel resultsPanel = new JPanel(new GridLayout(4, 1));
         resultsPanel.setBackground(new Color(220, 240, 247));
         avgWaitingTimeLabel = new JLabel("Average Waiting Time: 0.00");
         avgTurnaroundTimeLabel = new JLabel("Average Turnaround Time: 0.00");
         avgWaitingTimeLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 14));
         avgTurnaroundTimeLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 14));
-        avgTurnaroundTimeLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
+        tailLatencyLabel = new JLabel(" ");
+        machineLabel = new JLabel(" ");
+        tailLatencyLabel.setFont(new Font("Comic Sans MS", Font.PLAIN, 13));
+        machineLabel.setFont(new Font("Comic Sans MS", Font.PLAIN, 13));
+        machineLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
         resultsPanel.add(avgWaitingTimeLabel);
         resultsPanel.add(avgTurnaroundTimeLabel);
-
-        // Gantt Chart Panel
-        ganttChartPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                drawGanttChart(g);
-            }
-        };
+        resultsPanel.add(tailLatencyLabel);
+        resultsPanel.add(machineLabel);
+
+        // Gantt Chart Panel: zoom with the buttons or Ctrl + mouse wheel
+        ganttChart = new GanttChartPanel(PASTEL_COLORS);
+        JScrollPane ganttScrollPane = new JScrollPane(ganttChart,
+                JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED, JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        ganttScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        ganttScrollPane.getViewport().setBackground(new Color(245, 250, 252));
+
+        JPanel zoomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        zoomPanel.setOpaque(false);
+        JButton zoomInButton = new JButton("+");
+        JButton zoomOutButton = new JButton("-");
+        JButton fitButton = new JButton("Fit");
+        JButton exportButton = new JButton("Export...");
+        zoomInButton.addActionListener(e -> ganttChart.zoomIn());
+        zoomOutButton.addActionListener(e -> ganttChart.zoomOut());
+        fitButton.addActionListener(e -> ganttChart.zoomToFit());
+        exportButton.addActionListener(e -> exportResult());
+        zoomPanel.add(zoomInButton);
+        zoomPanel.add(zoomOutButton);
+        zoomPanel.add(fitButton);
+        zoomPanel.add(exportButton);
+
+        JPanel ganttChartPanel = new JPanel(new BorderLayout());
+        ganttChartPanel.add(zoomPanel, BorderLayout.NORTH);
+        ganttChartPanel.add(ganttScrollPane, BorderLayout.CENTER);
         ganttChartPanel.setPreferredSize(new Dimension(800, 400));
         ganttChartPanel.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(new Color(25, 25, 25), 2),
@@ -286,306 +617,6 @@ public class CPUSchedulingSimulator {
         return bottomPanel;
     }
 
-    private void drawGanttChart(Graphics g) {
-        if (ganttChartLog.isEmpty()) return;
-
-        int startX = 50;
-        int startY = 50;
-        int barHeight = 30;
-        int scale = 25;
-        
-        int currentX = startX;
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Process color mapping
-        java.util.Map<String, Color> processColors = new java.util.HashMap<>();
-        int colorIndex = 0;
-
-        // Consolidate consecutive entries
-        ArrayList<String> consolidatedLog = new ArrayList<>();
-        String currentProcess = ganttChartLog.get(0);
-        int startTime = 0;
-
-        for (int i = 1; i <= ganttChartLog.size(); i++) {
-            if (i == ganttChartLog.size() || !ganttChartLog.get(i).equals(currentProcess)) {
-                consolidatedLog.add(currentProcess + ":" + startTime + "-" + i);
-                if (i < ganttChartLog.size()) {
-                    currentProcess = ganttChartLog.get(i);
-                    startTime = i;
-                }
-            }
-        }
-
-        // Draw the consolidated Gantt chart
-        for (String log : consolidatedLog) {
-            String[] parts = log.split(":");
-            String processId = parts[0];
-            String[] times = parts[1].split("-");
-            int start = Integer.parseInt(times[0]);
-            int end = Integer.parseInt(times[1]);
-            int width = (end - start) * scale;
-
-            // Assign colors to processes
-            if (!processColors.containsKey(processId) && !processId.equals("Idle")) {
-                processColors.put(processId, PASTEL_COLORS[colorIndex % PASTEL_COLORS.length]);
-                colorIndex++;
-            }
-
-            // Fill rectangle with process color or gray for idle
-            Color fillColor = processId.equals("Idle") ? new Color(211, 211, 211) : processColors.get(processId);
-            g2d.setColor(fillColor);
-            g2d.fillRoundRect(currentX, startY, width, barHeight, 10, 10);
-
-            // Draw border
-            g2d.setColor(Color.BLACK);
-            g2d.setStroke(new BasicStroke(2));
-            g2d.drawRoundRect(currentX, startY, width, barHeight, 10, 10);
-
-            // Draw process ID
-            g2d.setFont(new Font("Comic Sans MS", Font.BOLD, 12));
-            g2d.setColor(Color.BLACK);
-            FontMetrics fm = g2d.getFontMetrics();
-            String displayText = processId;
-            int textX = currentX + (width - fm.stringWidth(displayText)) / 2;
-            int textY = startY + (barHeight + fm.getAscent() - fm.getDescent()) / 2;
-            g2d.drawString(displayText, textX, textY);
-
-            // Draw time markers
-            g2d.setFont(new Font("Comic Sans MS", Font.PLAIN, 10));
-            g2d.drawString(String.valueOf(start), currentX, startY + barHeight + 15);
-
-            currentX += width;
-        }
-
-        // Draw final time marker
-        g2d.drawString(String.valueOf(Integer.parseInt(consolidatedLog.get(consolidatedLog.size() - 1)
-            .split(":")[1].split("-")[1])), currentX, startY + barHeight + 15);
-    }
-
-    private void calculateRoundRobin() {
-        ganttChartLog.clear(); //Clear the Gantt chart
-        int currentTime = 0; //Initialize current time
-        int quantum = 3; //Set the quantum time for RR
-        double totalWaitingTime = 0, totalTurnaroundTime = 0; //Variables to calculate average waiting and turnaround time
-    
-        ArrayList<Process> readyQueue = new ArrayList<>(); //Queue to store process that are ready to execute
-        ArrayList<Process> arrivalQueue = new ArrayList<>(processes); //Queue for processes waiting to arrive, sort by arrival time
-    
-        // Sort processes by on arrival time (ensure that process in order of arrival)
-        arrivalQueue.sort(Comparator.comparingInt(p -> p.arrivalTime));
-    
-        // Continue as long as we have unprocessed processes
-        while (!readyQueue.isEmpty() || !arrivalQueue.isEmpty()) {
-            // Add processes that have arrived by the current time
-            while (!arrivalQueue.isEmpty() && arrivalQueue.get(0).arrivalTime <= currentTime) {
-                readyQueue.add(arrivalQueue.remove(0)); //Move the process from arrival queue to ready queue
-            }
-    
-            // If there are no processes in the ready queue, take the next process
-            if (!readyQueue.isEmpty()) {
-                //Take the next process from the ready queu and assign it for execution
-                Process currentProcess = readyQueue.remove(0);
-                int executeTime = Math.min(currentProcess.remainingTime, quantum);//Execute process for the minimum of its remaining time or quantum
-                ganttChartLog.add(currentProcess.id + ":" + currentTime + "-" + (currentTime + executeTime));//Add the execution of process to the Gantt Chart
-                currentTime += executeTime; //update current time
-                currentProcess.remainingTime -= executeTime; //subs executed time from the remaining time
-    
-                // If the process finishes, calculate its turnaround and waiting times
-                if (currentProcess.remainingTime == 0) {
-                    currentProcess.finishTime = currentTime;//Mark the finish time of process
-                    currentProcess.turnaroundTime = currentProcess.finishTime - currentProcess.arrivalTime; //Calculate turnaround time
-                    currentProcess.waitingTime = currentProcess.turnaroundTime - currentProcess.originalBurstTime;//Calculate waiting time
-    
-                    totalWaitingTime += currentProcess.waitingTime; //Add to total waiting time
-                    totalTurnaroundTime += currentProcess.turnaroundTime; //Add to total turnaround time
-                    //Add the process's final statistic to the table
-                    tableModel.addRow(new Object[]{
-                            currentProcess.id, currentProcess.arrivalTime, currentProcess.originalBurstTime, "",
-                            currentProcess.finishTime, currentProcess.waitingTime, currentProcess.turnaroundTime
-                    });
-                } else {
-                    // if the process is not finish, it gets added back into the ready queu for execution
-                    while (!arrivalQueue.isEmpty() && arrivalQueue.get(0).arrivalTime <= currentTime) {
-                        readyQueue.add(arrivalQueue.remove(0)); //move new process from the arrival queue to ready queue
-                    }
-                    readyQueue.add(currentProcess); // Add the current process back to the ready queue
-                }
-            } else {
-                // If the ready queue is empty, and no processes are available, idle
-                if (!arrivalQueue.isEmpty()) {
-                    ganttChartLog.add("Idle:" + currentTime + "-" + (currentTime + 1));
-                    currentTime++; //Increasy the time by 1 unit to simulate idle time
-                }
-            }
-        }
-    //After all process are finished, calculate the avg WT and TA
-        avgWaitingTimeLabel.setText(String.format("Average Waiting Time: %.2f", totalWaitingTime / processes.size()));
-        avgTurnaroundTimeLabel.setText(String.format("Average Turnaround Time: %.2f", totalTurnaroundTime / processes.size()));
-    }    
-    
-
-    private void calculateSJFNonPreemptive() {
-        ganttChartLog.clear();//Clear the Gantt chart
-        //Sort the process by AT and then by the BT
-        processes.sort(Comparator.comparingInt((Process p) -> p.arrivalTime).thenComparingInt(p -> p.burstTime));
-    
-        int currentTime = 0;
-        double totalWaitingTime = 0, totalTurnaroundTime = 0;
-    
-        for (Process process : processes) {
-            //if the current time is less than the arrival time, add idle time to Gant Chart
-            if (currentTime < process.arrivalTime) {
-                ganttChartLog.add("Idle:" + currentTime + "-" + process.arrivalTime);
-                currentTime = process.arrivalTime;
-            }
-            //Calculate waiting time and turnaround time for process
-            process.waitingTime = currentTime - process.arrivalTime;
-            process.turnaroundTime = process.waitingTime + process.burstTime;
-            process.finishTime = currentTime + process.burstTime;
-            currentTime += process.burstTime;
-            //Add to total waiting and turnaround times
-            totalWaitingTime += process.waitingTime;
-            totalTurnaroundTime += process.turnaroundTime;
-            //log the process execution in the Gantt Chart
-            ganttChartLog.add(process.id + ":" + (currentTime - process.burstTime) + "-" + currentTime);
-            //Add the process details into the Table
-            tableModel.addRow(new Object[]{
-                    process.id, process.arrivalTime, process.originalBurstTime, "",
-                    process.finishTime, process.waitingTime, process.turnaroundTime
-            });
-        }
-        //Calculate and display the avg WT and TA times
-        avgWaitingTimeLabel.setText(String.format("Average Waiting Time: %.2f", totalWaitingTime / processes.size()));
-        avgTurnaroundTimeLabel.setText(String.format("Average Turnaround Time: %.2f", totalTurnaroundTime / processes.size()));
-    }
-
-    private void calculatePriorityNonPreemptive() {
-        ganttChartLog.clear();//Clear the Gantt Chart 
-        ArrayList<Process> readyQueue = new ArrayList<>(); // Queue to store processes ready to execute
-    
-        int currentTime = 0, completedCount = 0;
-        double totalWaitingTime = 0, totalTurnaroundTime = 0;
-        //while there are still processes to complete
-        while (completedCount < processes.size()) {
-            //Add processes that have been arrived by the current time to ready queue
-            for (Process process : processes) {
-                if (process.arrivalTime <= currentTime && !readyQueue.contains(process) && process.finishTime == 0) {
-                    readyQueue.add(process);
-                }
-            }
-            //If there are processes in the redy state queue, select the one with the highest priority
-            if (!readyQueue.isEmpty()) {
-                //Sort process by priority and then by arrival time
-                readyQueue.sort(Comparator.comparingInt((Process p) -> p.priority)
-                                           .thenComparingInt(p -> p.arrivalTime));
-    
-                Process currentProcess = readyQueue.remove(0);//Take the highest priority process
-                //If the current time is less than the process's arrival time, add idle time
-                if (currentTime < currentProcess.arrivalTime) {
-                    ganttChartLog.add("Idle:" + currentTime + "-" + currentProcess.arrivalTime);
-                    currentTime = currentProcess.arrivalTime;
-                }
-                //log the rocess execution in the Gantt Chart
-                ganttChartLog.add(currentProcess.id + ":" + currentTime + "-" + (currentTime + currentProcess.burstTime));
-                //Calculate WTand TA
-                currentProcess.finishTime = currentTime + currentProcess.burstTime;
-                currentProcess.turnaroundTime = currentProcess.finishTime - currentProcess.arrivalTime;
-                currentProcess.waitingTime = currentProcess.turnaroundTime - currentProcess.burstTime;
-    
-                totalWaitingTime += currentProcess.waitingTime;
-                totalTurnaroundTime += currentProcess.turnaroundTime;
-                //Add process details to table
-                tableModel.addRow(new Object[]{
-                        currentProcess.id, currentProcess.arrivalTime, currentProcess.burstTime, currentProcess.priority,
-                        currentProcess.finishTime, currentProcess.waitingTime, currentProcess.turnaroundTime
-                });
-    
-                currentTime = currentProcess.finishTime;// Uodate current time to process's finish time
-                completedCount++;//Increment completed processes count
-            } else {
-                //if no process is ready, add idle time
-                ganttChartLog.add("Idle:" + currentTime + "-" + (currentTime + 1));
-                currentTime++;
-            }
-        }
-        // Calculate and display the average waiting and turnaround times
-        avgWaitingTimeLabel.setText(String.format("Average Waiting Time: %.2f", totalWaitingTime / processes.size()));
-        avgTurnaroundTimeLabel.setText(String.format("Average Turnaround Time: %.2f", totalTurnaroundTime / processes.size()));
-    }
-
-    private void calculateSJFPreemptive() {
-        ganttChartLog.clear(); //Clear the Gantt Chart
-        PriorityQueue<Process> readyQueue = new PriorityQueue<>(
-                Comparator.comparingInt((Process p) -> p.remainingTime).thenComparingInt(p -> p.arrivalTime)); //Min heap by remaining time
-
-        int currentTime = 0;
-        double totalWaitingTime = 0, totalTurnaroundTime = 0;
-        int completedCount = 0;
-        Process lastProcess = null;//track the last process to handle preemption
-        int lastStartTime = 0; 
-
-        while (completedCount < processes.size()) {
-            //add process that have been arrived by the current time to ready queue
-            for (Process process : processes) {
-                if (process.arrivalTime == currentTime && !readyQueue.contains(process) && process.remainingTime > 0) {
-                    readyQueue.add(process);
-                }
-            }
-            //if there are processes in the ready queue, execute the one with shortest remaining time
-            if (!readyQueue.isEmpty()) {
-                Process currentProcess = readyQueue.poll(); // select the process with the smallest remaining time
-                //If the process is starting for the first time, mark its start time
-                if (!currentProcess.started) {
-                    currentProcess.startTime = currentTime;
-                    currentProcess.started = true;
-                }
-                //If the previous process is not the same as current one, log its execution
-                if (lastProcess != null && !lastProcess.id.equals(currentProcess.id)) {
-                    ganttChartLog.add(lastProcess.id + ":" + lastStartTime + "-" + currentTime);
-                    lastStartTime = currentTime;
-                }
-
-                lastProcess = currentProcess;
-
-                currentProcess.remainingTime--;//execute the cureent process for 1 unit of time
-                //If the process is finished, calculate its waiting and turanaround times
-                if (currentProcess.remainingTime == 0) {
-                    currentProcess.finishTime = currentTime + 1;
-                    currentProcess.turnaroundTime = currentProcess.finishTime - currentProcess.arrivalTime;
-                    currentProcess.waitingTime = currentProcess.turnaroundTime - currentProcess.originalBurstTime;
-
-                    totalWaitingTime += currentProcess.waitingTime;
-                    totalTurnaroundTime += currentProcess.turnaroundTime;
-
-                    tableModel.addRow(new Object[]{
-                            currentProcess.id, currentProcess.arrivalTime, currentProcess.originalBurstTime, "",
-                            currentProcess.finishTime, currentProcess.waitingTime, currentProcess.turnaroundTime
-                    });
-
-                    completedCount++;
-                } else {
-                    readyQueue.add(currentProcess); //Re-add the process to ready queue if it has remaining time
-                }
-            } else {
-                //If no processes are available, add idle time
-                if (lastProcess != null) {
-                    ganttChartLog.add(lastProcess.id + ":" + lastStartTime + "-" + currentTime);
-                    lastProcess = null;
-                }
-                ganttChartLog.add("Idle:" + currentTime + "-" + (currentTime + 1));
-            }
-
-            currentTime++;//Increment current time
-        }
-
-        if (lastProcess != null) {
-            ganttChartLog.add(lastProcess.id + ":" + lastStartTime + "-" + currentTime);
-        }
-        // Calculate and display the average waiting and turnaround times
-        avgWaitingTimeLabel.setText(String.format("Average Waiting Time: %.2f", totalWaitingTime / processes.size()));
-        avgTurnaroundTimeLabel.setText(String.format("Average Turnaround Time: %.2f", totalTurnaroundTime / processes.size()));
-    }
 //Run the java file
     public static void main(String[] args) {
         SwingUtilities.invokeLater(CPUSchedulingSimulator::new);
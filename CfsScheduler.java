@@ -0,0 +1,182 @@
+// Completely Fair Scheduler in the style of Linux CFS. Every process accumulates virtual runtime:
+// real run time scaled by NICE_0_WEIGHT / weight, with the weight taken from its priority read as
+// a nice value (-20..19, lower runs more). The process with the least virtual runtime runs next, for
+// a slice that is its weight's share of the target latency (at least the minimum granularity).
+// Newcomers start at the smallest virtual runtime in the system, and preempt the running process
+// once it is more than the minimum granularity ahead of them.
+// Waiting processes sit in an IndexHeap keyed by virtual runtime, so each decision is O(log n).
+class CfsScheduler implements CheckpointingAlgorithm {
+    private static final int NICE_0_WEIGHT = 1024;
+    private static final long VRUNTIME_SCALE = 1024; // fixed-point fraction bits of a virtual time unit
+    // Linux's sched_prio_to_weight: each nice level is worth about 10% CPU time
+    private static final int[] NICE_TO_WEIGHT = {
+        88761, 71755, 56483, 46273, 36291,
+        29154, 23254, 18705, 14949, 11916,
+        9548, 7620, 6100, 4904, 3906,
+        3121, 2501, 1991, 1586, 1277,
+        1024, 820, 655, 526, 423,
+        335, 272, 215, 172, 137,
+        110, 87, 70, 56, 45,
+        36, 29, 23, 18, 15,
+    };
+
+    private final int targetLatency;
+    private final int minGranularity;
+    private final SwitchCosts switchCosts;
+
+    CfsScheduler(int targetLatency, int minGranularity, SwitchCosts switchCosts) {
+        if (targetLatency <= 0 || minGranularity <= 0) {
+            throw new IllegalArgumentException("Target latency and minimum granularity must be positive");
+        }
+        this.targetLatency = targetLatency;
+        this.minGranularity = minGranularity;
+        this.switchCosts = switchCosts;
+    }
+
+    @Override
+    public String name() {
+        return "CFS";
+    }
+
+    @Override
+    public boolean usesPriority() {
+        return true;
+    }
+
+    static int weight(int nice) {
+        return NICE_TO_WEIGHT[Math.max(-20, Math.min(19, nice)) + 20];
+    }
+
+    @Override
+    public SimulationResult schedule(ProcessTable processes, Checkpoint from, Checkpoints log,
+                                     SimulationProgress progress) {
+        SimulationResult result = new SimulationResult(name(), processes, progress);
+        int n = processes.size;
+        int[] arrival = processes.arrival;
+        int[] remaining = processes.remaining;
+        long[] vruntime = new long[n]; // heap key, in 1/VRUNTIME_SCALE units
+        int[] arrivalOrder = IndexSort.byKey(arrival, n);
+        IndexHeap readyQueue = new IndexHeap(vruntime, arrival, n); // least virtual runtime, then arrival
+        long wakeupGranularity = minGranularity * VRUNTIME_SCALE;
+
+        int currentTime = 0;
+        int next = 0; // next position in arrivalOrder
+        int running = -1; // index of the process on the CPU, kept outside the heap
+        int lastRun = -1; // process that ran last, to detect context switches
+        int segmentStart = 0;
+        int sliceEnd = 0;
+        long minVruntime = 0; // never decreases, so newcomers cannot starve those already waiting
+        long totalWeight = 0; // of the running and waiting processes
+        SwitchCosts.Tracker switches = switchCosts.track(processes);
+        if (from != null) {
+            from.restore(result);
+            switches.resume(result.timeline);
+            currentTime = from.time;
+            next = from.admitted;
+            running = (int) from.registers[0];
+            lastRun = (int) from.registers[1];
+            segmentStart = (int) from.registers[2];
+            sliceEnd = (int) from.registers[3];
+            minVruntime = from.registers[4];
+            totalWeight = from.registers[5];
+            for (int j = 0; j < from.active.length; j++) {
+                vruntime[from.active[j]] = from.key[j];
+                if (from.active[j] != running) {
+                    readyQueue.add(from.active[j]);
+                }
+            }
+        }
+
+        while (result.completedCount < n) {
+            if (log != null && log.due()) {
+                int[] active = Checkpoint.active(readyQueue.toArray(), running);
+                log.add(new Checkpoint(result, currentTime, next, next > 0 ? arrival[arrivalOrder[next - 1]] : -1,
+                        new long[]{running, lastRun, segmentStart, sliceEnd, minVruntime, totalWeight}, active,
+                        Checkpoint.keys(vruntime, active)));
+            }
+            // Nothing to run: jump over the idle gap to the next arrival
+            if (running < 0 && readyQueue.isEmpty()) {
+                int nextArrival = arrival[arrivalOrder[next]];
+                if (currentTime < nextArrival) {
+                    result.timeline.add(Timeline.IDLE, currentTime, nextArrival);
+                    currentTime = nextArrival;
+                }
+            }
+            // Admit everything that has arrived by now
+            while (next < n && arrival[arrivalOrder[next]] <= currentTime) {
+                int index = arrivalOrder[next++];
+                vruntime[index] = minVruntime;
+                totalWeight += weight(processes.priority[index]);
+                readyQueue.add(index);
+            }
+            if (running < 0) {
+                running = readyQueue.poll();
+                currentTime = switches.charge(result.timeline, lastRun, running, currentTime);
+                lastRun = running;
+                result.dispatched(running, currentTime, readyQueue.size());
+                segmentStart = currentTime;
+                long slice = Math.max(minGranularity,
+                        targetLatency * (long) weight(processes.priority[running]) / totalWeight);
+                sliceEnd = (int) Math.min((long) currentTime + Math.min(slice, remaining[running]), Integer.MAX_VALUE);
+            }
+
+            if (next < n && arrival[arrivalOrder[next]] < sliceEnd) {
+                // Run until the next arrival, then check whether the newcomers preempt the current process
+                int nextArrival = Math.max(arrival[arrivalOrder[next]], currentTime);
+                charge(processes, vruntime, running, nextArrival - currentTime);
+                currentTime = nextArrival;
+                minVruntime = Math.max(minVruntime, readyQueue.isEmpty() ? vruntime[running]
+                        : Math.min(vruntime[running], vruntime[readyQueue.peek()]));
+                while (next < n && arrival[arrivalOrder[next]] <= currentTime) {
+                    int index = arrivalOrder[next++];
+                    vruntime[index] = minVruntime;
+                    totalWeight += weight(processes.priority[index]);
+                    readyQueue.add(index);
+                }
+                if (vruntime[running] - vruntime[readyQueue.peek()] > wakeupGranularity) {
+                    result.timeline.add(running, segmentStart, currentTime);
+                    result.preempted();
+                    switches.stopped(running, segmentStart, currentTime);
+                    readyQueue.add(running);
+                    running = -1;
+                }
+                continue;
+            }
+
+            // Run to the end of the slice
+            charge(processes, vruntime, running, sliceEnd - currentTime);
+            currentTime = sliceEnd;
+            result.timeline.add(running, segmentStart, currentTime);
+            if (remaining[running] == 0) {
+                result.complete(running, currentTime);
+                totalWeight -= weight(processes.priority[running]);
+            } else {
+                result.preempted();
+                switches.stopped(running, segmentStart, currentTime);
+                readyQueue.add(running);
+            }
+            running = -1;
+            if (!readyQueue.isEmpty()) {
+                minVruntime = Math.max(minVruntime, vruntime[readyQueue.peek()]);
+            }
+        }
+        result.finish();
+        return result;
+    }
+
+    @Override
+    public EventPolicy eventPolicy() {
+        return new EventPolicies.Cfs(targetLatency, minGranularity, switchCosts);
+    }
+
+    // Runs the process for delta time units and advances its virtual runtime by its weight
+    private static void charge(ProcessTable processes, long[] vruntime, int index, int delta) {
+        processes.remaining[index] -= delta;
+        vruntime[index] += virtualRuntime(delta, processes.priority[index]);
+    }
+
+    // Virtual runtime, in 1/VRUNTIME_SCALE units, of delta time units run at the given nice value
+    static long virtualRuntime(int delta, int nice) {
+        return delta * VRUNTIME_SCALE * NICE_0_WEIGHT / weight(nice);
+    }
+}
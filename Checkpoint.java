@@ -0,0 +1,107 @@
+import java.util.Arrays;
+
+// State of a single-CPU engine at the top of its event loop. What a run has produced so far
+// (finished processes and Gantt segments) only ever grows, so the checkpoint records how much of
+// its run's result existed, plus the engine's own state: the clock, how many processes it had
+// admitted, a few engine-specific scalars (registers), and the processes in its ready structure
+// in that structure's order, followed by the running one, with their remaining time, first
+// dispatch and engine-specific key. Everything is a copy, so later progress does not change it.
+final class Checkpoint {
+    final String algorithm;
+    final int time;
+    final int admitted; // processes the engine had taken from its arrival cursor
+    final int lastAdmittedArrival; // latest arrival among them, -1 if none
+    final int completed; // length of the completion order
+    final int segments; // length of the Gantt timeline
+    final int lastSegmentEnd;
+    final long[] registers;
+    final int[] active;
+    final int[] remaining, start;
+    final long[] key; // per active process, or null if the engine keeps none
+    SimulationResult run; // holds the finished processes and segments this checkpoint counts
+
+    Checkpoint(SimulationResult run, int time, int admitted, int lastAdmittedArrival, long[] registers,
+               int[] active, long[] key) {
+        this.algorithm = run.algorithm;
+        this.time = time;
+        this.admitted = admitted;
+        this.lastAdmittedArrival = lastAdmittedArrival;
+        this.completed = run.completedCount;
+        this.segments = run.timeline.size;
+        this.lastSegmentEnd = run.timeline.endTime();
+        this.registers = registers;
+        this.active = active;
+        this.key = key;
+        this.run = run;
+        remaining = new int[active.length];
+        start = new int[active.length];
+        for (int j = 0; j < active.length; j++) {
+            remaining[j] = run.processes.remaining[active[j]];
+            start[j] = run.processes.start[active[j]];
+        }
+    }
+
+    // For CheckpointFile, which rebuilds the run's prefix itself
+    Checkpoint(SimulationResult run, int time, int admitted, int lastAdmittedArrival, int completed, int segments,
+               int lastSegmentEnd, long[] registers, int[] active, int[] remaining, int[] start, long[] key) {
+        this.algorithm = run.algorithm;
+        this.time = time;
+        this.admitted = admitted;
+        this.lastAdmittedArrival = lastAdmittedArrival;
+        this.completed = completed;
+        this.segments = segments;
+        this.lastSegmentEnd = lastSegmentEnd;
+        this.registers = registers;
+        this.active = active;
+        this.remaining = remaining;
+        this.start = start;
+        this.key = key;
+        this.run = run;
+    }
+
+    // Queued processes followed by the running one, if any
+    static int[] active(int[] queued, int running) {
+        if (running < 0) {
+            return queued;
+        }
+        int[] active = Arrays.copyOf(queued, queued.length + 1);
+        active[queued.length] = running;
+        return active;
+    }
+
+    // The keys of the given processes
+    static long[] keys(long[] key, int[] active) {
+        long[] keys = new long[active.length];
+        for (int j = 0; j < active.length; j++) {
+            keys[j] = key[active[j]];
+        }
+        return keys;
+    }
+
+    // Puts a fresh result into the state this checkpoint describes: the processes finished by then,
+    // the timeline up to then and the active processes' columns. The new workload may differ from
+    // the checkpointed one, but not in any process the checkpoint had admitted.
+    void restore(SimulationResult into) {
+        if (!algorithm.equals(into.algorithm)) {
+            throw new IllegalArgumentException("Checkpoint of " + algorithm + " cannot resume " + into.algorithm);
+        }
+        ProcessTable from = run.processes, to = into.processes;
+        for (int k = 0; k < completed; k++) {
+            int i = run.completionOrder[k];
+            into.completionOrder[k] = i;
+            to.start[i] = from.start[i];
+            to.finish[i] = from.finish[i];
+            to.waiting[i] = from.waiting[i];
+            to.remaining[i] = 0;
+        }
+        into.completedCount = completed;
+        for (int j = 0; j < active.length; j++) {
+            to.remaining[active[j]] = remaining[j];
+            to.start[active[j]] = start[j];
+        }
+        into.timeline.copyPrefix(run.timeline, segments, lastSegmentEnd);
+        if (EngineCounters.ENABLED) {
+            into.counters.resumed(completed + active.length, into.timeline.size);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// A checkpoint saved to disk together with everything needed to carry on from it: the algorithm's
+// name and settings, the workload's inputs and the part of the result produced so far. A long run
+// can be stopped and resumed later, in another process, with the same outcome as running it through.
+final class CheckpointFile {
+    private static final int MAGIC = 0x43505543; // "CPUC"
+    private static final int VERSION = 2; // 2: context switch refill cost and interval
+
+    final SchedulingAlgorithm algorithm;
+    final SchedulerConfig config;
+    final ProcessTable workload; // inputs only
+    final Checkpoint checkpoint;
+
+    private CheckpointFile(SchedulingAlgorithm algorithm, SchedulerConfig config, ProcessTable workload,
+                           Checkpoint checkpoint) {
+        this.algorithm = algorithm;
+        this.config = config;
+        this.workload = workload;
+        this.checkpoint = checkpoint;
+    }
+
+    // Runs the rest of the simulation from the saved checkpoint, taking new checkpoints into log
+    SimulationResult resume(Checkpoints log, SimulationProgress progress) {
+        return ((CheckpointingAlgorithm) algorithm).schedule(workload.copyInputs(), checkpoint, log, progress);
+    }
+
+    // File layout, big-endian: MAGIC, VERSION, algorithm (length-prefixed UTF-8), the single-CPU
+    // settings, process count, the arrival, burst, priority and deadline columns, then the
+    // checkpoint: time, admitted, last admitted arrival, the completion order so far with each
+    // finished process's start, finish and waiting time, the timeline so far as (size, processes,
+    // starts, ends), the registers, and the active processes with their remaining, start and key.
+    // Written under a temporary name and renamed, so an interrupted save leaves the old file intact.
+    static void write(Path file, Checkpoint checkpoint, SchedulerConfig config) throws IOException {
+        SimulationResult run = checkpoint.run;
+        ProcessTable p = run.processes;
+        int n = p.size;
+        int[] levelQuanta = config.levelQuanta();
+        byte[] algorithm = checkpoint.algorithm.getBytes(StandardCharsets.UTF_8);
+        int active = checkpoint.active.length;
+        long size = 4L * (21 + levelQuanta.length) + algorithm.length + 16L * n + 16L * checkpoint.completed
+                + 12L * checkpoint.segments + 8L * checkpoint.registers.length + 12L * active
+                + (checkpoint.key == null ? 0 : 8L * active);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Checkpoint of " + n + " processes is too large to save");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putInt(algorithm.length).put(algorithm);
+        buffer.putInt(config.quantum).putInt(config.contextSwitchCost).putInt(config.agingInterval)
+                .putInt(config.targetLatency).putInt(config.minGranularity).putInt(config.boostInterval)
+                .putInt(config.refillCost).putInt(config.refillInterval);
+        buffer.putInt(levelQuanta.length);
+        for (int quantum : levelQuanta) {
+            buffer.putInt(quantum);
+        }
+        buffer.putInt(n);
+        for (int[] column : new int[][]{p.arrival, p.burst, p.priority, p.deadline}) {
+            putInts(buffer, column, n);
+        }
+        buffer.putInt(checkpoint.time).putInt(checkpoint.admitted).putInt(checkpoint.lastAdmittedArrival);
+        buffer.putInt(checkpoint.completed);
+        putInts(buffer, run.completionOrder, checkpoint.completed);
+        for (int[] column : new int[][]{p.start, p.finish, p.waiting}) {
+            for (int k = 0; k < checkpoint.completed; k++) {
+                buffer.putInt(column[run.completionOrder[k]]);
+            }
+        }
+        // The run may have extended its last segment since; the checkpoint's end is the one to keep
+        Timeline timeline = run.timeline;
+        int segments = checkpoint.segments;
+        buffer.putInt(segments);
+        putInts(buffer, timeline.process, segments);
+        putInts(buffer, timeline.start, segments);
+        putInts(buffer, timeline.end, segments - 1);
+        if (segments > 0) {
+            buffer.putInt(checkpoint.lastSegmentEnd);
+        }
+        buffer.putInt(checkpoint.registers.length);
+        for (long register : checkpoint.registers) {
+            buffer.putLong(register);
+        }
+        buffer.putInt(active);
+        putInts(buffer, checkpoint.active, active);
+        putInts(buffer, checkpoint.remaining, active);
+        putInts(buffer, checkpoint.start, active);
+        buffer.putInt(checkpoint.key == null ? 0 : 1);
+        if (checkpoint.key != null) {
+            for (long key : checkpoint.key) {
+                buffer.putLong(key);
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, buffer.array());
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static CheckpointFile read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a checkpoint file");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException(file + ": unsupported checkpoint version " + version);
+            }
+            String name = string(buffer);
+            SchedulerConfig config = SchedulerConfig.DEFAULT.withQuantum(buffer.getInt())
+                    .withContextSwitchCost(buffer.getInt()).withAgingInterval(buffer.getInt())
+                    .withTargetLatency(buffer.getInt()).withMinGranularity(buffer.getInt())
+                    .withBoostInterval(buffer.getInt()).withRefillCost(buffer.getInt())
+                    .withRefillInterval(buffer.getInt()).withLevelQuanta(ints(buffer, count(buffer, 4)));
+            SchedulingAlgorithm algorithm = SchedulingEngine.forName(name, config);
+            if (!(algorithm instanceof CheckpointingAlgorithm)) {
+                throw new IOException(file + ": " + name + " cannot resume from a checkpoint");
+            }
+
+            int n = count(buffer, 16);
+            int[] arrival = ints(buffer, n), burst = ints(buffer, n), priority = ints(buffer, n);
+            int[] deadline = ints(buffer, n);
+            ProcessTable workload = new ProcessTable(n);
+            for (int i = 0; i < n; i++) {
+                workload.add(arrival[i], burst[i], priority[i], deadline[i]);
+            }
+            // The run so far: its finished processes and timeline are all the checkpoint reads from it
+            SimulationResult run = new SimulationResult(name, workload.copyInputs(), SimulationProgress.NONE);
+            ProcessTable p = run.processes;
+            int time = buffer.getInt(), admitted = buffer.getInt(), lastAdmittedArrival = buffer.getInt();
+            int completed = count(buffer, 16);
+            if (completed > n) {
+                throw new BufferUnderflowException();
+            }
+            getInts(buffer, run.completionOrder, completed);
+            for (int[] column : new int[][]{p.start, p.finish, p.waiting}) {
+                for (int k = 0; k < completed; k++) {
+                    column[index(run.completionOrder[k], n)] = buffer.getInt();
+                }
+            }
+            run.completedCount = completed;
+            int segments = count(buffer, 12);
+            Timeline timeline = run.timeline;
+            timeline.process = new int[Math.max(segments, 4)];
+            timeline.start = new int[Math.max(segments, 4)];
+            timeline.end = new int[Math.max(segments, 4)];
+            getInts(buffer, timeline.process, segments);
+            getInts(buffer, timeline.start, segments);
+            getInts(buffer, timeline.end, segments);
+            timeline.size = segments;
+            long[] registers = new long[count(buffer, 8)];
+            for (int r = 0; r < registers.length; r++) {
+                registers[r] = buffer.getLong();
+            }
+            int active = count(buffer, 12);
+            int[] indices = ints(buffer, active);
+            for (int index : indices) {
+                index(index, n);
+            }
+            int[] remaining = ints(buffer, active);
+            int[] start = ints(buffer, active);
+            long[] key = null;
+            if (buffer.getInt() != 0) {
+                key = new long[active];
+                for (int j = 0; j < active; j++) {
+                    key[j] = buffer.getLong();
+                }
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException(file + ": unexpected data after the checkpoint");
+            }
+            Checkpoint checkpoint = new Checkpoint(run, time, admitted, lastAdmittedArrival, completed, segments,
+                    timeline.endTime(), registers, indices, remaining, start, key);
+            return new CheckpointFile(algorithm, config, workload, checkpoint);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new IOException(file + " is damaged or truncated");
+        }
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values, int count) {
+        if (count > 0) {
+            buffer.asIntBuffer().put(values, 0, count);
+            buffer.position(buffer.position() + 4 * count);
+        }
+    }
+
+    private static void getInts(ByteBuffer buffer, int[] into, int count) {
+        buffer.asIntBuffer().get(into, 0, count);
+        buffer.position(buffer.position() + 4 * count);
+    }
+
+    private static int[] ints(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        getInts(buffer, values, count);
+        return values;
+    }
+
+    // A length read from the file, checked against what is left of it so a damaged length
+    // cannot ask for a huge array
+    private static int count(ByteBuffer buffer, int bytesEach) {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * bytesEach > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static int index(int index, int n) {
+        if (index < 0 || index >= n) {
+            throw new BufferUnderflowException();
+        }
+        return index;
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = count(buffer, 1);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
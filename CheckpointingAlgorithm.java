@@ -0,0 +1,14 @@
+// A single-CPU engine that records checkpoints of its state while it runs and can carry on from
+// one instead of starting at time zero. A checkpoint stays valid for any workload in which every
+// process it had admitted is unchanged (see IncrementalSimulator).
+interface CheckpointingAlgorithm extends SchedulingAlgorithm {
+    // Runs the workload from the checkpoint, or from the start if from is null, adding the
+    // checkpoints it takes to log unless log is null. from must come from a run of this algorithm
+    // with the same settings.
+    SimulationResult schedule(ProcessTable processes, Checkpoint from, Checkpoints log, SimulationProgress progress);
+
+    @Override
+    default SimulationResult schedule(ProcessTable processes, SimulationProgress progress) {
+        return schedule(processes, null, null, progress);
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// The checkpoints of one run, in time order. Engines ask due() once per loop iteration and take a
+// checkpoint when it says so. There are never more than MAX of them: when the list overflows,
+// every other one is dropped and the spacing doubles, so they stay spread over the whole run.
+final class Checkpoints {
+    private static final int MAX = 64;
+    private static final int FIRST_INTERVAL = 256; // engine loop iterations
+
+    private final List<Checkpoint> list = new ArrayList<>();
+    private long interval = FIRST_INTERVAL;
+    private long countdown = FIRST_INTERVAL;
+    private Consumer<Checkpoint> listener = checkpoint -> { };
+
+    // Called with every new checkpoint, on the engine's thread
+    void setListener(Consumer<Checkpoint> listener) {
+        this.listener = listener;
+    }
+
+    boolean due() {
+        if (--countdown > 0) {
+            return false;
+        }
+        countdown = interval;
+        return true;
+    }
+
+    void add(Checkpoint checkpoint) {
+        list.add(checkpoint);
+        if (list.size() > MAX) {
+            for (int k = 1; k < list.size(); k++) {
+                list.remove(k); // keeps positions 0, 2, 4, ...
+            }
+            interval *= 2;
+        }
+        listener.accept(checkpoint);
+    }
+
+    int size() {
+        return list.size();
+    }
+
+    // The latest checkpoint that had admitted only processes arriving before the given time, and
+    // whose clock had not passed it yet (an engine can run ahead of its arrivals, through a context
+    // switch or to the end of a slice); null if there is none
+    Checkpoint latestBefore(int arrival) {
+        for (int k = list.size() - 1; k >= 0; k--) {
+            Checkpoint checkpoint = list.get(k);
+            if (checkpoint.lastAdmittedArrival < arrival && checkpoint.time <= arrival) {
+                return checkpoint;
+            }
+        }
+        return null;
+    }
+
+    // A log for a run resumed from last, starting with this log's checkpoints up to and including it
+    Checkpoints upTo(Checkpoint last) {
+        Checkpoints kept = new Checkpoints();
+        kept.interval = interval;
+        kept.countdown = interval;
+        for (Checkpoint checkpoint : list) {
+            kept.list.add(checkpoint);
+            if (checkpoint == last) {
+                break;
+            }
+        }
+        return kept;
+    }
+
+    // Points every checkpoint at a run whose result starts the same way, so the run they were
+    // taken from can be let go
+    void rebase(SimulationResult run) {
+        for (Checkpoint checkpoint : list) {
+            checkpoint.run = run;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.io.OutputStream;
+
+// ResultSink that streams per-process results, and optionally Gantt segments, as CSV.
+// Numbers are formatted straight into a byte buffer, so writing a row allocates nothing.
+final class CsvResultWriter implements ResultSink {
+    private final AsciiOut results;
+    private final AsciiOut segments; // null when no Gantt output was requested
+
+    CsvResultWriter(OutputStream results, OutputStream segments) throws IOException {
+        this.results = new AsciiOut(results);
+        this.results.text("process,arrival,burst,priority,start,finish,waiting,turnaround\n");
+        this.segments = segments == null ? null : new AsciiOut(segments);
+        if (this.segments != null) {
+            this.segments.text("process,start,end\n");
+        }
+    }
+
+    @Override
+    public void processCompleted(long id, int arrival, int burst, int priority, long start, long finish)
+            throws IOException {
+        results.label(id).comma().number(arrival).comma().number(burst).comma().number(priority).comma()
+                .number(start).comma().number(finish).comma().number(finish - arrival - burst).comma()
+                .number(finish - arrival).newline();
+    }
+
+    @Override
+    public void segment(long process, long start, long end) throws IOException {
+        if (segments != null) {
+            segments.label(process).comma().number(start).comma().number(end).newline();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            results.close();
+        } finally {
+            if (segments != null) {
+                segments.close();
+            }
+        }
+    }
+
+    // Minimal buffered ASCII writer
+    static final class AsciiOut {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[1 << 16];
+        private final byte[] digits = new byte[20];
+        private int size;
+
+        AsciiOut(OutputStream out) {
+            this.out = out;
+        }
+
+        AsciiOut text(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                put((byte) text.charAt(i));
+            }
+            return this;
+        }
+
+        AsciiOut comma() throws IOException {
+            put((byte) ',');
+            return this;
+        }
+
+        AsciiOut newline() throws IOException {
+            put((byte) '\n');
+            return this;
+        }
+
+        // Process name as in ProcessTable.name / Timeline.label
+        AsciiOut label(long process) throws IOException {
+            if (process == Timeline.IDLE) {
+                return text("Idle");
+            }
+            if (process == Timeline.CONTEXT_SWITCH) {
+                return text("CS");
+            }
+            put((byte) 'P');
+            return number(process);
+        }
+
+        AsciiOut number(long value) throws IOException {
+            if (value < 0) {
+                put((byte) '-');
+                if (value == Long.MIN_VALUE) {
+                    return text("9223372036854775808");
+                }
+                value = -value;
+            }
+            int n = 0;
+            do {
+                digits[n++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            while (n > 0) {
+                put(digits[--n]);
+            }
+            return this;
+        }
+
+        private void put(byte b) throws IOException {
+            if (size == buffer.length) {
+                flush();
+            }
+            buffer[size++] = b;
+        }
+
+        void flush() throws IOException {
+            out.write(buffer, 0, size);
+            size = 0;
+        }
+
+        void close() throws IOException {
+            flush();
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+// Earliest Deadline First, preemptive: the waiting process with the nearest absolute deadline runs,
+// and an arrival with an earlier deadline than the running process takes the CPU. Processes
+// without a deadline come after all that have one, in arrival order (see HeapScheduler).
+class EdfScheduler extends HeapScheduler {
+    EdfScheduler(SwitchCosts switchCosts) {
+        super(switchCosts);
+    }
+
+    @Override
+    public String name() {
+        return "EDF";
+    }
+
+    @Override
+    ReadyRule rule() {
+        return ReadyRule.earliestDeadline();
+    }
+}
@@ -0,0 +1,187 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// What one scheduling run did, for profiling batch runs: processes admitted, dispatches,
+// preemptions (a process leaving the CPU with CPU time left, because its slice ran out or a
+// better process arrived), completions, I/O completions, Gantt segments, the most processes left
+// waiting in the ready queues at any dispatch, and simulated against wall-clock time.
+// Counting is off unless the JVM runs with -Dscheduler.counters=true. Engines only count through
+// SimulationResult, behind checks of ENABLED; it is static final, so the JIT treats it as a
+// constant and drops the counting code altogether when it is false.
+// When on, every finished run is committed as a SimulationRunEvent to any JFR recording and
+// added to the totals of the EngineStats MBean (CPUSchedulingSimulator:type=EngineStats).
+final class EngineCounters {
+    static final boolean ENABLED = Boolean.getBoolean("scheduler.counters");
+    static final String MBEAN_NAME = "CPUSchedulingSimulator:type=EngineStats";
+    // Neither the totals nor JMX are touched while counting is off
+    private static final Totals TOTALS = ENABLED ? Totals.register() : null;
+
+    long admitted, dispatches, preemptions, completions, ioCompletions, segments;
+    int queueHighWater;
+    long simulatedTime, wallNanos;
+    private final long startNanos = System.nanoTime();
+    private int resumedAdmitted, resumedSegments; // already done by the checkpoint a run resumed from
+
+    void dispatched(int waiting) {
+        dispatches++;
+        if (waiting > queueHighWater) {
+            queueHighWater = waiting;
+        }
+    }
+
+    // The run carries on from a checkpoint, so only what happens after it is counted
+    void resumed(int admittedBefore, int segmentsBefore) {
+        resumedAdmitted = admittedBefore;
+        resumedSegments = segmentsBefore;
+    }
+
+    // Arrivals, dispatches, preemptions, completions and I/O completions handled
+    long events() {
+        return admitted + dispatches + preemptions + completions + ioCompletions;
+    }
+
+    double simulatedTimePerSecond() {
+        return wallNanos == 0 ? 0 : simulatedTime * 1e9 / wallNanos;
+    }
+
+    // Completes the counts of the finished run and publishes them
+    void finish(SimulationResult result) {
+        wallNanos = System.nanoTime() - startNanos;
+        admitted = result.processes.size - resumedAdmitted;
+        segments = -resumedSegments;
+        for (Timeline lane : result.lanes) {
+            segments += lane.size;
+        }
+        simulatedTime = result.makespan();
+        SimulationRunEvent.commit(result.algorithm, result.processes.size, this);
+        TOTALS.add(this);
+    }
+
+    // "events=... dispatches=..." summary for the text reports
+    String describe() {
+        return String.format("events=%d admitted=%d dispatches=%d preemptions=%d completions=%d io=%d segments=%d"
+                        + " queue high-water=%d simulated/s=%.0f wall=%.3fms", events(), admitted, dispatches,
+                preemptions, completions, ioCompletions, segments, queueHighWater, simulatedTimePerSecond(),
+                wallNanos / 1e6);
+    }
+
+    // Totals over every run since start-up or the last reset, safe to update from parallel runs
+    static final class Totals implements EngineStatsMXBean {
+        private final LongAdder runs = new LongAdder(), admitted = new LongAdder(), dispatches = new LongAdder(),
+                preemptions = new LongAdder(), completions = new LongAdder(), ioCompletions = new LongAdder(),
+                segments = new LongAdder(), simulatedTime = new LongAdder(), wallNanos = new LongAdder();
+        private final LongAccumulator queueHighWater = new LongAccumulator(Math::max, 0);
+
+        static Totals register() {
+            Totals totals = new Totals();
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(totals, new ObjectName(MBEAN_NAME));
+            } catch (JMException ex) {
+                System.err.println("Cannot register " + MBEAN_NAME + ": " + ex.getMessage());
+            }
+            return totals;
+        }
+
+        void add(EngineCounters run) {
+            runs.increment();
+            admitted.add(run.admitted);
+            dispatches.add(run.dispatches);
+            preemptions.add(run.preemptions);
+            completions.add(run.completions);
+            ioCompletions.add(run.ioCompletions);
+            segments.add(run.segments);
+            simulatedTime.add(run.simulatedTime);
+            wallNanos.add(run.wallNanos);
+            queueHighWater.accumulate(run.queueHighWater);
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public long getRuns() {
+            return runs.sum();
+        }
+
+        @Override
+        public long getEvents() {
+            return admitted.sum() + dispatches.sum() + preemptions.sum() + completions.sum() + ioCompletions.sum();
+        }
+
+        @Override
+        public long getAdmitted() {
+            return admitted.sum();
+        }
+
+        @Override
+        public long getDispatches() {
+            return dispatches.sum();
+        }
+
+        @Override
+        public long getPreemptions() {
+            return preemptions.sum();
+        }
+
+        @Override
+        public long getCompletions() {
+            return completions.sum();
+        }
+
+        @Override
+        public long getIoCompletions() {
+            return ioCompletions.sum();
+        }
+
+        @Override
+        public long getSegments() {
+            return segments.sum();
+        }
+
+        @Override
+        public long getQueueHighWater() {
+            return queueHighWater.get();
+        }
+
+        @Override
+        public long getSimulatedTime() {
+            return simulatedTime.sum();
+        }
+
+        @Override
+        public double getWallSeconds() {
+            return wallNanos.sum() / 1e9;
+        }
+
+        @Override
+        public double getSimulatedTimePerSecond() {
+            long nanos = wallNanos.sum();
+            return nanos == 0 ? 0 : simulatedTime.sum() * 1e9 / nanos;
+        }
+
+        @Override
+        public double getEventsPerSecond() {
+            long nanos = wallNanos.sum();
+            return nanos == 0 ? 0 : getEvents() * 1e9 / nanos;
+        }
+
+        @Override
+        public void reset() {
+            runs.reset();
+            admitted.reset();
+            dispatches.reset();
+            preemptions.reset();
+            completions.reset();
+            ioCompletions.reset();
+            segments.reset();
+            simulatedTime.reset();
+            wallNanos.reset();
+            queueHighWater.reset();
+        }
+    }
+}
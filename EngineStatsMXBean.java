@@ -0,0 +1,36 @@
+// Management interface of the engine counters' totals (see EngineCounters), readable from
+// JConsole, VisualVM or any JMX client while batch runs are going on. JMX only introspects
+// public interfaces, hence the public modifier.
+public interface EngineStatsMXBean {
+    // Whether the JVM was started with -Dscheduler.counters=true; all counts stay 0 otherwise
+    boolean isEnabled();
+
+    long getRuns();
+
+    long getEvents();
+
+    long getAdmitted();
+
+    long getDispatches();
+
+    long getPreemptions();
+
+    long getCompletions();
+
+    long getIoCompletions();
+
+    long getSegments();
+
+    // Most processes left waiting in the ready queues at a dispatch, over all runs
+    long getQueueHighWater();
+
+    long getSimulatedTime();
+
+    double getWallSeconds();
+
+    double getSimulatedTimePerSecond();
+
+    double getEventsPerSecond();
+
+    void reset();
+}
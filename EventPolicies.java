@@ -0,0 +1,336 @@
+// The EventSimulator policies of the single-CPU algorithms. Each keeps the ready queue of its
+// batch engine and makes the same decisions at the same moments, so a workload without I/O gets
+// the same schedule either way; the difference is that a process can also leave the CPU for I/O
+// and come back later, which the policies treat like a new arrival with their own twist.
+final class EventPolicies {
+    private EventPolicies() {
+    }
+
+    // FIFO with a quantum. A process whose slice ran out goes to the back of the queue only when
+    // the next process is taken, so processes that arrive at that same moment queue ahead of it.
+    static final class RoundRobin implements EventPolicy {
+        private final int quantum;
+        private final SwitchCosts switchCosts;
+        private IntRingQueue queue;
+        private int expired = -1; // waiting to be queued at the next poll
+
+        RoundRobin(int quantum, SwitchCosts switchCosts) {
+            this.quantum = quantum;
+            this.switchCosts = switchCosts;
+        }
+
+        @Override
+        public void start(ProcessTable processes) {
+            queue = new IntRingQueue(processes.size);
+        }
+
+        @Override
+        public void arrived(int index, int now) {
+            queue.add(index);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty() && expired < 0;
+        }
+
+        @Override
+        public int poll(int now) {
+            if (expired >= 0) {
+                queue.add(expired);
+                expired = -1;
+            }
+            return queue.poll();
+        }
+
+        @Override
+        public int slice(int index) {
+            return quantum;
+        }
+
+        @Override
+        public void requeue(int index, boolean sliceExpired, int now) {
+            if (sliceExpired) {
+                expired = index;
+            } else {
+                queue.add(index);
+            }
+        }
+
+        @Override
+        public SwitchCosts switchCosts() {
+            return switchCosts;
+        }
+    }
+
+    // Ready queue in an IndexHeap, ordered and preempted by a ReadyRule. A process back from I/O
+    // is keyed as a new arrival, with the CPU burst it is about to run; SJF Non-Preemptive breaks
+    // ties on that burst.
+    static final class Heap implements EventPolicy {
+        private final ReadyRule rule;
+        private final SwitchCosts switchCosts;
+        private ProcessTable processes;
+        private long[] key;
+        private int[] burst; // of the CPU burst a queued process is waiting to run, for tiesOnBurst
+        private IndexHeap queue;
+
+        Heap(ReadyRule rule, SwitchCosts switchCosts) {
+            this.rule = rule;
+            this.switchCosts = switchCosts;
+        }
+
+        @Override
+        public void start(ProcessTable processes) {
+            this.processes = processes;
+            key = new long[processes.size];
+            burst = rule.tiesOnBurst() ? new int[processes.size] : null;
+            queue = new IndexHeap(key, burst != null ? burst : processes.arrival, processes.size);
+        }
+
+        @Override
+        public void arrived(int index, int now) {
+            if (burst != null) {
+                burst[index] = processes.remaining[index];
+            }
+            key[index] = rule.key(processes, index, now);
+            queue.add(index);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        public int poll(int now) {
+            return queue.poll();
+        }
+
+        @Override
+        public boolean preempts(int running, int now) {
+            if (!rule.preemptive || queue.isEmpty()) {
+                return false;
+            }
+            key[running] = rule.key(processes, running, now);
+            return queue.less(queue.peek(), running);
+        }
+
+        @Override
+        public void requeue(int index, boolean expired, int now) {
+            arrived(index, now);
+        }
+
+        @Override
+        public SwitchCosts switchCosts() {
+            return switchCosts;
+        }
+    }
+
+    // CfsScheduler's virtual runtimes. A process back from I/O keeps its virtual runtime unless
+    // that has fallen behind the minimum, so sleeping earns no credit beyond a prompt turn.
+    // Blocked processes do not count toward the total weight that slices are shared out by.
+    static final class Cfs implements EventPolicy {
+        private final int targetLatency;
+        private final long wakeupGranularity;
+        private final int minGranularity;
+        private final SwitchCosts switchCosts;
+        private ProcessTable processes;
+        private long[] vruntime;
+        private IndexHeap queue;
+        private long minVruntime;
+        private long totalWeight; // of the running and waiting processes
+
+        Cfs(int targetLatency, int minGranularity, SwitchCosts switchCosts) {
+            this.targetLatency = targetLatency;
+            this.minGranularity = minGranularity;
+            this.wakeupGranularity = CfsScheduler.virtualRuntime(minGranularity, 0); // at nice 0
+            this.switchCosts = switchCosts;
+        }
+
+        @Override
+        public void start(ProcessTable processes) {
+            this.processes = processes;
+            vruntime = new long[processes.size];
+            queue = new IndexHeap(vruntime, processes.arrival, processes.size);
+        }
+
+        @Override
+        public void arrived(int index, int now) {
+            vruntime[index] = minVruntime;
+            totalWeight += CfsScheduler.weight(processes.priority[index]);
+            queue.add(index);
+        }
+
+        @Override
+        public void wokeUp(int index, int now) {
+            vruntime[index] = Math.max(vruntime[index], minVruntime);
+            totalWeight += CfsScheduler.weight(processes.priority[index]);
+            queue.add(index);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        public int poll(int now) {
+            return queue.poll();
+        }
+
+        @Override
+        public int slice(int index) {
+            long slice = Math.max(minGranularity,
+                    targetLatency * (long) CfsScheduler.weight(processes.priority[index]) / totalWeight);
+            return (int) Math.min(slice, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void charged(int index, int ran, int now, boolean continues) {
+            vruntime[index] += CfsScheduler.virtualRuntime(ran, processes.priority[index]);
+            if (continues) {
+                minVruntime = Math.max(minVruntime, queue.isEmpty() ? vruntime[index]
+                        : Math.min(vruntime[index], vruntime[queue.peek()]));
+            }
+        }
+
+        @Override
+        public boolean preempts(int running, int now) {
+            return !queue.isEmpty() && vruntime[running] - vruntime[queue.peek()] > wakeupGranularity;
+        }
+
+        @Override
+        public void requeue(int index, boolean expired, int now) {
+            queue.add(index);
+            if (expired) {
+                minVruntime = Math.max(minVruntime, vruntime[queue.peek()]);
+            }
+        }
+
+        @Override
+        public void left(int index, boolean finished, int now) {
+            totalWeight -= CfsScheduler.weight(processes.priority[index]);
+            if (!queue.isEmpty()) {
+                minVruntime = Math.max(minVruntime, vruntime[queue.peek()]);
+            }
+        }
+
+        @Override
+        public SwitchCosts switchCosts() {
+            return switchCosts;
+        }
+    }
+
+    // MlfqScheduler's levels. A process that blocks for I/O before its quantum is up keeps its
+    // level for when it comes back, unless a boost has happened in the meantime. Like Round Robin,
+    // a demoted process is only queued at the next poll or boost, after same-time arrivals. When a
+    // boost comes while a process is running, the processes that joined the top level since it was
+    // dispatched stay behind the boosted ones, as they do in MlfqScheduler (which only admits them
+    // when that process's slice ends).
+    static final class Mlfq implements EventPolicy {
+        private final int[] quanta;
+        private final int boostInterval;
+        private final SwitchCosts switchCosts;
+        private MlfqScheduler.LevelQueues queues;
+        private int[] level, boosted; // of a blocked process, and the boost count when it blocked
+        private int boosts;
+        private int runLevel; // of the running process
+        private boolean running;
+        private int expired = -1, expiredLevel;
+        private int admittedTail; // last process on the top level when the running one was dispatched
+
+        Mlfq(int[] quanta, int boostInterval, SwitchCosts switchCosts) {
+            this.quanta = quanta.clone();
+            this.boostInterval = boostInterval;
+            this.switchCosts = switchCosts;
+        }
+
+        @Override
+        public void start(ProcessTable processes) {
+            queues = new MlfqScheduler.LevelQueues(processes.size, quanta.length);
+            level = new int[processes.size];
+            boosted = new int[processes.size];
+        }
+
+        @Override
+        public void arrived(int index, int now) {
+            queues.add(index, 0);
+        }
+
+        @Override
+        public void wokeUp(int index, int now) {
+            queues.add(index, boosted[index] == boosts ? level[index] : 0);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return queues.isEmpty() && expired < 0;
+        }
+
+        @Override
+        public int poll(int now) {
+            queueExpired();
+            runLevel = queues.highest();
+            int index = queues.poll(runLevel);
+            running = true;
+            admittedTail = queues.tail(0);
+            return index;
+        }
+
+        @Override
+        public int slice(int index) {
+            return quanta[runLevel];
+        }
+
+        @Override
+        public boolean preempts(int running, int now) {
+            return !queues.isEmpty() && queues.highest() < runLevel;
+        }
+
+        @Override
+        public void requeue(int index, boolean sliceExpired, int now) {
+            running = false;
+            if (sliceExpired) {
+                expired = index;
+                expiredLevel = Math.min(runLevel + 1, quanta.length - 1);
+            } else {
+                queues.add(index, runLevel);
+            }
+        }
+
+        @Override
+        public void left(int index, boolean finished, int now) {
+            running = false;
+            level[index] = runLevel;
+            boosted[index] = boosts;
+        }
+
+        @Override
+        public SwitchCosts switchCosts() {
+            return switchCosts;
+        }
+
+        @Override
+        public int timerInterval() {
+            return boostInterval;
+        }
+
+        @Override
+        public void timer(int now) {
+            queueExpired();
+            int joined = running ? queues.detachAfter(0, admittedTail) : -1;
+            queues.boost();
+            admittedTail = queues.tail(0);
+            queues.attach(0, joined);
+            boosts++;
+            runLevel = 0;
+        }
+
+        private void queueExpired() {
+            if (expired >= 0) {
+                queues.add(expired, expiredLevel);
+                expired = -1;
+            }
+        }
+    }
+}
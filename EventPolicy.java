@@ -0,0 +1,60 @@
+// The decisions of one scheduling algorithm, as asked for by EventSimulator. The simulator owns the
+// clock, the CPU, the devices and the timeline; the policy owns the ready queue and whatever
+// bookkeeping its order needs. A policy is made fresh for every run (see
+// SchedulingAlgorithm.eventPolicy) and sees processes.remaining as the time left in each
+// process's current CPU burst.
+interface EventPolicy {
+    void start(ProcessTable processes);
+
+    // A process entered the system at its arrival time
+    void arrived(int index, int now);
+
+    // A process came back from I/O and is ready for its next CPU burst
+    default void wokeUp(int index, int now) {
+        arrived(index, now);
+    }
+
+    boolean isEmpty();
+
+    // Takes the process to run next; the ready queue must not be empty
+    int poll(int now);
+
+    // Longest the process may run once dispatched before it has to give up the CPU
+    default int slice(int index) {
+        return Integer.MAX_VALUE;
+    }
+
+    // The running process has run ran more time units, up to now; continues is false when its
+    // slice or burst is over. processes.remaining has already been reduced.
+    default void charged(int index, int ran, int now, boolean continues) {
+    }
+
+    // Whether the processes that just became ready should take the CPU from the running one
+    default boolean preempts(int running, int now) {
+        return false;
+    }
+
+    // Puts a process that still has CPU time to do back in the ready queue: expired when its
+    // slice ran out, otherwise it was preempted
+    void requeue(int index, boolean expired, int now);
+
+    // The process finished its CPU burst and leaves the CPU, for good when finished is true,
+    // otherwise for I/O
+    default void left(int index, boolean finished, int now) {
+    }
+
+    // What the CPU spends switching to a different process than the one it ran last
+    default SwitchCosts switchCosts() {
+        return SwitchCosts.NONE;
+    }
+
+    // A timer() call is due at every multiple of this interval while processes are in the
+    // system; 0 for none
+    default int timerInterval() {
+        return 0;
+    }
+
+    // Runs after everything else that happens at that time, before the next dispatch
+    default void timer(int now) {
+    }
+}
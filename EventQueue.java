@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+// Future events of a discrete-event simulation, kept in a hierarchical timing wheel: LEVELS wheels
+// of 64 slots, level L slot s holding the events whose time agrees with the wheel's current time
+// above bit 6(L+1) and has s in bits 6L..6L+5. An event goes straight into its slot, and when the
+// earliest events sit on a higher level their slot is cascaded down as the clock reaches it, so
+// each event moves at most LEVELS times. A bitmap per level finds the first occupied slot in one
+// instruction. Adding and removing are therefore amortized O(1), however many events are pending.
+// Events at the same time come out in the order they were added. Each event carries a kind and
+// a subject (both ints, chosen by the caller); events are stored in int arrays linked through
+// next, so the queue allocates nothing once it has grown to the largest number pending.
+final class EventQueue {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = 6; // 36 bits cover every non-negative int time
+
+    private int[] time, kind, subject, next;
+    private int free = -1; // chain of unused entries
+    private int used; // entries ever handed out
+    private final int[] head = new int[LEVELS * SLOTS], tail = new int[LEVELS * SLOTS];
+    private final long[] occupied = new long[LEVELS]; // bit s of level L: slot s is not empty
+    private int now; // no event is earlier; moves forward as events are taken
+    private int size;
+
+    EventQueue(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        time = new int[capacity];
+        kind = new int[capacity];
+        subject = new int[capacity];
+        next = new int[capacity];
+        Arrays.fill(head, -1);
+        Arrays.fill(tail, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(int eventTime, int eventKind, int eventSubject) {
+        if (eventTime < now) {
+            throw new IllegalArgumentException("Event at " + eventTime + " is before the current time " + now);
+        }
+        int e = free;
+        if (e >= 0) {
+            free = next[e];
+        } else {
+            if (used == time.length) {
+                int capacity = used * 2;
+                time = Arrays.copyOf(time, capacity);
+                kind = Arrays.copyOf(kind, capacity);
+                subject = Arrays.copyOf(subject, capacity);
+                next = Arrays.copyOf(next, capacity);
+            }
+            e = used++;
+        }
+        time[e] = eventTime;
+        kind[e] = eventKind;
+        subject[e] = eventSubject;
+        insert(e);
+        size++;
+    }
+
+    // Time of the earliest event; the queue must not be empty. Finding it may move the queue's
+    // clock up to that time, after which no earlier event can be added.
+    int peekTime() {
+        return time[head[first(Long.MAX_VALUE)]];
+    }
+
+    // Time of the earliest event if it is no later than limit, otherwise Long.MAX_VALUE. The clock
+    // stays at or before limit, so a caller with other business before the next event can still
+    // add events from limit on.
+    long peekTime(long limit) {
+        int slot = first(limit);
+        return slot < 0 || time[head[slot]] > limit ? Long.MAX_VALUE : time[head[slot]];
+    }
+
+    int peekKind() {
+        return kind[head[first(Long.MAX_VALUE)]];
+    }
+
+    int peekSubject() {
+        return subject[head[first(Long.MAX_VALUE)]];
+    }
+
+    // Removes the earliest event; read it with the peek methods first
+    void remove() {
+        int slot = first(Long.MAX_VALUE);
+        int e = head[slot];
+        now = time[e];
+        head[slot] = next[e];
+        if (head[slot] < 0) {
+            tail[slot] = -1;
+            occupied[0] &= ~(1L << slot);
+        }
+        next[e] = free;
+        free = e;
+        size--;
+    }
+
+    // Appends the entry to the slot for its time, relative to now
+    private void insert(int e) {
+        int t = time[e];
+        int differing = t ^ now;
+        int level = differing == 0 ? 0 : (31 - Integer.numberOfLeadingZeros(differing)) / BITS;
+        int s = (t >>> (BITS * level)) & (SLOTS - 1);
+        int slot = level * SLOTS + s;
+        next[e] = -1;
+        if (tail[slot] < 0) {
+            head[slot] = e;
+        } else {
+            next[tail[slot]] = e;
+        }
+        tail[slot] = e;
+        occupied[level] |= 1L << s;
+    }
+
+    // The level-0 slot holding the earliest events, cascading higher slots down as needed, but not
+    // those that start after limit (-1 then). All level-0 events come before all level-1 events and
+    // so on, and within a level the lowest occupied slot is the earliest, since every pending time
+    // agrees with now on the bits above.
+    private int first(long limit) {
+        if (occupied[0] != 0) {
+            return Long.numberOfTrailingZeros(occupied[0]);
+        }
+        for (int level = 1; level < LEVELS; level++) {
+            if (occupied[level] == 0) {
+                continue;
+            }
+            int s = Long.numberOfTrailingZeros(occupied[level]);
+            int slot = level * SLOTS + s;
+            // Move the clock to the start of that slot and spread its events over the lower levels
+            int shift = BITS * level;
+            int high = shift + BITS >= 32 ? 0 : (now >>> (shift + BITS)) << (shift + BITS);
+            if ((high | (s << shift)) > limit) {
+                return -1;
+            }
+            now = high | (s << shift);
+            int e = head[slot];
+            head[slot] = -1;
+            tail[slot] = -1;
+            occupied[level] &= ~(1L << s);
+            while (e >= 0) {
+                int following = next[e];
+                insert(e);
+                e = following;
+            }
+            return first(limit);
+        }
+        if (limit != Long.MAX_VALUE) {
+            return -1;
+        }
+        throw new IllegalStateException("No pending events");
+    }
+}
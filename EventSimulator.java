@@ -0,0 +1,229 @@
+// Discrete-event simulation of one CPU and any number of I/O devices, shared by every single-CPU
+// algorithm through its EventPolicy. A process runs its CPU bursts on the CPU and its I/O phases
+// on their devices, each a first-come first-served server with its own queue, so I/O-bound and
+// CPU-bound processes overlap as they would on a real machine.
+// The clock jumps from event to event. Pending arrivals and I/O completions sit in an EventQueue
+// (a timing wheel, so each costs amortized O(1)); the CPU's own next event and the policy's timer
+// are kept beside it. All events at one instant are handled in a fixed order: the CPU first
+// (a slice or burst ending), then arrivals and I/O completions, then a preemption check if
+// anything became ready, then the timer, and last a dispatch if the CPU is free.
+// Workloads without I/O get the same schedule as the algorithms' own engines, which stay the
+// faster choice for them; SchedulingEngine only sends workloads with I/O phases here.
+final class EventSimulator {
+    private static final int ARRIVAL = 0, IO_DONE = 1; // event kinds; an I/O event's subject is the process
+    private static final int IDLE = 0, SWITCHING = 1, RUNNING = 2; // CPU states
+
+    private final String algorithm;
+    private final EventPolicy policy;
+    private final ProcessTable processes;
+    private final SimulationProgress progress;
+    private final EventQueue events = new EventQueue(64);
+    private int[] phase; // index into the phase columns of each process's current phase
+    private boolean[] deviceBusy;
+    private IntRingQueue[] deviceQueue;
+    private int inIo; // processes on a device or queued for one
+    private long handled; // events handled so far
+
+    EventSimulator(String algorithm, EventPolicy policy, ProcessTable processes, SimulationProgress progress) {
+        this.algorithm = algorithm;
+        this.policy = policy;
+        this.processes = processes;
+        this.progress = progress;
+    }
+
+    // Runs the algorithm on the table, whose output columns are filled in
+    static SimulationResult run(SchedulingAlgorithm algorithm, ProcessTable processes, SimulationProgress progress) {
+        EventPolicy policy = algorithm.eventPolicy();
+        if (policy == null) {
+            throw new IllegalArgumentException(algorithm.name() + " cannot run processes with I/O phases; only single-CPU runs can");
+        }
+        return new EventSimulator(algorithm.name(), policy, processes, progress).run();
+    }
+
+    // Arrivals, I/O completions, CPU slice ends and timer ticks handled by the last run
+    long eventsHandled() {
+        return handled;
+    }
+
+    SimulationResult run() {
+        SimulationResult result = new SimulationResult(algorithm, processes, progress);
+        Timeline timeline = result.timeline;
+        int n = processes.size;
+        int[] arrival = processes.arrival;
+        int[] remaining = processes.remaining;
+        if (processes.hasPhases()) {
+            phase = new int[n];
+            for (int i = 0; i < n; i++) {
+                phase[i] = processes.phaseStart[i];
+                remaining[i] = processes.phaseLength[phase[i]];
+            }
+            int devices = processes.devices();
+            deviceBusy = new boolean[devices];
+            deviceQueue = new IntRingQueue[devices];
+            for (int d = 0; d < devices; d++) {
+                deviceQueue[d] = new IntRingQueue(n);
+            }
+        }
+        policy.start(processes);
+        SwitchCosts.Tracker switches = policy.switchCosts().track(processes);
+        int timerInterval = policy.timerInterval();
+        int[] arrivalOrder = IndexSort.byKey(arrival, n);
+        int next = 0; // next position in arrivalOrder; only its arrival time is in the event queue
+        if (n > 0) {
+            events.add(arrival[arrivalOrder[0]], ARRIVAL, 0);
+        }
+
+        int cpu = IDLE;
+        long cpuEvent = Long.MAX_VALUE; // end of the context switch or of the running slice
+        int running = -1; // process switched to or running
+        int slice = 0; // granted to running when it was dispatched
+        int lastRun = -1; // process that ran last, to detect context switches
+        int runStart = 0, chargedUntil = 0;
+        int freeSince = 0; // the CPU has been idle since then
+        long nextTimer = Long.MAX_VALUE;
+        int active = 0; // arrived but not finished
+        boolean readied = false; // something became ready since the last dispatch or preemption check
+
+        while (result.completedCount < n) {
+            long limit = Math.min(cpuEvent, nextTimer);
+            int now = (int) Math.min(limit, events.peekTime(limit));
+
+            while (cpuEvent == now) {
+                handled++;
+                if (cpu == SWITCHING) {
+                    cpu = RUNNING;
+                    result.dispatched(running, now, active - inIo - 1);
+                    runStart = chargedUntil = now;
+                    cpuEvent = time(now, Math.min(slice, remaining[running]));
+                    continue;
+                }
+                // The slice or the CPU burst is over
+                int ran = now - chargedUntil;
+                remaining[running] -= ran;
+                policy.charged(running, ran, now, false);
+                timeline.add(running, runStart, now);
+                if (remaining[running] > 0) {
+                    result.preempted();
+                    switches.stopped(running, runStart, now);
+                    policy.requeue(running, true, now);
+                } else if (phase == null || phase[running] == processes.phaseStart[running + 1] - 1) {
+                    policy.left(running, true, now);
+                    result.complete(running, now);
+                    active--;
+                } else {
+                    policy.left(running, false, now);
+                    switches.stopped(running, runStart, now);
+                    phase[running]++;
+                    startIo(running, now);
+                }
+                cpu = IDLE;
+                cpuEvent = Long.MAX_VALUE;
+                running = -1;
+                freeSince = now;
+            }
+
+            if (events.peekTime(now) == now) {
+                if (cpu == RUNNING) {
+                    int ran = now - chargedUntil;
+                    remaining[running] -= ran;
+                    chargedUntil = now;
+                    policy.charged(running, ran, now, true);
+                }
+                do {
+                    int kind = events.peekKind(), subject = events.peekSubject();
+                    events.remove();
+                    if (kind == ARRIVAL) {
+                        while (next < n && arrival[arrivalOrder[next]] == now) {
+                            handled++;
+                            active++;
+                            policy.arrived(arrivalOrder[next++], now);
+                        }
+                        if (next < n) {
+                            events.add(arrival[arrivalOrder[next]], ARRIVAL, 0);
+                        }
+                        if (timerInterval > 0 && nextTimer == Long.MAX_VALUE) {
+                            nextTimer = (now / timerInterval + 1) * (long) timerInterval;
+                        }
+                    } else {
+                        handled++;
+                        inIo--;
+                        result.ioCompleted();
+                        int device = processes.phaseDevice[phase[subject]];
+                        phase[subject]++;
+                        remaining[subject] = processes.phaseLength[phase[subject]];
+                        policy.wokeUp(subject, now);
+                        if (deviceQueue[device].isEmpty()) {
+                            deviceBusy[device] = false;
+                        } else {
+                            int waiting = deviceQueue[device].poll();
+                            events.add(time(now, processes.phaseLength[phase[waiting]]), IO_DONE, waiting);
+                        }
+                    }
+                    readied = true;
+                } while (events.peekTime(now) == now);
+            }
+
+            // While switching, the check waits until the switch is over
+            if (cpu == RUNNING && readied) {
+                readied = false;
+                if (policy.preempts(running, now)) {
+                    timeline.add(running, runStart, now);
+                    result.preempted();
+                    switches.stopped(running, runStart, now);
+                    policy.requeue(running, false, now);
+                    cpu = IDLE;
+                    cpuEvent = Long.MAX_VALUE;
+                    running = -1;
+                    freeSince = now;
+                }
+            }
+
+            if (nextTimer == now) {
+                handled++;
+                policy.timer(now);
+                nextTimer = active > 0 ? now + (long) timerInterval : Long.MAX_VALUE;
+            }
+
+            if (cpu == IDLE && !policy.isEmpty()) {
+                running = policy.poll(now);
+                readied = false;
+                slice = policy.slice(running);
+                timeline.add(Timeline.IDLE, freeSince, now);
+                int switchCost = switches.cost(lastRun, running, now, false);
+                if (switchCost > 0) {
+                    timeline.add(Timeline.CONTEXT_SWITCH, now, time(now, switchCost));
+                    cpu = SWITCHING;
+                    cpuEvent = time(now, switchCost);
+                } else {
+                    cpu = RUNNING;
+                    result.dispatched(running, now, active - inIo - 1);
+                    runStart = chargedUntil = now;
+                    cpuEvent = time(now, Math.min(slice, remaining[running]));
+                }
+                lastRun = running;
+            }
+        }
+        result.finish();
+        return result;
+    }
+
+    // Sends the process to the device of its current phase, or to the back of its queue if busy
+    private void startIo(int index, int now) {
+        int device = processes.phaseDevice[phase[index]];
+        inIo++;
+        if (deviceBusy[device]) {
+            deviceQueue[device].add(index);
+        } else {
+            deviceBusy[device] = true;
+            events.add(time(now, processes.phaseLength[phase[index]]), IO_DONE, index);
+        }
+    }
+
+    private static int time(int now, int delay) {
+        long time = (long) now + delay;
+        if (time > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Simulation time is out of range");
+        }
+        return (int) time;
+    }
+}
@@ -0,0 +1,284 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Scrollable, zoomable Gantt chart for timelines of any length, with one lane per CPU.
+// Each lane (and the time axis below them) is rendered in fixed-width tiles that are cached as
+// BufferedImages and thrown away on zoom, so a repaint only copies the tiles under the visible
+// clip, horizontally and vertically. Inside a tile, segments at
+// least DETAIL_MIN_PX wide are drawn as labelled bars; runs of narrower segments are drawn as a
+// density band whose shade is the busy fraction of each pixel column, read from prefix sums.
+// Rendering a tile therefore costs O(tile pixels * log n) however many segments it covers.
+// The drawing itself is GanttRenderer's, shared with the exporter.
+class GanttChartPanel extends JPanel implements Scrollable {
+    private static final long serialVersionUID = 1L;
+    private static final int TILE_WIDTH = 512;
+    private static final int MAX_CACHED_TILES = 256;
+    private static final int MARGIN = GanttRenderer.MARGIN;
+    private static final int BAR_TOP = GanttRenderer.BAR_TOP;
+    private static final int BAR_HEIGHT = GanttRenderer.BAR_HEIGHT;
+    private static final int LANE_GAP = GanttRenderer.LANE_GAP;
+    private static final int AXIS_HEIGHT = GanttRenderer.AXIS_HEIGHT;
+    private static final double DEFAULT_SCALE = GanttRenderer.DEFAULT_SCALE;
+    private static final double MAX_SCALE = 200;
+    private static final double MAX_WIDTH_PX = 1 << 30;
+
+    private final Color[] palette;
+    private Timeline[] lanes = {new Timeline()};
+    private long[][] busyBefore = {new long[1]}; // per lane: busy process time before each segment starts
+    private int endTime; // latest end over all lanes
+    private long origin; // added to the axis labels when the chart shows a window of a longer run
+    private double scale = DEFAULT_SCALE; // pixels per time unit
+    // Keyed by (row << 32 | column); rows 0 .. lanes-1 are the lanes, row lanes.length the axis
+    private final Map<Long, BufferedImage> tiles = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    };
+
+    GanttChartPanel(Color[] palette) {
+        this.palette = palette;
+        setBackground(GanttRenderer.BACKGROUND);
+        addMouseWheelListener(this::mouseWheelMoved);
+    }
+
+    void setTimeline(Timeline timeline) {
+        setLanes(new Timeline[]{timeline});
+    }
+
+    // One lane per CPU
+    void setLanes(Timeline[] lanes) {
+        this.lanes = lanes;
+        origin = 0;
+        busyBefore = new long[lanes.length][];
+        endTime = 0;
+        for (int lane = 0; lane < lanes.length; lane++) {
+            Timeline timeline = lanes[lane];
+            long[] busy = new long[timeline.size + 1];
+            for (int s = 0; s < timeline.size; s++) {
+                long length = timeline.end[s] - timeline.start[s];
+                busy[s + 1] = busy[s] + (timeline.process[s] >= 0 ? length : 0);
+            }
+            busyBefore[lane] = busy;
+            endTime = Math.max(endTime, timeline.endTime());
+        }
+        scale = Math.min(DEFAULT_SCALE, maxScale());
+        invalidateTiles();
+    }
+
+    void zoomIn() {
+        zoomAround(1.5, visibleCenterX());
+    }
+
+    // Shows one lane cut from a longer run, with its times relative to origin, fitted to the width
+    void showWindow(Timeline lane, long origin) {
+        setLanes(new Timeline[]{lane});
+        this.origin = origin;
+        zoomToFit();
+    }
+
+    void zoomOut() {
+        zoomAround(1 / 1.5, visibleCenterX());
+    }
+
+    // Zooms so the whole timeline fits the visible width
+    void zoomToFit() {
+        int end = endTime;
+        if (end == 0) {
+            return;
+        }
+        int available = getParent() instanceof JViewport ? getParent().getWidth() : getWidth();
+        setScale((available - 2.0 * MARGIN) / end);
+        scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+    }
+
+    private void mouseWheelMoved(MouseWheelEvent e) {
+        if (e.isControlDown()) {
+            zoomAround(Math.pow(1.25, -e.getPreciseWheelRotation()), e.getX());
+        } else if (getParent() != null) {
+            // Plain wheel scrolls the chart sideways
+            getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, e, getParent()));
+        }
+    }
+
+    // Changes the zoom while keeping the time under pixel x in place
+    private void zoomAround(double factor, int x) {
+        double time = (x - MARGIN) / scale;
+        int offset = x - visibleLeft();
+        setScale(scale * factor);
+        int newX = (int) Math.round(MARGIN + time * scale);
+        if (getParent() instanceof JViewport) {
+            JViewport viewport = (JViewport) getParent();
+            int maxX = Math.max(0, getPreferredSize().width - viewport.getWidth());
+            viewport.setViewPosition(new Point(Math.max(0, Math.min(maxX, newX - offset)), viewport.getViewPosition().y));
+        }
+    }
+
+    private void setScale(double newScale) {
+        double clamped = Math.max(minScale(), Math.min(maxScale(), newScale));
+        if (clamped == scale) {
+            return;
+        }
+        scale = clamped;
+        invalidateTiles();
+    }
+
+    private double minScale() {
+        int end = Math.max(endTime, 1);
+        return Math.min(DEFAULT_SCALE, 100.0 / end);
+    }
+
+    private double maxScale() {
+        int end = Math.max(endTime, 1);
+        return Math.min(MAX_SCALE, MAX_WIDTH_PX / end);
+    }
+
+    private void invalidateTiles() {
+        tiles.clear();
+        revalidate();
+        repaint();
+    }
+
+    private int visibleLeft() {
+        return getVisibleRect().x;
+    }
+
+    private int visibleCenterX() {
+        Rectangle visible = getVisibleRect();
+        return visible.x + visible.width / 2;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        long width = 2L * MARGIN + (long) Math.ceil(endTime * scale);
+        return new Dimension((int) Math.min(width, Integer.MAX_VALUE), axisTop() + AXIS_HEIGHT);
+    }
+
+    // Top of the tile row: lane bars, then the axis right under the last bar
+    private int rowTop(int row) {
+        return GanttRenderer.rowTop(row);
+    }
+
+    private int axisTop() {
+        return GanttRenderer.axisTop(lanes.length);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (endTime == 0) return;
+        // Only the tiles that intersect the clip are drawn (and rendered if not cached)
+        Rectangle clip = g.getClipBounds();
+        int firstTile = Math.max(0, clip.x / TILE_WIDTH);
+        int lastTile = (clip.x + clip.width - 1) / TILE_WIDTH;
+        int firstRow = Math.max(0, (clip.y - BAR_TOP) / (BAR_HEIGHT + LANE_GAP));
+        for (int row = firstRow; row <= lanes.length; row++) {
+            int top = row == lanes.length ? axisTop() : rowTop(row);
+            if (top >= clip.y + clip.height) break;
+            for (int tile = firstTile; tile <= lastTile; tile++) {
+                long tileKey = (long) row << 32 | tile;
+                BufferedImage image = tiles.get(tileKey);
+                if (image == null) {
+                    image = row == lanes.length ? renderAxisTile(tile) : renderTile(row, tile);
+                    tiles.put(tileKey, image);
+                }
+                g.drawImage(image, tile * TILE_WIDTH, top, null);
+            }
+        }
+    }
+
+    private BufferedImage renderTile(int lane, int tile) {
+        BufferedImage image = new BufferedImage(TILE_WIDTH, BAR_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int tileX = tile * TILE_WIDTH;
+        Timeline timeline = lanes[lane];
+        if (tileX == 0 && lanes.length > 1) {
+            GanttRenderer.drawLaneLabel(g2d, lane);
+        }
+
+        int column = 0;
+        while (column < TILE_WIDTH) {
+            int pixel = tileX + column;
+            double t0 = (pixel - MARGIN) / scale;
+            if (t0 >= timeline.endTime()) {
+                break;
+            }
+            if (t0 + 1 / scale <= 0) {
+                column++;
+                continue;
+            }
+            int s = GanttRenderer.segmentAt(timeline, Math.max(0, t0));
+            int start = timeline.start[s];
+            int end = timeline.end[s];
+            double width = (end - start) * scale;
+            if (width >= GanttRenderer.DETAIL_MIN_PX) {
+                // Wide enough to draw as a bar; continue with the first column after it
+                GanttRenderer.drawSegment(g2d, timeline, s, tileX, TILE_WIDTH, scale, palette);
+                int nextColumn = (int) Math.ceil(MARGIN + end * scale) - tileX;
+                column = Math.max(column + 1, nextColumn);
+            } else {
+                // Sub-pixel segments: shade this column by how much of it is busy
+                double t1 = t0 + 1 / scale;
+                double fraction = (busyTime(lane, t1) - busyTime(lane, Math.max(0, t0))) * scale;
+                GanttRenderer.drawBand(g2d, column, fraction);
+                column++;
+            }
+        }
+        g2d.dispose();
+        return image;
+    }
+
+    private BufferedImage renderAxisTile(int tile) {
+        BufferedImage image = new BufferedImage(TILE_WIDTH, AXIS_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        GanttRenderer.drawTicks(g2d, tile * TILE_WIDTH, TILE_WIDTH, scale, origin, endTime);
+        g2d.dispose();
+        return image;
+    }
+
+    // Process (non-idle, non-overhead) time in [0, t)
+    private double busyTime(int lane, double t) {
+        Timeline timeline = lanes[lane];
+        if (t >= timeline.endTime()) {
+            return busyBefore[lane][timeline.size];
+        }
+        int s = GanttRenderer.segmentAt(timeline, t);
+        double busy = busyBefore[lane][s];
+        if (timeline.process[s] >= 0 && t > timeline.start[s]) {
+            busy += t - timeline.start[s];
+        }
+        return busy;
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(800, BAR_TOP + BAR_HEIGHT + AXIS_HEIGHT);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 25;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.HORIZONTAL ? visibleRect.width : visibleRect.height;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        // Stretch to the viewport until there are more lanes than fit, then scroll vertically
+        return getParent() instanceof JViewport && getParent().getHeight() > getPreferredSize().height;
+    }
+}
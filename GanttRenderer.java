@@ -0,0 +1,174 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Layout and drawing of Gantt chart lanes and the time axis, shared by GanttChartPanel on screen
+// and ResultExporter off screen so both look the same. Only java.awt is used, so it works headless.
+// Time t is drawn at chart pixel x = MARGIN + t * scale; a tile or strip that starts at chart
+// pixel tileX draws with x - tileX.
+final class GanttRenderer {
+    static final int MARGIN = 50;
+    static final int BAR_TOP = 30;
+    static final int BAR_HEIGHT = 30;
+    static final int LANE_GAP = 10;
+    static final int AXIS_HEIGHT = 40;
+    static final int DETAIL_MIN_PX = 3; // narrower segments are drawn as a density band
+    static final double DEFAULT_SCALE = 25; // pixels per time unit
+
+    static final Font LABEL_FONT = new Font("Comic Sans MS", Font.BOLD, 12);
+    static final Font TICK_FONT = new Font("Comic Sans MS", Font.PLAIN, 10);
+    static final Color BACKGROUND = new Color(245, 250, 252);
+    static final Color IDLE_COLOR = new Color(211, 211, 211);
+    static final Color SWITCH_COLOR = new Color(160, 160, 160);
+    static final Color[] BAND_SHADES = new Color[32]; // light (barely busy) to dark (fully busy)
+    private static final BasicStroke BORDER_STROKE = new BasicStroke(2);
+
+    // Process colors of the GUI, the live window and exported charts
+    static final Color[] PASTEL_COLORS = {
+        new Color(168, 201, 241),
+        new Color(184, 168, 241),
+        new Color(168, 241, 214),
+        new Color(241, 168, 214),
+        new Color(168, 214, 241),
+        new Color(241, 168, 168),
+        new Color(214, 241, 168),
+        new Color(168, 241, 168),
+        new Color(241, 214, 168),
+        new Color(241, 225, 168)
+    };
+
+    static {
+        for (int i = 0; i < BAND_SHADES.length; i++) {
+            BAND_SHADES[i] = new Color(90, 110, 170, 60 + 195 * i / (BAND_SHADES.length - 1));
+        }
+    }
+
+    private GanttRenderer() {
+    }
+
+    // Top of a lane's bar; the axis sits right under the last bar
+    static int rowTop(int row) {
+        return BAR_TOP + row * (BAR_HEIGHT + LANE_GAP);
+    }
+
+    static int axisTop(int lanes) {
+        return rowTop(lanes) - LANE_GAP;
+    }
+
+    // Height of a whole chart with the given number of lanes
+    static int height(int lanes) {
+        return axisTop(lanes) + AXIS_HEIGHT;
+    }
+
+    static Color fill(int process, Color[] palette) {
+        return process == Timeline.IDLE ? IDLE_COLOR
+                : process == Timeline.CONTEXT_SWITCH ? SWITCH_COLOR
+                : palette[process % palette.length];
+    }
+
+    // Index into BAND_SHADES for a pixel column that is busy for the given fraction, -1 if idle
+    static int shade(double fraction) {
+        return fraction <= 0 ? -1 : (int) Math.round(Math.min(1, fraction) * (BAND_SHADES.length - 1));
+    }
+
+    // Metrics of LABEL_FONT, for callers that have no Graphics of their own
+    static FontMetrics labelMetrics() {
+        Graphics2D g2d = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        try {
+            return g2d.getFontMetrics(LABEL_FONT);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    // Draws one segment as a labelled bar into a lane graphics whose origin is chart pixel tileX
+    static void drawSegment(Graphics2D g2d, Timeline timeline, int s, int tileX, int tileWidth, double scale,
+                            Color[] palette) {
+        int process = timeline.process[s];
+        double left = MARGIN + timeline.start[s] * scale - tileX;
+        double right = MARGIN + timeline.end[s] * scale - tileX;
+        // Keep the coordinates near the tile; the overhang stays outside the image
+        int x = (int) Math.max(-20, Math.round(left));
+        int width = (int) Math.min(tileWidth + 20, Math.round(right)) - x;
+
+        g2d.setColor(fill(process, palette));
+        g2d.fillRoundRect(x, 1, width, BAR_HEIGHT - 2, 10, 10);
+        g2d.setColor(Color.BLACK);
+        g2d.setStroke(BORDER_STROKE);
+        g2d.drawRoundRect(x, 1, width, BAR_HEIGHT - 2, 10, 10);
+
+        // Label centred on the whole segment, so neighbouring tiles draw matching halves
+        g2d.setFont(LABEL_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+        String label = Timeline.label(process);
+        int labelWidth = fm.stringWidth(label);
+        if (labelWidth + 4 <= right - left) {
+            int textX = (int) Math.round((left + right - labelWidth) / 2);
+            int textY = (BAR_HEIGHT + fm.getAscent() - fm.getDescent()) / 2;
+            g2d.drawString(label, textX, textY);
+        }
+    }
+
+    // One pixel column of sub-pixel segments, shaded by how much of it is busy
+    static void drawBand(Graphics2D g2d, int column, double fraction) {
+        int shade = shade(fraction);
+        g2d.setColor(shade < 0 ? IDLE_COLOR : BAND_SHADES[shade]);
+        g2d.fillRect(column, 1, 1, BAR_HEIGHT - 2);
+    }
+
+    // "CPU n" at the left end of a lane, when there is more than one
+    static void drawLaneLabel(Graphics2D g2d, int lane) {
+        g2d.setFont(TICK_FONT);
+        g2d.setColor(Color.BLACK);
+        g2d.drawString("CPU " + lane, 4, (BAR_HEIGHT + g2d.getFontMetrics().getAscent()) / 2 - 1);
+    }
+
+    // Distance between axis ticks: a round number of time units at least 60 pixels wide
+    static long tickStep(double scale) {
+        for (long base = 1; ; base *= 10) {
+            if (base * scale >= 60) return base;
+            if (2 * base * scale >= 60) return 2 * base;
+            if (5 * base * scale >= 60) return 5 * base;
+        }
+    }
+
+    // Time axis of a chart ending at endTime, labelled from origin on, into an axis graphics whose
+    // origin is chart pixel tileX
+    static void drawTicks(Graphics2D g2d, int tileX, int tileWidth, double scale, long origin, int endTime) {
+        long step = tickStep(scale);
+        double firstTime = (tileX - MARGIN - 40) / scale;
+        // Ticks fall on multiples of step in absolute time
+        long tick = (long) Math.floor((origin + Math.max(0, firstTime)) / step) * step - origin;
+        if (tick < 0) {
+            tick += step;
+        }
+        int y = 15;
+        g2d.setFont(TICK_FONT);
+        g2d.setColor(Color.BLACK);
+        for (; tick <= endTime; tick += step) {
+            int x = (int) Math.round(MARGIN + tick * scale) - tileX;
+            if (x > tileWidth) break;
+            g2d.drawLine(x, 0, x, 4);
+            g2d.drawString(String.valueOf(origin + tick), x, y);
+        }
+        long lastTick = (origin + endTime) / step * step - origin;
+        if (endTime != lastTick && (endTime - lastTick) * scale >= 40) {
+            // Always mark where the timeline ends
+            int x = (int) Math.round(MARGIN + endTime * scale) - tileX;
+            g2d.drawString(String.valueOf(origin + endTime), x, y);
+        }
+    }
+
+    // Index of the segment containing time t (the last segment if t is past the end)
+    static int segmentAt(Timeline timeline, double t) {
+        int lo = 0, hi = timeline.size - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timeline.end[mid] <= t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
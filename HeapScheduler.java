@@ -0,0 +1,131 @@
+// Engine of the single-CPU policies that keep their ready queue in an IndexHeap ordered by a
+// ReadyRule: SJF Preemptive, Priority (either mode) and EDF. Simulated event by event: the clock
+// jumps straight to the next arrival or completion, so the cost depends on the number of
+// scheduling events (O(n log n) overall) rather than on the total burst time.
+//
+// A process is keyed by the rule when it is admitted. While a process runs under a preemptive
+// rule, it runs until the next arrival; then the arrivals are admitted, the running process is
+// re-keyed as of now and the best waiting process takes over if it comes first. Otherwise the
+// running process runs to completion.
+//
+// Subclasses only name the policy and supply its rule.
+abstract class HeapScheduler implements CheckpointingAlgorithm {
+    final SwitchCosts switchCosts;
+
+    HeapScheduler(SwitchCosts switchCosts) {
+        this.switchCosts = switchCosts;
+    }
+
+    // A fresh rule for one run
+    abstract ReadyRule rule();
+
+    @Override
+    public SimulationResult schedule(ProcessTable processes, Checkpoint from, Checkpoints log,
+                                     SimulationProgress progress) {
+        SimulationResult result = new SimulationResult(name(), processes, progress);
+        int n = processes.size;
+        int[] arrival = processes.arrival;
+        int[] remaining = processes.remaining;
+        ReadyRule rule = rule();
+        long[] key = new long[n]; // heap key of each admitted process
+        int[] arrivalOrder = IndexSort.byKey(arrival, n); // sorted cursor over arrivals
+        IndexHeap readyQueue = new IndexHeap(key, arrival, n); // by key, then arrival
+
+        int currentTime = 0;
+        int next = 0; // next position in arrivalOrder
+        int running = -1; // index of the process on the CPU, kept outside the heap
+        int segmentStart = 0;
+        int lastRun = -1; // process that ran last, to detect context switches
+        SwitchCosts.Tracker switches = switchCosts.track(processes);
+        if (from != null) {
+            from.restore(result);
+            switches.resume(result.timeline);
+            currentTime = from.time;
+            next = from.admitted;
+            running = (int) from.registers[0];
+            segmentStart = (int) from.registers[1];
+            lastRun = (int) from.registers[2];
+            for (int j = 0; j < from.active.length; j++) {
+                key[from.active[j]] = from.key[j];
+                if (from.active[j] != running) {
+                    readyQueue.add(from.active[j]);
+                }
+            }
+        }
+
+        while (result.completedCount < n) {
+            if (log != null && log.due()) {
+                int[] active = Checkpoint.active(readyQueue.toArray(), running);
+                log.add(new Checkpoint(result, currentTime, next, next > 0 ? arrival[arrivalOrder[next - 1]] : -1,
+                        new long[]{running, segmentStart, lastRun}, active, Checkpoint.keys(key, active)));
+            }
+            // Nothing to run: jump over the idle gap to the next arrival
+            if (running < 0 && readyQueue.isEmpty()) {
+                int nextArrival = arrival[arrivalOrder[next]];
+                if (currentTime < nextArrival) {
+                    result.timeline.add(Timeline.IDLE, currentTime, nextArrival);
+                    currentTime = nextArrival;
+                }
+            }
+            if (running < 0) {
+                // Admit everything that has arrived by now; while a process runs, arrivals are admitted
+                // below, those during its context switch included
+                next = admit(processes, rule, arrivalOrder, next, currentTime, key, readyQueue);
+                running = readyQueue.poll();
+                currentTime = switches.charge(result.timeline, lastRun, running, currentTime);
+                lastRun = running;
+                result.dispatched(running, currentTime, readyQueue.size());
+                segmentStart = currentTime;
+            }
+
+            long completionTime = (long) currentTime + remaining[running];
+            // A process with nothing left finishes once dispatched, even if others arrived during its switch
+            if (rule.preemptive && remaining[running] > 0 && next < n && arrival[arrivalOrder[next]] < completionTime) {
+                // Run until the next arrival, then check whether a waiting process now comes first
+                int nextArrival = Math.max(arrival[arrivalOrder[next]], currentTime); // or now, if it came during a switch
+                remaining[running] -= nextArrival - currentTime;
+                currentTime = nextArrival;
+                next = admit(processes, rule, arrivalOrder, next, currentTime, key, readyQueue);
+                key[running] = rule.key(processes, running, currentTime);
+                if (readyQueue.less(readyQueue.peek(), running)) {
+                    result.timeline.add(running, segmentStart, currentTime);
+                    result.preempted();
+                    switches.stopped(running, segmentStart, currentTime);
+                    readyQueue.add(running); // re-queued as if it became ready now
+                    running = readyQueue.poll();
+                    currentTime = switches.charge(result.timeline, lastRun, running, currentTime);
+                    lastRun = running;
+                    result.dispatched(running, currentTime, readyQueue.size());
+                    segmentStart = currentTime;
+                }
+            } else {
+                // Run to completion and record its finish, waiting and turnaround times
+                currentTime = (int) completionTime;
+                result.complete(running, currentTime);
+                result.timeline.add(running, segmentStart, currentTime);
+                running = -1;
+            }
+        }
+        // Calculate the average waiting and turnaround times
+        result.finish();
+        return result;
+    }
+
+    // Queues every process that has arrived by now, keyed as of its arrival, and returns the new
+    // position of the arrival cursor
+    private static int admit(ProcessTable processes, ReadyRule rule, int[] arrivalOrder, int next, int now,
+                             long[] key, IndexHeap readyQueue) {
+        int[] arrival = processes.arrival;
+        while (next < processes.size && arrival[arrivalOrder[next]] <= now) {
+            int index = arrivalOrder[next++];
+            key[index] = rule.key(processes, index, arrival[index]);
+            readyQueue.add(index);
+        }
+        return next;
+    }
+
+    @Override
+    public EventPolicy eventPolicy() {
+        return new EventPolicies.Heap(rule(), switchCosts);
+    }
+}
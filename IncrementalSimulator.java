@@ -0,0 +1,65 @@
+// Re-runs a workload after edits without starting from time zero. It remembers the last run and
+// its checkpoints; when the next run uses the same algorithm and settings, it finds the earliest
+// arrival (before or after the edit) of any process whose inputs changed and resumes from the
+// latest checkpoint that had admitted only processes arriving before that. Everything up to that
+// checkpoint depends only on those processes, so the result is the same as a full run.
+// Algorithms that cannot checkpoint (multi-CPU runs) and workloads with I/O phases always start
+// from the beginning.
+final class IncrementalSimulator {
+    private String settings; // algorithm name and configuration of the last run
+    private SimulationResult last;
+    private Checkpoints checkpoints;
+    private int resumedAt = -1;
+
+    synchronized SimulationResult run(SchedulingAlgorithm algorithm, SchedulerConfig config, ProcessTable workload,
+                                      SimulationProgress progress) {
+        if (!(algorithm instanceof CheckpointingAlgorithm) || workload.hasPhases()) {
+            last = null;
+            checkpoints = null;
+            resumedAt = -1;
+            return SchedulingEngine.run(algorithm, workload, progress);
+        }
+        String runSettings = algorithm.name() + '\n' + config;
+        Checkpoint from = null;
+        Checkpoints log = new Checkpoints();
+        if (last != null && runSettings.equals(settings)) {
+            from = checkpoints.latestBefore(firstChange(last.processes, workload));
+            if (from != null) {
+                log = checkpoints.upTo(from);
+            }
+        }
+        SimulationResult result =
+                ((CheckpointingAlgorithm) algorithm).schedule(workload.copyInputs(), from, log, progress);
+        log.rebase(result);
+        settings = runSettings;
+        last = result;
+        checkpoints = log;
+        resumedAt = from == null ? -1 : from.time;
+        return result;
+    }
+
+    // Simulated time the last run resumed from, or -1 if it started from the beginning
+    synchronized int resumedAt() {
+        return resumedAt;
+    }
+
+    // Earliest arrival, old or new, of a process whose inputs differ between the tables; processes
+    // only one of them has count as changed. Integer.MAX_VALUE if the tables are the same.
+    static int firstChange(ProcessTable before, ProcessTable after) {
+        int first = Integer.MAX_VALUE;
+        int common = Math.min(before.size, after.size);
+        for (int i = 0; i < common; i++) {
+            if (before.arrival[i] != after.arrival[i] || before.burst[i] != after.burst[i]
+                    || before.priority[i] != after.priority[i] || before.deadline[i] != after.deadline[i]) {
+                first = Math.min(first, Math.min(before.arrival[i], after.arrival[i]));
+            }
+        }
+        for (int i = common; i < before.size; i++) {
+            first = Math.min(first, before.arrival[i]);
+        }
+        for (int i = common; i < after.size; i++) {
+            first = Math.min(first, after.arrival[i]);
+        }
+        return first;
+    }
+}
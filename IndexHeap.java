@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+// Binary min-heap of process indices. Ordering comes from the caller's key and tie arrays
+// (key first, then tie, then the index itself), so no objects or comparators are allocated.
+// An index's key and tie must not change while it is in the heap.
+final class IndexHeap {
+    private final long[] key;
+    private final int[] tie;
+    private int[] heap;
+    private int size;
+
+    IndexHeap(long[] key, int[] tie, int initialCapacity) {
+        this.key = key;
+        this.tie = tie;
+        this.heap = new int[Math.max(initialCapacity, 16)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    // The indices in heap order; adding them in this order to an empty heap rebuilds this one
+    int[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    int peek() {
+        return heap[0];
+    }
+
+    void add(int index) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int pos = size++;
+        // Sift up
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(index, heap[parent])) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = index;
+    }
+
+    int poll() {
+        int top = heap[0];
+        int last = heap[--size];
+        int pos = 0;
+        // Sift down
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], last)) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = last;
+        return top;
+    }
+
+    // True when a should run before b
+    boolean less(int a, int b) {
+        if (key[a] != key[b]) {
+            return key[a] < key[b];
+        }
+        if (tie[a] != tie[b]) {
+            return tie[a] < tie[b];
+        }
+        return a < b;
+    }
+}
@@ -0,0 +1,38 @@
+import java.util.Arrays;
+
+// Primitive index sorts. Each (key, position) pair is packed into one long and sorted with
+// Arrays.sort(long[]), which keeps equal keys in their original order without boxing.
+// Keys must not be negative.
+final class IndexSort {
+    private IndexSort() {
+    }
+
+    // Indices 0..n-1 ordered by key, ties by index
+    static int[] byKey(int[] key, int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return byKey(order, key);
+    }
+
+    static int[] byKey(int[] key) {
+        return byKey(key, key.length);
+    }
+
+    // Stable re-sort of an existing index order by key. Sorting by a secondary key first and
+    // then by the primary key gives a multi-key order.
+    static int[] byKey(int[] order, int[] key) {
+        int n = order.length;
+        long[] packed = new long[n];
+        for (int pos = 0; pos < n; pos++) {
+            packed[pos] = ((long) key[order[pos]] << 32) | pos;
+        }
+        Arrays.sort(packed);
+        int[] sorted = new int[n];
+        for (int pos = 0; pos < n; pos++) {
+            sorted[pos] = order[(int) packed[pos]];
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,51 @@
+// Fixed-capacity FIFO of process indices backed by a circular int array.
+// Enqueue and dequeue are O(1) and allocate nothing after construction.
+final class IntRingQueue {
+    private final int[] items;
+    private int head, size;
+
+    IntRingQueue(int capacity) {
+        items = new int[Math.max(capacity, 1)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // The queued values, oldest first
+    int[] toArray() {
+        int[] values = new int[size];
+        for (int i = 0, pos = head; i < size; i++) {
+            values[i] = items[pos];
+            if (++pos == items.length) {
+                pos = 0;
+            }
+        }
+        return values;
+    }
+
+    void add(int value) {
+        if (size == items.length) {
+            throw new IllegalStateException("Queue is full");
+        }
+        int tail = head + size;
+        if (tail >= items.length) {
+            tail -= items.length;
+        }
+        items[tail] = value;
+        size++;
+    }
+
+    int poll() {
+        int value = items[head];
+        if (++head == items.length) {
+            head = 0;
+        }
+        size--;
+        return value;
+    }
+}
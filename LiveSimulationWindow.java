@@ -0,0 +1,152 @@
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+// Live view of an OnlineSimulator: pick an arrival source and a pace, start, and watch a rolling
+// Gantt window and the latency figures update while the simulation runs. Closing the window
+// stops the run.
+class LiveSimulationWindow extends JDialog {
+    private static final long serialVersionUID = 1L;
+    private static final int WINDOW_LENGTH = 200; // time units shown in the chart
+    private static final int REFRESH_MILLIS = 200;
+    private static final String[] PACES = {"As fast as possible", "1000 units per second", "100 units per second",
+            "10 units per second"};
+    private static final double[] UNITS_PER_SECOND = {0, 1000, 100, 10};
+
+    private final String algorithmName;
+    private final SchedulerConfig config;
+    private final JComboBox<String> sourceSelector = new JComboBox<>(new String[]{"Poisson", "Bursty on/off", "Trace file..."});
+    private final JComboBox<String> paceSelector = new JComboBox<>(PACES);
+    private final JTextField loadField = new JTextField(String.valueOf(WorkloadGenerator.LOAD), 5);
+    private final JTextField producersField = new JTextField("1", 3);
+    private final JButton startButton = new JButton("Start");
+    private final JButton stopButton = new JButton("Stop");
+    private final GanttChartPanel chart;
+    private final JLabel progressLabel = new JLabel(" ");
+    private final JLabel latencyLabel = new JLabel(" ");
+    private final JLabel machineLabel = new JLabel(" ");
+    private final Timer refresh = new Timer(REFRESH_MILLIS, e -> refresh());
+    private OnlineSimulator simulator;
+
+    LiveSimulationWindow(Frame owner, String algorithmName, SchedulerConfig config, Color[] palette) {
+        super(owner, "Live Simulation - " + algorithmName, false);
+        this.algorithmName = algorithmName;
+        this.config = config;
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout(10, 10));
+        getContentPane().setBackground(new Color(220, 240, 247));
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 8));
+        controls.setOpaque(false);
+        controls.add(new JLabel("Arrivals:"));
+        controls.add(sourceSelector);
+        controls.add(new JLabel("Load:"));
+        controls.add(loadField);
+        controls.add(new JLabel("Producers:"));
+        controls.add(producersField);
+        controls.add(new JLabel("Pace:"));
+        controls.add(paceSelector);
+        controls.add(startButton);
+        controls.add(stopButton);
+        stopButton.setEnabled(false);
+        startButton.addActionListener(e -> start());
+        stopButton.addActionListener(e -> stop());
+        add(controls, BorderLayout.NORTH);
+
+        chart = new GanttChartPanel(palette);
+        JScrollPane chartScrollPane = new JScrollPane(chart,
+                JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED, JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        chartScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        chartScrollPane.getViewport().setBackground(new Color(245, 250, 252));
+        add(chartScrollPane, BorderLayout.CENTER);
+
+        JPanel stats = new JPanel(new GridLayout(3, 1));
+        stats.setOpaque(false);
+        stats.setBorder(BorderFactory.createEmptyBorder(0, 10, 10, 10));
+        for (JLabel label : new JLabel[]{progressLabel, latencyLabel, machineLabel}) {
+            label.setFont(new Font("Comic Sans MS", Font.PLAIN, 13));
+            stats.add(label);
+        }
+        add(stats, BorderLayout.SOUTH);
+
+        setSize(900, 330);
+        setLocationRelativeTo(owner);
+    }
+
+    private void start() {
+        String source;
+        switch (sourceSelector.getSelectedIndex()) {
+            case 0:
+                source = "poisson";
+                break;
+            case 1:
+                source = "bursty";
+                break;
+            default:
+                JFileChooser chooser = new JFileChooser();
+                if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+                    return;
+                }
+                File file = chooser.getSelectedFile();
+                source = file.getPath();
+                break;
+        }
+        try {
+            double load = Double.parseDouble(loadField.getText().trim());
+            int producers = Integer.parseInt(producersField.getText().trim());
+            List<ArrivalGenerator> generators =
+                    ArrivalGenerator.forSource(source, producers, load, System.nanoTime());
+            simulator = new OnlineSimulator(algorithmName, config, generators,
+                    UNITS_PER_SECOND[paceSelector.getSelectedIndex()], Long.MAX_VALUE, WINDOW_LENGTH);
+        } catch (IOException | IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Cannot start: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        simulator.start();
+        refresh.start();
+        startButton.setEnabled(false);
+        stopButton.setEnabled(true);
+    }
+
+    private void stop() {
+        if (simulator != null) {
+            simulator.stop();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        stop();
+        refresh.stop();
+        super.dispose();
+    }
+
+    // Runs on the event thread, reading the simulator's latest published snapshot
+    private void refresh() {
+        OnlineSimulator.Snapshot s = simulator.snapshot();
+        chart.showWindow(s.window, s.windowStart);
+        SchedulingMetrics m = s.metrics;
+        progressLabel.setText(String.format("Time: %d    Arrived: %d    Completed: %d    In system: %d%s",
+                s.time, s.admitted, s.completed, s.inSystem, s.finished ? "    (finished)" : ""));
+        latencyLabel.setText(String.format("Waiting p50/p99/p99.9/max: %d / %d / %d / %d    Response p50/p99: %d / %d",
+                m.waiting.percentile(0.5), m.waiting.percentile(0.99), m.waiting.percentile(0.999), m.waiting.max(),
+                m.response.percentile(0.5), m.response.percentile(0.99)));
+        machineLabel.setText(String.format("Utilization: %.1f%%    Throughput: %.4f per unit    Context switches: %d",
+                100 * m.utilization(), m.throughput(), m.contextSwitches));
+        if (s.finished) {
+            refresh.stop();
+            startButton.setEnabled(true);
+            stopButton.setEnabled(false);
+            try {
+                simulator.awaitFinished();
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Simulation failed: " + ex.getMessage(), "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+import java.util.Arrays;
+
+// Multi-Level Feedback Queue. New processes enter the top level; a process that uses up its level's
+// quantum drops one level, and one that arrives on a higher level preempts a process running below
+// it (the preempted process keeps its level). Every boostInterval all processes move back to the top
+// level, so long jobs are not starved by a stream of short ones.
+// Each level is a FIFO linked through an int array and a boost splices the lists together, so a
+// scheduling decision costs O(levels) however many processes are waiting. With one level and no
+// boost this is exactly Round Robin.
+class MlfqScheduler implements CheckpointingAlgorithm {
+    private final int[] quanta; // per level, top level first
+    private final int boostInterval; // 0 = never
+    private final SwitchCosts switchCosts;
+
+    MlfqScheduler(int[] quanta, int boostInterval, SwitchCosts switchCosts) {
+        if (quanta.length == 0) {
+            throw new IllegalArgumentException("MLFQ needs at least one level");
+        }
+        for (int quantum : quanta) {
+            if (quantum <= 0) {
+                throw new IllegalArgumentException("MLFQ quanta must be positive");
+            }
+        }
+        if (boostInterval < 0) {
+            throw new IllegalArgumentException("Boost interval must not be negative");
+        }
+        this.quanta = quanta.clone();
+        this.boostInterval = boostInterval;
+        this.switchCosts = switchCosts;
+    }
+
+    @Override
+    public String name() {
+        return "MLFQ";
+    }
+
+    @Override
+    public SimulationResult schedule(ProcessTable processes, Checkpoint from, Checkpoints log,
+                                     SimulationProgress progress) {
+        SimulationResult result = new SimulationResult(name(), processes, progress);
+        int n = processes.size;
+        int[] arrival = processes.arrival;
+        int[] remaining = processes.remaining;
+        int[] arrivalOrder = IndexSort.byKey(arrival, n);
+        int bottom = quanta.length - 1;
+        LevelQueues queues = new LevelQueues(n, quanta.length);
+
+        int currentTime = 0;
+        int next = 0; // next position in arrivalOrder
+        int running = -1; // index of the process on the CPU, kept out of the queues
+        int runLevel = 0; // level the running process belongs to
+        int lastRun = -1; // process that ran last, to detect context switches
+        int segmentStart = 0;
+        int sliceEnd = 0;
+        long nextBoost = boostInterval > 0 ? boostInterval : Long.MAX_VALUE;
+        SwitchCosts.Tracker switches = switchCosts.track(processes);
+        if (from != null) {
+            from.restore(result);
+            switches.resume(result.timeline);
+            currentTime = from.time;
+            next = from.admitted;
+            running = (int) from.registers[0];
+            runLevel = (int) from.registers[1];
+            lastRun = (int) from.registers[2];
+            segmentStart = (int) from.registers[3];
+            sliceEnd = (int) from.registers[4];
+            nextBoost = from.registers[5];
+            for (int j = 0; j < from.active.length; j++) {
+                if (from.active[j] != running) {
+                    queues.add(from.active[j], (int) from.key[j]);
+                }
+            }
+        }
+
+        while (result.completedCount < n) {
+            if (log != null && log.due()) {
+                long[] levels = new long[queues.size + (running < 0 ? 0 : 1)];
+                int[] active = Checkpoint.active(queues.toArray(levels), running);
+                if (running >= 0) {
+                    levels[active.length - 1] = runLevel;
+                }
+                log.add(new Checkpoint(result, currentTime, next, next > 0 ? arrival[arrivalOrder[next - 1]] : -1,
+                        new long[]{running, runLevel, lastRun, segmentStart, sliceEnd, nextBoost}, active, levels));
+            }
+            // Nothing to run: jump over the idle gap to the next arrival
+            if (running < 0 && queues.isEmpty()) {
+                int nextArrival = arrival[arrivalOrder[next]];
+                if (currentTime < nextArrival) {
+                    result.timeline.add(Timeline.IDLE, currentTime, nextArrival);
+                    currentTime = nextArrival;
+                }
+            }
+            if (currentTime >= nextBoost) {
+                queues.boost();
+                runLevel = 0;
+                nextBoost = (currentTime / boostInterval + 1) * (long) boostInterval;
+            }
+            // Admit everything that has arrived by now to the top level
+            while (next < n && arrival[arrivalOrder[next]] <= currentTime) {
+                queues.add(arrivalOrder[next++], 0);
+            }
+            if (running < 0) {
+                runLevel = queues.highest();
+                running = queues.poll(runLevel);
+                currentTime = switches.charge(result.timeline, lastRun, running, currentTime);
+                lastRun = running;
+                result.dispatched(running, currentTime, queues.size());
+                segmentStart = currentTime;
+                sliceEnd = currentTime + Math.min(quanta[runLevel], remaining[running]);
+            }
+
+            // Run until the slice ends, a boost is due or, below the top level, the next arrival
+            long event = sliceEnd;
+            boolean arrivalFirst = false;
+            if (runLevel > 0 && next < n && Math.max(arrival[arrivalOrder[next]], currentTime) < event) {
+                event = Math.max(arrival[arrivalOrder[next]], currentTime);
+                arrivalFirst = true;
+            }
+            if (nextBoost < event) {
+                // Boosting moves the running process to the top level too; it keeps the CPU
+                remaining[running] -= (int) nextBoost - currentTime;
+                currentTime = (int) nextBoost;
+                continue;
+            }
+            remaining[running] -= (int) event - currentTime;
+            currentTime = (int) event;
+            while (next < n && arrival[arrivalOrder[next]] <= currentTime) {
+                queues.add(arrivalOrder[next++], 0);
+            }
+            result.timeline.add(running, segmentStart, currentTime);
+            if (remaining[running] == 0) {
+                result.complete(running, currentTime);
+            } else {
+                result.preempted();
+                switches.stopped(running, segmentStart, currentTime);
+                queues.add(running, arrivalFirst ? runLevel : Math.min(runLevel + 1, bottom));
+            }
+            running = -1;
+        }
+        result.finish();
+        return result;
+    }
+
+    @Override
+    public EventPolicy eventPolicy() {
+        return new EventPolicies.Mlfq(quanta, boostInterval, switchCosts);
+    }
+
+    // One FIFO per level, chained through a shared link array. Processes queued on a level keep
+    // the order they were added in, and a boost appends each lower level to the top one in turn.
+    static final class LevelQueues {
+        private final int[] link; // next process on the same level, -1 at the tail
+        private final int[] head, tail;
+        private int size;
+
+        LevelQueues(int capacity, int levels) {
+            link = new int[capacity];
+            head = new int[levels];
+            tail = new int[levels];
+            Arrays.fill(head, -1);
+            Arrays.fill(tail, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(int index, int level) {
+            link[index] = -1;
+            if (tail[level] < 0) {
+                head[level] = index;
+            } else {
+                link[tail[level]] = index;
+            }
+            tail[level] = index;
+            size++;
+        }
+
+        // The queued processes level by level, oldest first, with each one's level put in levels
+        int[] toArray(long[] levels) {
+            int[] queued = new int[size];
+            int k = 0;
+            for (int level = 0; level < head.length; level++) {
+                for (int index = head[level]; index >= 0; index = link[index]) {
+                    levels[k] = level;
+                    queued[k++] = index;
+                }
+            }
+            return queued;
+        }
+
+        // Highest non-empty level; the queues must not be empty
+        int highest() {
+            int level = 0;
+            while (head[level] < 0) {
+                level++;
+            }
+            return level;
+        }
+
+        int poll(int level) {
+            int index = head[level];
+            head[level] = link[index];
+            if (head[level] < 0) {
+                tail[level] = -1;
+            }
+            size--;
+            return index;
+        }
+
+        int tail(int level) {
+            return tail[level];
+        }
+
+        // Removes the processes queued on the level after the given one (all of them for -1) and
+        // returns the first of them, or -1 if there are none; they stay linked to each other
+        int detachAfter(int level, int index) {
+            int first = index < 0 ? head[level] : link[index];
+            if (first < 0) {
+                return -1;
+            }
+            for (int i = first; i >= 0; i = link[i]) {
+                size--;
+            }
+            if (index < 0) {
+                head[level] = -1;
+                tail[level] = -1;
+            } else {
+                link[index] = -1;
+                tail[level] = index;
+            }
+            return first;
+        }
+
+        // Queues a chain returned by detachAfter at the back of the level
+        void attach(int level, int first) {
+            for (int index = first; index >= 0; ) {
+                int following = link[index];
+                add(index, level);
+                index = following;
+            }
+        }
+
+        void boost() {
+            for (int level = 1; level < head.length; level++) {
+                if (head[level] < 0) {
+                    continue;
+                }
+                if (tail[0] < 0) {
+                    head[0] = head[level];
+                } else {
+                    link[tail[0]] = head[level];
+                }
+                tail[0] = tail[level];
+                head[level] = -1;
+                tail[level] = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,494 @@
+import java.util.Arrays;
+
+// Runs any of the built-in policies on several CPUs. The simulation is event driven: the clock
+// jumps to the next arrival, the next CPU whose process finishes or uses up its quantum, or the
+// next rebalancing tick. Ready queues are IndexHeaps over one shared key column, ordered and
+// checked for preemption by the policy's ReadyRule like the single-CPU engines, and per-CPU state such as "next event", "load" or "idle" is
+// kept in small min-trees, so each event costs O(log n + log cpus) however many CPUs there are.
+//
+// With one CPU and a global queue the results are identical to the single-CPU schedulers.
+//
+// Queue layouts (SchedulerConfig.Queues):
+//   GLOBAL   - every CPU takes the best process from one shared queue; for preemptive policies an
+//              arrival preempts the CPU running the worst process if it outranks it
+//   PER_CORE - arrivals go to the least loaded CPU and stay there unless load balancing moves
+//              them; preemption is checked per CPU
+// With affinity, a process that has run on a CPU is queued in that CPU's "pinned" heap and never
+// migrates; balancing only moves processes from the "movable" heaps.
+//
+// Context switches cost what SwitchCosts says, a process that moves to another CPU paying the
+// migration cost and a full cache refill on top. A CPU cannot be preempted while it is switching;
+// the end of the switch is an event of its own, at which the processes that arrived during it
+// get their preemption check.
+class MultiCoreScheduler implements SchedulingAlgorithm {
+    enum Policy {
+        ROUND_ROBIN("Round Robin"),
+        SJF("SJF Non-Preemptive"),
+        PRIORITY("Priority Non-Preemptive"),
+        SRTF("SJF Preemptive"),
+        PRIORITY_PREEMPTIVE("Priority Preemptive");
+
+        final String algorithmName;
+
+        Policy(String algorithmName) {
+            this.algorithmName = algorithmName;
+        }
+
+        static Policy forName(String name) {
+            Policy policy = find(name);
+            if (policy == null) {
+                throw new IllegalArgumentException(name + " has no multi-CPU mode");
+            }
+            return policy;
+        }
+
+        // The policy for an algorithm name, or null if it only runs on a single CPU
+        static Policy find(String name) {
+            for (Policy policy : values()) {
+                if (policy.algorithmName.equalsIgnoreCase(name)) {
+                    return policy;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Policy policy;
+    private final SchedulerConfig config;
+
+    MultiCoreScheduler(Policy policy, SchedulerConfig config) {
+        if (config.queues == SchedulerConfig.Queues.GLOBAL
+                && (config.balancing != SchedulerConfig.Balancing.NONE || config.affinity)) {
+            throw new IllegalArgumentException("Load balancing and affinity need per-core queues");
+        }
+        this.policy = policy;
+        this.config = config;
+    }
+
+    @Override
+    public String name() {
+        return policy.algorithmName;
+    }
+
+    @Override
+    public boolean usesPriority() {
+        return policy == Policy.PRIORITY || policy == Policy.PRIORITY_PREEMPTIVE;
+    }
+
+    @Override
+    public boolean usesQuantum() {
+        return policy == Policy.ROUND_ROBIN;
+    }
+
+    @Override
+    public SimulationResult schedule(ProcessTable processes, SimulationProgress progress) {
+        return new Run(processes, progress).simulate();
+    }
+
+    // State of one simulation
+    private final class Run {
+        private final ProcessTable processes;
+        private final SimulationResult result;
+        private final int n, cpus;
+        private final int[] arrival, remaining, priority, deadline;
+        private final boolean perCore = config.queues == SchedulerConfig.Queues.PER_CORE;
+
+        private final ReadyRule rule = ReadyRule.forName(policy.algorithmName, config);
+        private final long[] key; // ready-queue key of each waiting process
+        private final int[] lastCpu; // CPU each process last ran on, -1 before its first dispatch
+        private int waiting; // processes in any ready queue
+
+        private final IndexHeap global;
+        private final IndexHeap[] movable, pinned;
+
+        private final int[] running, runStart, freeSince, lastRun;
+        private final boolean[] switching; // the CPU's process starts at runStart, when its switch is over
+        private final int[] arrivedBefore; // arrivals before the CPU's current switch began
+        private int arrivals; // processes admitted so far
+        private final SwitchCosts.Tracker switches;
+        private final MinTree events; // when each CPU's switch or current slice ends, MAX when idle
+        private final MinTree idle; // 0 for idle CPUs, so the lowest idle CPU is found first
+        private final MinTree load; // queued + running, for placing arrivals
+        private final MinTree stealable; // minus the number of movable waiting processes
+        private final MinTree worst; // minus the rank of the running process, for global preemption; MAX while switching
+
+        // CPUs whose queues or state changed at the current time and need a dispatch check
+        private final int[] touched;
+        private final boolean[] isTouched;
+        private int touchedCount;
+        // CPUs that were given a process at the current time (global queue only)
+        private final int[] startedNow;
+        private int startedCount;
+        // Round Robin processes whose quantum ran out at the current time, re-queued after arrivals
+        private final int[] slicedProcess, slicedCpu;
+
+        Run(ProcessTable processes, SimulationProgress progress) {
+            this.processes = processes;
+            n = processes.size;
+            cpus = config.cpus;
+            result = new SimulationResult(name(), processes, cpus, progress);
+            arrival = processes.arrival;
+            remaining = processes.remaining;
+            priority = processes.priority;
+            deadline = processes.deadline;
+            key = new long[n];
+            lastCpu = new int[n];
+            Arrays.fill(lastCpu, -1);
+
+            // SJF Non-Preemptive orders by arrival then burst, the others break ties by arrival
+            int[] tie = rule.tiesOnBurst() ? processes.burst : arrival;
+            if (perCore) {
+                global = null;
+                movable = new IndexHeap[cpus];
+                pinned = config.affinity ? new IndexHeap[cpus] : null;
+                for (int c = 0; c < cpus; c++) {
+                    movable[c] = new IndexHeap(key, tie, 16);
+                    if (pinned != null) {
+                        pinned[c] = new IndexHeap(key, tie, 16);
+                    }
+                }
+            } else {
+                global = new IndexHeap(key, tie, Math.min(n, 1 << 16));
+                movable = pinned = null;
+            }
+
+            running = new int[cpus];
+            Arrays.fill(running, -1);
+            runStart = new int[cpus];
+            freeSince = new int[cpus];
+            lastRun = new int[cpus];
+            Arrays.fill(lastRun, -1);
+            switching = new boolean[cpus];
+            arrivedBefore = new int[cpus];
+            switches = SwitchCosts.of(config).track(processes);
+            events = new MinTree(cpus, Long.MAX_VALUE);
+            idle = new MinTree(cpus, 0);
+            load = new MinTree(cpus, 0);
+            stealable = new MinTree(cpus, 0);
+            worst = new MinTree(cpus, Long.MAX_VALUE);
+            touched = new int[cpus];
+            isTouched = new boolean[cpus];
+            startedNow = new int[cpus];
+            slicedProcess = new int[cpus];
+            slicedCpu = new int[cpus];
+        }
+
+        SimulationResult simulate() {
+            int[] arrivalOrder = IndexSort.byKey(arrival, n); // sorted cursor over arrivals
+            int next = 0;
+            boolean rebalancing = perCore && config.balancing == SchedulerConfig.Balancing.REBALANCE;
+            long nextRebalance = config.rebalanceInterval;
+
+            while (result.completedCount < n) {
+                long t = events.min();
+                if (next < n) {
+                    t = Math.min(t, arrival[arrivalOrder[next]]);
+                }
+                if (rebalancing && waiting > 0) {
+                    t = Math.min(t, nextRebalance);
+                }
+                int now = (int) t;
+
+                // CPUs whose switch is over, or whose process finishes or uses up its quantum now
+                int sliced = 0;
+                boolean switched = false;
+                while (events.min() == now) {
+                    int cpu = events.argMin();
+                    if (switching[cpu]) {
+                        switched |= switchDone(cpu);
+                        continue;
+                    }
+                    int p = running[cpu];
+                    stop(cpu, now);
+                    if (remaining[p] == 0) {
+                        result.complete(p, now);
+                    } else {
+                        slicedProcess[sliced] = p;
+                        slicedCpu[sliced++] = cpu;
+                    }
+                    touch(cpu);
+                }
+                // Arrivals queue up ahead of the processes that were just preempted, as on one CPU
+                boolean arrived = false;
+                while (next < n && arrival[arrivalOrder[next]] <= now) {
+                    enqueue(arrivalOrder[next++], now, -1);
+                    arrivals++;
+                    arrived = true;
+                }
+                for (int i = 0; i < sliced; i++) {
+                    result.preempted();
+                    enqueue(slicedProcess[i], now, slicedCpu[i]);
+                }
+                if (rebalancing && nextRebalance <= now) {
+                    if (nextRebalance == now) {
+                        rebalance();
+                    }
+                    nextRebalance = ((long) now / config.rebalanceInterval + 1) * config.rebalanceInterval;
+                }
+                dispatch(now, arrived || switched);
+            }
+
+            // Pad every lane with idle time up to the makespan so the lanes line up
+            int makespan = result.makespan();
+            for (int c = 0; c < cpus; c++) {
+                result.lanes[c].add(Timeline.IDLE, freeSince[c], makespan);
+            }
+            result.finish();
+            return result;
+        }
+
+        // Starts waiting processes on idle CPUs. Preemption is only considered when something
+        // arrived (or, per CPU, was moved there) or a switch ended, as in the single-CPU schedulers.
+        private void dispatch(int now, boolean arrived) {
+            if (!perCore) {
+                while (!global.isEmpty() && idle.min() == 0) {
+                    start(idle.argMin(), take(global, -1), now);
+                }
+                // An arrival preempts the CPU running the worst process, as long as it outranks it.
+                // Processes dispatched at this instant are not candidates (startedNow keeps them out
+                // of the worst tree until the loop is done).
+                while (rule.preemptive && arrived && !global.isEmpty() && worst.min() != Long.MAX_VALUE) {
+                    int cpu = worst.argMin();
+                    if (!outranksRunning(global, cpu, now)) {
+                        break;
+                    }
+                    preempt(cpu, global, now);
+                }
+                for (int i = 0; i < startedCount; i++) {
+                    int cpu = startedNow[i];
+                    if (running[cpu] >= 0 && !switching[cpu]) {
+                        rank(cpu);
+                    }
+                }
+                startedCount = 0;
+                return;
+            }
+
+            for (int i = 0; i < touchedCount; i++) {
+                int cpu = touched[i];
+                IndexHeap queue = bestQueue(cpu);
+                if (queue == null) {
+                    continue;
+                }
+                if (running[cpu] < 0) {
+                    start(cpu, take(queue, cpu), now);
+                } else if (rule.preemptive && !switching[cpu] && outranksRunning(queue, cpu, now)) {
+                    preempt(cpu, queue, now);
+                }
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                isTouched[touched[i]] = false;
+            }
+            touchedCount = 0;
+
+            if (config.balancing == SchedulerConfig.Balancing.STEAL) {
+                // Idle CPUs steal from the CPU with the most movable processes waiting
+                while (idle.min() == 0 && stealable.min() < 0) {
+                    int cpu = idle.argMin();
+                    int victim = stealable.argMin();
+                    start(cpu, take(movable[victim], victim), now);
+                }
+            }
+        }
+
+        // Moves waiting processes from the most to the least loaded CPUs until loads differ by at most one
+        private void rebalance() {
+            while (stealable.min() < 0) {
+                int from = stealable.argMin();
+                int to = load.argMin();
+                if (load.value(from) - load.value(to) <= 1) {
+                    break;
+                }
+                int p = take(movable[from], from);
+                movable[to].add(p);
+                waiting++;
+                updateLoad(to);
+                touch(to);
+            }
+        }
+
+        private void enqueue(int p, int now, int cpu) {
+            key[p] = rule.key(processes, p, now);
+            waiting++;
+            if (!perCore) {
+                global.add(p);
+                return;
+            }
+            if (cpu < 0) {
+                movable[cpu = load.argMin()].add(p); // a new arrival goes to the least loaded CPU
+            } else if (pinned != null) {
+                pinned[cpu].add(p);
+            } else {
+                movable[cpu].add(p);
+            }
+            updateLoad(cpu);
+            touch(cpu);
+        }
+
+        private int take(IndexHeap queue, int cpu) {
+            int p = queue.poll();
+            waiting--;
+            if (cpu >= 0) {
+                updateLoad(cpu);
+            }
+            return p;
+        }
+
+        // The CPU's queue whose best process should run next, or null if both are empty
+        private IndexHeap bestQueue(int cpu) {
+            IndexHeap a = movable[cpu];
+            IndexHeap b = pinned == null ? null : pinned[cpu];
+            if (b == null || b.isEmpty()) {
+                return a.isEmpty() ? null : a;
+            }
+            return a.isEmpty() || b.less(b.peek(), a.peek()) ? b : a;
+        }
+
+        // Whether the best process of the queue should replace the one running on the CPU
+        private boolean outranksRunning(IndexHeap queue, int cpu, int now) {
+            int p = running[cpu];
+            key[p] = rule.key(now, remaining[p] - (now - runStart[cpu]), priority[p], deadline[p]);
+            return queue.less(queue.peek(), p);
+        }
+
+        private void preempt(int cpu, IndexHeap queue, int now) {
+            int p = running[cpu];
+            stop(cpu, now);
+            result.preempted();
+            int next = take(queue, perCore ? cpu : -1);
+            enqueue(p, now, cpu); // re-queued with its aging restarted from now
+            start(cpu, next, now);
+        }
+
+        private void start(int cpu, int p, int now) {
+            Timeline lane = result.lanes[cpu];
+            lane.add(Timeline.IDLE, freeSince[cpu], now);
+            boolean migrated = lastCpu[p] >= 0 && lastCpu[p] != cpu;
+            if (migrated) {
+                result.migrations++;
+            }
+            long time = (long) now + switches.cost(lastRun[cpu], p, now, migrated);
+            if (time > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Simulation time is out of range");
+            }
+            lane.add(Timeline.CONTEXT_SWITCH, now, (int) time);
+            lastRun[cpu] = p;
+            lastCpu[p] = cpu;
+            result.dispatched(p, (int) time, waiting);
+            running[cpu] = p;
+            runStart[cpu] = (int) time;
+
+            switching[cpu] = time > now;
+            arrivedBefore[cpu] = arrivals;
+            events.set(cpu, switching[cpu] ? time : sliceEnd(cpu));
+            idle.set(cpu, Long.MAX_VALUE);
+            if (perCore) {
+                updateLoad(cpu);
+            } else {
+                startedNow[startedCount++] = cpu; // ranked in the worst tree at the end of dispatch
+            }
+        }
+
+        // The CPU's process starts running once its switch is over. Returns whether processes
+        // arrived during the switch, which may now preempt it.
+        private boolean switchDone(int cpu) {
+            switching[cpu] = false;
+            events.set(cpu, sliceEnd(cpu));
+            if (!perCore) {
+                rank(cpu);
+            }
+            boolean arrivedDuring = arrivals != arrivedBefore[cpu];
+            if (arrivedDuring) {
+                touch(cpu);
+            }
+            return arrivedDuring;
+        }
+
+        private long sliceEnd(int cpu) {
+            int p = running[cpu];
+            return runStart[cpu] + rule.runLength(remaining[p]);
+        }
+
+        // Rank of the running process in the worst tree: the worse it is, the larger. Every CPU is
+        // compared at the same instant, so the rule's key at time 0 with the slice end standing in
+        // for the remaining time orders them as their keys at that instant would.
+        private void rank(int cpu) {
+            if (!rule.preemptive) {
+                return; // only preemption looks at the worst tree, and a FIFO key is a running count
+            }
+            int p = running[cpu];
+            worst.set(cpu, -rule.key(0, events.value(cpu), priority[p], deadline[p]));
+        }
+
+        private void stop(int cpu, int now) {
+            int p = running[cpu];
+            result.lanes[cpu].add(p, runStart[cpu], now);
+            remaining[p] -= now - runStart[cpu];
+            switches.stopped(p, runStart[cpu], now);
+            running[cpu] = -1;
+            freeSince[cpu] = now;
+            events.set(cpu, Long.MAX_VALUE);
+            idle.set(cpu, 0);
+            worst.set(cpu, Long.MAX_VALUE);
+            if (perCore) {
+                updateLoad(cpu);
+            }
+        }
+
+        private void updateLoad(int cpu) {
+            int queued = movable[cpu].size() + (pinned == null ? 0 : pinned[cpu].size());
+            load.set(cpu, queued + (running[cpu] >= 0 ? 1 : 0));
+            stealable.set(cpu, -movable[cpu].size());
+        }
+
+        private void touch(int cpu) {
+            if (perCore && !isTouched[cpu]) {
+                isTouched[cpu] = true;
+                touched[touchedCount++] = cpu;
+            }
+        }
+    }
+
+    // Minimum over a fixed set of slots, with O(log n) updates; ties go to the lowest slot
+    static final class MinTree {
+        private final int leaves;
+        private final long[] tree; // tree[1] is the root, leaves start at index leaves
+
+        MinTree(int size, long initial) {
+            int capacity = 1;
+            while (capacity < size) {
+                capacity <<= 1;
+            }
+            leaves = capacity;
+            tree = new long[2 * capacity];
+            Arrays.fill(tree, Long.MAX_VALUE);
+            for (int i = 0; i < size; i++) {
+                set(i, initial);
+            }
+        }
+
+        void set(int slot, long value) {
+            int pos = slot + leaves;
+            tree[pos] = value;
+            for (pos >>>= 1; pos > 0; pos >>>= 1) {
+                tree[pos] = Math.min(tree[2 * pos], tree[2 * pos + 1]);
+            }
+        }
+
+        long value(int slot) {
+            return tree[slot + leaves];
+        }
+
+        long min() {
+            return tree[1];
+        }
+
+        int argMin() {
+            int pos = 1;
+            while (pos < leaves) {
+                pos = tree[2 * pos] <= tree[2 * pos + 1] ? 2 * pos : 2 * pos + 1;
+            }
+            return pos - leaves;
+        }
+    }
+}
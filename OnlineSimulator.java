@@ -0,0 +1,559 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-system simulation: processes keep arriving from ArrivalGenerators while the scheduler runs,
+// instead of being known up front. Each generator runs on its own producer thread (a virtual
+// thread where the JVM has them) and pushes into one lock-free ArrivalQueue; the simulator thread
+// drains it and schedules each arrival incrementally on one CPU with the same rules as the batch
+// schedulers, so a replayed trace gives the same schedule as a batch run.
+//
+// Time runs as fast as possible, or paced at a fixed number of time units per wall-clock second
+// so a policy can be soak-tested for hours. Memory stays bounded either way: process slots are
+// recycled when a process finishes, statistics go into fixed-size histograms (SchedulingMetrics),
+// the Gantt chart keeps only a rolling window, and each producer may only run MAX_IN_FLIGHT
+// arrivals ahead of the simulator.
+//
+// Every producer publishes a watermark, the time before which it will send nothing more. The
+// simulator only advances to times below the smallest watermark, so arrivals from several threads
+// are always admitted in time order. Snapshots for live display are published every
+// SNAPSHOT_INTERVAL_NANOS and can be read from any thread.
+final class OnlineSimulator {
+    private static final int MAX_IN_FLIGHT = 1 << 14; // per producer, queued but not yet admitted
+    private static final int BATCH = 4096; // events between checks for new arrivals
+    private static final long SNAPSHOT_INTERVAL_NANOS = 100_000_000;
+    private static final int MAX_WINDOW_SEGMENTS = 1 << 14;
+
+    private final MultiCoreScheduler.Policy policy;
+    private final ReadyRule rule;
+    private final SchedulerConfig config;
+    private final double unitsPerSecond; // 0 = as fast as possible
+    private final long duration; // stop at this simulated time, Long.MAX_VALUE = until stop()
+    private final long windowLength; // time units of Gantt history kept for display
+    private final Producer[] producers;
+    private final ArrivalQueue queue;
+    private final Thread thread;
+    private volatile boolean stopping;
+    private volatile Snapshot latest;
+    private long startNanos;
+    private IOException failure;
+
+    // Process slots, recycled through a free list. seq orders equal keys: the drain order while
+    // pending, then the process id (admission order) once admitted.
+    private long[] arrival, remaining, start, seq, readyKey;
+    private int[] burst, priority, second, source;
+    private int[] free;
+    private int freeCount, slots;
+    private final SlotHeap pending = new SlotHeap(true); // drained but not yet arrived, by arrival time
+    private final SlotHeap ready = new SlotHeap(false); // by the policy's key
+    private long drained, admitted, completed;
+
+    // The CPU
+    private long now;
+    private int running = -1;
+    private long runStart, eventTime = Long.MAX_VALUE, freeSince, lastRun = -1;
+
+    private final SchedulingMetrics metrics = new SchedulingMetrics();
+    private final Window window = new Window();
+
+    // Consistent view of the simulation at one instant, for live display
+    static final class Snapshot {
+        final long time, admitted, completed, inSystem;
+        final long windowStart; // the window timeline's times are relative to this
+        final Timeline window;
+        final SchedulingMetrics metrics;
+        final boolean finished;
+
+        Snapshot(long time, long admitted, long completed, long inSystem, long windowStart, Timeline window,
+                 SchedulingMetrics metrics, boolean finished) {
+            this.time = time;
+            this.admitted = admitted;
+            this.completed = completed;
+            this.inSystem = inSystem;
+            this.windowStart = windowStart;
+            this.window = window;
+            this.metrics = metrics;
+            this.finished = finished;
+        }
+    }
+
+    OnlineSimulator(String algorithmName, SchedulerConfig config, List<ArrivalGenerator> generators,
+                    double unitsPerSecond, long duration, long windowLength) {
+        if (config.isMultiCore()) {
+            throw new IllegalArgumentException("Online mode simulates a single CPU");
+        }
+        if (generators.isEmpty()) {
+            throw new IllegalArgumentException("Online mode needs at least one arrival source");
+        }
+        if (unitsPerSecond < 0 || duration <= 0 || windowLength <= 0) {
+            throw new IllegalArgumentException("Pace, duration and window must be positive");
+        }
+        String name = SchedulingEngine.forName(algorithmName).name();
+        this.policy = MultiCoreScheduler.Policy.find(name);
+        if (policy == null) {
+            throw new IllegalArgumentException(name + " has no online mode");
+        }
+        this.rule = ReadyRule.forName(name, config);
+        this.config = config;
+        this.unitsPerSecond = unitsPerSecond;
+        this.duration = duration;
+        this.windowLength = windowLength;
+        producers = new Producer[generators.size()];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Producer(i, generators.get(i));
+        }
+        queue = new ArrivalQueue(producers.length * MAX_IN_FLIGHT);
+        allocate(1024);
+        thread = new Thread(this::simulate, "online-simulator");
+        thread.setDaemon(true);
+        latest = snapshot(false);
+    }
+
+    String algorithmName() {
+        return policy.algorithmName;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        thread.start();
+        for (Producer producer : producers) {
+            producer.thread = newProducerThread(producer, "arrivals-" + producer.index);
+            producer.thread.start();
+        }
+    }
+
+    // Asks the simulation to end; producers and the simulator wind down promptly
+    void stop() {
+        stopping = true;
+    }
+
+    boolean isFinished() {
+        return latest.finished;
+    }
+
+    Snapshot snapshot() {
+        return latest;
+    }
+
+    // Waits for the end of the run and returns its final snapshot
+    Snapshot awaitFinished() throws IOException, InterruptedException {
+        thread.join();
+        if (failure != null) {
+            throw failure;
+        }
+        return latest;
+    }
+
+    // One producer thread per generator
+    private final class Producer implements Runnable {
+        final int index;
+        final ArrivalGenerator generator;
+        Thread thread;
+        volatile long watermark; // no arrival before this time is still to come
+        volatile long taken; // arrivals the simulator has admitted
+        volatile IOException error;
+
+        Producer(int index, ArrivalGenerator generator) {
+            this.index = index;
+            this.generator = generator;
+        }
+
+        @Override
+        public void run() {
+            long lastTime = -1;
+            long count = 0;
+            try {
+                while (!stopping && generator.next()) {
+                    long time = generator.time;
+                    if (time > lastTime) {
+                        // Everything before this arrival has been sent. Only now may the producer
+                        // wait: arrivals sharing one time must all be sent before the simulator can
+                        // pass it.
+                        watermark = time;
+                        while (count - taken >= MAX_IN_FLIGHT && !stopping) {
+                            LockSupport.parkNanos(50_000);
+                        }
+                        sleepUntil(time);
+                        lastTime = time;
+                    }
+                    while (!queue.offer(index, time, generator.burst, generator.priority) && !stopping) {
+                        LockSupport.parkNanos(50_000);
+                    }
+                    count++;
+                }
+            } catch (IOException ex) {
+                error = ex;
+            } finally {
+                watermark = Long.MAX_VALUE;
+                try {
+                    generator.close();
+                } catch (IOException ex) {
+                    if (error == null) {
+                        error = ex;
+                    }
+                }
+            }
+        }
+
+        // In paced mode, holds the arrival back until its wall-clock time
+        private void sleepUntil(long time) {
+            if (unitsPerSecond == 0) {
+                return;
+            }
+            long due = startNanos + (long) (time * 1e9 / unitsPerSecond);
+            for (long wait; (wait = due - System.nanoTime()) > 0 && !stopping; ) {
+                LockSupport.parkNanos(Math.min(wait, 10_000_000));
+            }
+        }
+    }
+
+    // Starts a producer on a virtual thread when the JVM supports them, otherwise a daemon thread
+    static Thread newProducerThread(Runnable task, String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class).invoke(builder, name);
+            return (Thread) builderType.getMethod("unstarted", Runnable.class).invoke(builder, task);
+        } catch (ReflectiveOperationException ex) {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private void simulate() {
+        long nextSnapshot = System.nanoTime() + SNAPSHOT_INTERVAL_NANOS;
+        boolean done = false;
+        while (!done && !stopping) {
+            // Read the watermarks before draining, so every arrival below the horizon is drained
+            long horizon = Long.MAX_VALUE;
+            boolean producing = false;
+            for (Producer producer : producers) {
+                horizon = Math.min(horizon, producer.watermark);
+                if (producer.error != null) {
+                    failure = producer.error;
+                    stopping = true;
+                }
+                producing |= producer.watermark != Long.MAX_VALUE;
+            }
+            drain();
+            long limit = horizon; // events strictly before this may run
+            if (unitsPerSecond > 0) {
+                limit = Math.min(limit, wallTime() + 1);
+            }
+
+            int events = 0;
+            long t = nextEventTime();
+            while (t < limit && t < duration && events < BATCH) {
+                step(t);
+                events++;
+                t = nextEventTime();
+            }
+            if (t == Long.MAX_VALUE ? !producing : t >= duration) {
+                done = true;
+            } else if (events == 0) {
+                // Waiting for producers, or in paced mode for the wall clock to reach the next event
+                long wait = 50_000;
+                if (unitsPerSecond > 0 && t < horizon) {
+                    wait = Math.max(wait, Math.min(1_000_000, wallNanos(t) - System.nanoTime()));
+                }
+                LockSupport.parkNanos(wait);
+            }
+
+            long nanos = System.nanoTime();
+            if (nanos >= nextSnapshot) {
+                latest = snapshot(false);
+                nextSnapshot = nanos + SNAPSHOT_INTERVAL_NANOS;
+            }
+        }
+        stopping = true;
+        latest = snapshot(true);
+    }
+
+    // Moves everything the producers have sent into the pending heap
+    private void drain() {
+        while (queue.poll()) {
+            int p = allocateSlot();
+            arrival[p] = queue.polledTime;
+            burst[p] = queue.polledBurst;
+            priority[p] = queue.polledPriority;
+            remaining[p] = queue.polledBurst;
+            start[p] = -1;
+            source[p] = queue.polledSource;
+            seq[p] = drained++;
+            pending.add(p);
+        }
+    }
+
+    private long nextEventTime() {
+        long t = eventTime;
+        if (!pending.isEmpty()) {
+            t = Math.min(t, arrival[pending.peek()]);
+        }
+        return t;
+    }
+
+    // Handles everything that happens at time t, in the order MultiCoreScheduler uses on one CPU
+    private void step(long t) {
+        now = t;
+        int sliced = -1;
+        if (eventTime == t) {
+            int p = running;
+            stop(t);
+            if (remaining[p] == 0) {
+                complete(p, t);
+            } else {
+                sliced = p;
+            }
+        }
+        boolean arrived = false;
+        while (!pending.isEmpty() && arrival[pending.peek()] <= t) {
+            int p = pending.poll();
+            seq[p] = admitted++; // the process id
+            Producer producer = producers[source[p]];
+            producer.taken = producer.taken + 1;
+            enqueue(p, t);
+            arrived = true;
+        }
+        if (sliced >= 0) {
+            enqueue(sliced, t);
+        }
+        if (running < 0) {
+            if (!ready.isEmpty()) {
+                run(ready.poll(), t);
+            }
+        } else if (rule.preemptive && arrived && !ready.isEmpty() && outranksRunning(t)) {
+            int p = running;
+            stop(t);
+            int next = ready.poll();
+            enqueue(p, t); // re-queued with its aging restarted from now
+            run(next, t);
+        }
+    }
+
+    private void enqueue(int p, long t) {
+        readyKey[p] = rule.key(t, remaining[p], priority[p], ProcessTable.NO_DEADLINE);
+        // SJF Non-Preemptive orders by arrival then burst; the others fall back to arrival order
+        second[p] = rule.tiesOnBurst() ? burst[p] : 0;
+        ready.add(p);
+    }
+
+    private boolean outranksRunning(long t) {
+        int p = running;
+        readyKey[p] = rule.key(t, remaining[p] - (t - runStart), priority[p], ProcessTable.NO_DEADLINE);
+        return ready.less(ready.peek(), p);
+    }
+
+    private void run(int p, long t) {
+        segment(Timeline.IDLE, freeSince, t);
+        long id = seq[p];
+        int switchCost = config.contextSwitchCost;
+        if (policy == MultiCoreScheduler.Policy.ROUND_ROBIN && switchCost > 0 && lastRun >= 0 && lastRun != id) {
+            segment(Timeline.CONTEXT_SWITCH, t, t + switchCost);
+            t += switchCost;
+        }
+        lastRun = id;
+        if (start[p] < 0) {
+            start[p] = t;
+        }
+        running = p;
+        runStart = t;
+        eventTime = t + rule.runLength(remaining[p]);
+    }
+
+    private void stop(long t) {
+        int p = running;
+        segment(seq[p], runStart, t);
+        remaining[p] -= t - runStart;
+        running = -1;
+        freeSince = t;
+        eventTime = Long.MAX_VALUE;
+    }
+
+    private void complete(int p, long t) {
+        metrics.processCompleted(arrival[p], burst[p], start[p], t);
+        completed++;
+        free[freeCount++] = p;
+    }
+
+    private void segment(long process, long from, long to) {
+        if (to > from) {
+            metrics.segment(0, process, from, to);
+            window.add(process, from, to);
+        }
+    }
+
+    // Simulated time the wall clock has reached, in paced mode
+    private long wallTime() {
+        return (long) ((System.nanoTime() - startNanos) * unitsPerSecond / 1e9);
+    }
+
+    private long wallNanos(long time) {
+        return startNanos + (long) (time * 1e9 / unitsPerSecond);
+    }
+
+    // Called on the simulator thread (or before it starts)
+    private Snapshot snapshot(boolean finished) {
+        long time = now;
+        if (unitsPerSecond > 0 && !finished && startNanos != 0) {
+            // The clock keeps moving while the simulator waits for the next event
+            time = Math.max(time, Math.min(Math.min(wallTime(), nextEventTime()), duration));
+        }
+        long windowStart = Math.max(0, time - windowLength);
+        Timeline timeline = window.copy(windowStart, time);
+        // The segment in progress: the running process, or idle time since the CPU was freed
+        if (running >= 0) {
+            addRebased(timeline, seq[running], Math.max(runStart, windowStart), time, windowStart);
+        } else {
+            addRebased(timeline, Timeline.IDLE, Math.max(freeSince, windowStart), time, windowStart);
+        }
+        long inSystem = ready.size() + (running >= 0 ? 1 : 0);
+        return new Snapshot(time, admitted, completed, inSystem, windowStart, timeline, metrics.copy(), finished);
+    }
+
+    // Timeline stores ints: times relative to the window start, ids wrapped to the int range
+    private static void addRebased(Timeline timeline, long process, long from, long to, long origin) {
+        int label = process < 0 ? (int) process : (int) (process % Integer.MAX_VALUE);
+        timeline.add(label, (int) (from - origin), (int) (to - origin));
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return free[--freeCount];
+        }
+        if (slots == arrival.length) {
+            allocate(slots * 2);
+        }
+        return slots++;
+    }
+
+    private void allocate(int capacity) {
+        arrival = arrival == null ? new long[capacity] : Arrays.copyOf(arrival, capacity);
+        remaining = remaining == null ? new long[capacity] : Arrays.copyOf(remaining, capacity);
+        start = start == null ? new long[capacity] : Arrays.copyOf(start, capacity);
+        seq = seq == null ? new long[capacity] : Arrays.copyOf(seq, capacity);
+        readyKey = readyKey == null ? new long[capacity] : Arrays.copyOf(readyKey, capacity);
+        burst = burst == null ? new int[capacity] : Arrays.copyOf(burst, capacity);
+        priority = priority == null ? new int[capacity] : Arrays.copyOf(priority, capacity);
+        second = second == null ? new int[capacity] : Arrays.copyOf(second, capacity);
+        source = source == null ? new int[capacity] : Arrays.copyOf(source, capacity);
+        free = free == null ? new int[capacity] : Arrays.copyOf(free, capacity);
+    }
+
+    // Binary min-heap of slots. The pending heap orders by arrival time, the ready heap by the
+    // policy key then the second key; both fall back to seq, which is unique.
+    private final class SlotHeap {
+        private final boolean byArrival;
+        private int[] heap = new int[256];
+        private int size;
+
+        SlotHeap(boolean byArrival) {
+            this.byArrival = byArrival;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        void add(int slot) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int pos = size++;
+            while (pos > 0) {
+                int parent = (pos - 1) >>> 1;
+                if (!less(slot, heap[parent])) {
+                    break;
+                }
+                heap[pos] = heap[parent];
+                pos = parent;
+            }
+            heap[pos] = slot;
+        }
+
+        int poll() {
+            int top = heap[0];
+            int last = heap[--size];
+            int pos = 0;
+            while (true) {
+                int child = 2 * pos + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!less(heap[child], last)) {
+                    break;
+                }
+                heap[pos] = heap[child];
+                pos = child;
+            }
+            heap[pos] = last;
+            return top;
+        }
+
+        boolean less(int a, int b) {
+            long[] key = byArrival ? arrival : readyKey;
+            if (key[a] != key[b]) {
+                return key[a] < key[b];
+            }
+            if (!byArrival && second[a] != second[b]) {
+                return second[a] < second[b];
+            }
+            return seq[a] < seq[b];
+        }
+    }
+
+    // The most recent Gantt segments, oldest first, in a ring that drops the oldest when full
+    private static final class Window {
+        private final long[] process = new long[MAX_WINDOW_SEGMENTS];
+        private final long[] from = new long[MAX_WINDOW_SEGMENTS], to = new long[MAX_WINDOW_SEGMENTS];
+        private int head, size;
+
+        void add(long p, long start, long end) {
+            if (size > 0) {
+                int last = (head + size - 1) & (MAX_WINDOW_SEGMENTS - 1);
+                if (process[last] == p && to[last] == start) {
+                    to[last] = end;
+                    return;
+                }
+            }
+            if (size == MAX_WINDOW_SEGMENTS) {
+                head = (head + 1) & (MAX_WINDOW_SEGMENTS - 1);
+                size--;
+            }
+            int slot = (head + size++) & (MAX_WINDOW_SEGMENTS - 1);
+            process[slot] = p;
+            from[slot] = start;
+            to[slot] = end;
+        }
+
+        // Segments overlapping [windowStart, time), clipped to it and rebased to windowStart.
+        // Segments that ended before the window are dropped for good.
+        Timeline copy(long windowStart, long time) {
+            while (size > 0 && to[head] <= windowStart) {
+                head = (head + 1) & (MAX_WINDOW_SEGMENTS - 1);
+                size--;
+            }
+            Timeline timeline = new Timeline(size + 2);
+            for (int i = 0; i < size; i++) {
+                int slot = (head + i) & (MAX_WINDOW_SEGMENTS - 1);
+                long end = Math.min(to[slot], time);
+                if (end > from[slot]) {
+                    addRebased(timeline, process[slot], Math.max(from[slot], windowStart), end, windowStart);
+                }
+            }
+            return timeline;
+        }
+    }
+}
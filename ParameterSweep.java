@@ -0,0 +1,147 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Runs one workload under a grid of configurations (algorithm x quantum x context-switch cost)
+// in parallel on a fork-join pool. The quantum axis only applies to algorithms that use a quantum;
+// the others get one row per cost instead of identical rows for every quantum. Runs share nothing but the read-only input table: each one
+// schedules its own copy (SchedulingEngine.run) and is reduced to a Row of summary statistics
+// before the next task starts, so memory stays at one result per worker thread.
+final class ParameterSweep {
+    // Below this many configurations a task runs them itself instead of splitting
+    private static final int SEQUENTIAL_THRESHOLD = 2;
+
+    // One configuration of the grid and its outcome
+    static final class Row {
+        static final int NO_QUANTUM = 0; // the algorithm has no quantum
+
+        final String algorithm;
+        final int quantum, contextSwitchCost;
+        double averageWaiting, averageTurnaround;
+        int p95Waiting, maxWaiting, p95Turnaround, maxTurnaround;
+
+        Row(String algorithm, int quantum, int contextSwitchCost) {
+            this.algorithm = algorithm;
+            this.quantum = quantum;
+            this.contextSwitchCost = contextSwitchCost;
+        }
+    }
+
+    private ParameterSweep() {
+    }
+
+    // Returns one Row per configuration, in grid order (algorithm, then quantum, then cost)
+    static Row[] run(ProcessTable workload, List<String> algorithms, int[] quanta, int[] contextSwitchCosts,
+                     SchedulerConfig base, ForkJoinPool pool) {
+        List<Row> grid = new ArrayList<>();
+        for (String algorithm : algorithms) {
+            boolean usesQuantum = SchedulingEngine.forName(algorithm, base).usesQuantum();
+            for (int quantum : usesQuantum ? quanta : new int[]{Row.NO_QUANTUM}) {
+                for (int cost : contextSwitchCosts) {
+                    grid.add(new Row(algorithm, quantum, cost));
+                }
+            }
+        }
+        Row[] rows = grid.toArray(new Row[0]);
+        // Build every algorithm up front so an invalid value fails here rather than inside a worker
+        SchedulingAlgorithm[] configured = new SchedulingAlgorithm[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            SchedulerConfig config = base.withContextSwitchCost(rows[i].contextSwitchCost);
+            if (rows[i].quantum != Row.NO_QUANTUM) {
+                config = config.withQuantum(rows[i].quantum);
+            }
+            configured[i] = SchedulingEngine.forName(rows[i].algorithm, config);
+        }
+        pool.invoke(new SweepTask(workload, configured, rows, 0, rows.length));
+        return rows;
+    }
+
+    private static final class SweepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient ProcessTable workload;
+        private final transient SchedulingAlgorithm[] algorithms;
+        private final transient Row[] rows;
+        private final int from, to;
+
+        SweepTask(ProcessTable workload, SchedulingAlgorithm[] algorithms, Row[] rows, int from, int to) {
+            this.workload = workload;
+            this.algorithms = algorithms;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    summarize(SchedulingEngine.run(algorithms[i], workload), rows[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SweepTask(workload, algorithms, rows, from, middle),
+                    new SweepTask(workload, algorithms, rows, middle, to));
+        }
+    }
+
+    private static void summarize(SimulationResult result, Row row) {
+        ProcessTable p = result.processes;
+        if (p.size == 0) {
+            return;
+        }
+        int[] turnaround = new int[p.size];
+        for (int i = 0; i < p.size; i++) {
+            turnaround[i] = p.turnaround(i);
+        }
+        int[] waiting = Arrays.copyOf(p.waiting, p.size);
+        Arrays.sort(waiting);
+        Arrays.sort(turnaround);
+        row.averageWaiting = result.averageWaitingTime;
+        row.averageTurnaround = result.averageTurnaroundTime;
+        row.p95Waiting = percentile(waiting, 0.95);
+        row.maxWaiting = waiting[waiting.length - 1];
+        row.p95Turnaround = percentile(turnaround, 0.95);
+        row.maxTurnaround = turnaround[turnaround.length - 1];
+    }
+
+    // Nearest-rank percentile of sorted values
+    static int percentile(int[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    // Parses "1,2,5-10" or "1-100:5" (from-to:step) into the listed values
+    static int[] parseValues(String spec) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            part = part.trim();
+            try {
+                int dash = part.indexOf('-', 1);
+                if (dash < 0) {
+                    values.add(Integer.parseInt(part));
+                    continue;
+                }
+                int colon = part.indexOf(':', dash);
+                int from = Integer.parseInt(part.substring(0, dash).trim());
+                int to = Integer.parseInt(part.substring(dash + 1, colon < 0 ? part.length() : colon).trim());
+                int step = colon < 0 ? 1 : Integer.parseInt(part.substring(colon + 1).trim());
+                if (step <= 0 || to < from) {
+                    throw new IllegalArgumentException("Invalid range: " + part);
+                }
+                for (long v = from; v <= to; v += step) {
+                    values.add((int) v);
+                }
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid number list: " + spec);
+            }
+        }
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+// Priority scheduling (lower number = higher priority), ties by arrival (see HeapScheduler).
+//
+// Preemptive mode re-checks the CPU whenever a process arrives. With aging enabled, a waiting
+// process gains one priority level per agingInterval time units spent in the ready queue.
+// Aging is linear and the same for every waiting process, so the heap key from ReadyRule,
+// priority * agingInterval + readySince, orders processes exactly by their aged priority and
+// never has to be updated while they wait.
+class PriorityScheduler extends HeapScheduler {
+    private final boolean preemptive;
+    private final int agingInterval; // 0 disables aging
+
+    PriorityScheduler(boolean preemptive, int agingInterval, SwitchCosts switchCosts) {
+        super(switchCosts);
+        if (agingInterval < 0) {
+            throw new IllegalArgumentException("Aging interval must not be negative");
+        }
+        this.preemptive = preemptive;
+        this.agingInterval = agingInterval;
+    }
+
+    @Override
+    public String name() {
+        return preemptive ? "Priority Preemptive" : "Priority Non-Preemptive";
+    }
+
+    @Override
+    public boolean usesPriority() {
+        return true;
+    }
+
+    @Override
+    ReadyRule rule() {
+        return ReadyRule.priority(preemptive, agingInterval);
+    }
+}
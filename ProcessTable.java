@@ -0,0 +1,201 @@
+import java.util.Arrays;
+
+// Column store for a workload: one int array per attribute instead of one object per process.
+// A process is identified by its index; its display name ("P" + index) is only built on demand.
+// Input columns are arrival, burst, priority and deadline; the rest are filled in by a scheduler run.
+// Processes may also alternate CPU bursts with I/O on numbered devices (see the phase columns); such
+// workloads run on EventSimulator.
+//
+// Times are ints, so a workload is only accepted while its last arrival plus its total burst time
+// fits in one: no schedule without switch costs can end later than that (SwitchCosts.Tracker
+// checks the costs on top).
+final class ProcessTable {
+    static final int NO_DEADLINE = Integer.MAX_VALUE;
+
+    int size;
+    int[] arrival, burst, priority;
+    int[] deadline; // absolute time the process should finish by, NO_DEADLINE if it has none
+    int[] remaining, start, finish, waiting; // start is the first dispatch, -1 until then
+    // Phases, null until a process with I/O is added. Process i's phases are phaseLength[k] for k
+    // from phaseStart[i] up to phaseStart[i + 1]: CPU bursts at even offsets from phaseStart[i], I/O
+    // at odd ones on device phaseDevice[k] (-1 for CPU phases), first and last phase on the CPU. A
+    // process without I/O has its burst as its only phase. burst is then the whole service time,
+    // CPU and I/O, so waiting time is the time spent queued for the CPU or a device.
+    int[] phaseStart, phaseLength, phaseDevice;
+    private int latestArrival;
+    private long totalBurst;
+
+    ProcessTable(int capacity) {
+        capacity = Math.max(capacity, 4);
+        arrival = new int[capacity];
+        burst = new int[capacity];
+        priority = new int[capacity];
+        deadline = new int[capacity];
+        remaining = new int[capacity];
+        start = new int[capacity];
+        finish = new int[capacity];
+        waiting = new int[capacity];
+    }
+
+    // Appends a process and returns its index
+    int add(int arrivalTime, int burstTime, int priorityValue) {
+        return add(arrivalTime, burstTime, priorityValue, NO_DEADLINE);
+    }
+
+    int add(int arrivalTime, int burstTime, int priorityValue, int deadlineTime) {
+        if (arrivalTime < 0 || burstTime < 0) {
+            throw new IllegalArgumentException("Arrival and burst times must not be negative");
+        }
+        if (deadlineTime < arrivalTime) {
+            throw new IllegalArgumentException("Deadline must not be before the arrival time");
+        }
+        if ((long) Math.max(latestArrival, arrivalTime) + totalBurst + burstTime > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The workload is too long: its last arrival plus its total burst time"
+                    + " must not exceed " + Integer.MAX_VALUE);
+        }
+        if (size == arrival.length) {
+            grow();
+        }
+        latestArrival = Math.max(latestArrival, arrivalTime);
+        totalBurst += burstTime;
+        int i = size++;
+        arrival[i] = arrivalTime;
+        burst[i] = burstTime;
+        priority[i] = priorityValue;
+        deadline[i] = deadlineTime;
+        remaining[i] = burstTime;
+        start[i] = -1;
+        if (phaseStart != null) {
+            setPhase(phaseStart[i], burstTime, -1);
+            phaseStart[size] = phaseStart[i] + 1;
+        }
+        return i;
+    }
+
+    // Appends a process that alternates between the CPU and devices: phases holds the lengths of
+    // CPU, I/O, CPU, ..., CPU phases and devices the device of each I/O phase in turn
+    int add(int arrivalTime, int[] phases, int[] devices, int priorityValue, int deadlineTime) {
+        if (phases.length % 2 == 0 || devices.length != phases.length / 2) {
+            throw new IllegalArgumentException("Phases must alternate CPU and I/O, starting and ending on the CPU");
+        }
+        long total = 0;
+        for (int length : phases) {
+            if (length < 0) {
+                throw new IllegalArgumentException("Phase lengths must not be negative");
+            }
+            total += length;
+        }
+        for (int device : devices) {
+            if (device < 0) {
+                throw new IllegalArgumentException("Device numbers must not be negative");
+            }
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Total service time is out of range");
+        }
+        if (phases.length == 1) {
+            return add(arrivalTime, phases[0], priorityValue, deadlineTime);
+        }
+        if (phaseStart == null) {
+            // Until now every process was a single CPU burst
+            phaseStart = new int[arrival.length + 1];
+            phaseLength = new int[Math.max(2 * size, 16)];
+            phaseDevice = new int[phaseLength.length];
+            for (int j = 0; j < size; j++) {
+                phaseLength[j] = burst[j];
+                phaseDevice[j] = -1;
+                phaseStart[j + 1] = j + 1;
+            }
+        }
+        int i = add(arrivalTime, (int) total, priorityValue, deadlineTime);
+        int first = phaseStart[i];
+        for (int k = 0; k < phases.length; k++) {
+            setPhase(first + k, phases[k], k % 2 == 1 ? devices[k / 2] : -1);
+        }
+        phaseStart[size] = first + phases.length;
+        return i;
+    }
+
+    boolean hasPhases() {
+        return phaseStart != null;
+    }
+
+    // Number of devices the phases refer to
+    int devices() {
+        int devices = 0;
+        if (phaseStart != null) {
+            for (int k = 0; k < phaseStart[size]; k++) {
+                devices = Math.max(devices, phaseDevice[k] + 1);
+            }
+        }
+        return devices;
+    }
+
+    private void setPhase(int k, int length, int device) {
+        if (k == phaseLength.length) {
+            phaseLength = Arrays.copyOf(phaseLength, k * 2);
+            phaseDevice = Arrays.copyOf(phaseDevice, k * 2);
+        }
+        phaseLength[k] = length;
+        phaseDevice[k] = device;
+    }
+
+    static String name(int index) {
+        return "P" + index;
+    }
+
+    // Records a dispatch; only the first one counts as the start
+    void dispatched(int index, int time) {
+        if (start[index] < 0) {
+            start[index] = time;
+        }
+    }
+
+    // Latest time a run of the whole workload can end without switch costs
+    long horizon() {
+        return latestArrival + totalBurst;
+    }
+
+    boolean hasDeadline(int index) {
+        return deadline[index] != NO_DEADLINE;
+    }
+
+    int turnaround(int index) {
+        return finish[index] - arrival[index];
+    }
+
+    // Fresh, not-yet-scheduled copy of the input columns, trimmed to size
+    ProcessTable copyInputs() {
+        ProcessTable copy = new ProcessTable(size);
+        System.arraycopy(arrival, 0, copy.arrival, 0, size);
+        System.arraycopy(burst, 0, copy.burst, 0, size);
+        System.arraycopy(priority, 0, copy.priority, 0, size);
+        System.arraycopy(deadline, 0, copy.deadline, 0, size);
+        System.arraycopy(burst, 0, copy.remaining, 0, size);
+        Arrays.fill(copy.start, 0, size, -1);
+        if (phaseStart != null) {
+            copy.phaseStart = Arrays.copyOf(phaseStart, copy.arrival.length + 1);
+            copy.phaseLength = Arrays.copyOf(phaseLength, Math.max(phaseStart[size], 16));
+            copy.phaseDevice = Arrays.copyOf(phaseDevice, copy.phaseLength.length);
+        }
+        copy.size = size;
+        copy.latestArrival = latestArrival;
+        copy.totalBurst = totalBurst;
+        return copy;
+    }
+
+    private void grow() {
+        int capacity = arrival.length * 2;
+        arrival = Arrays.copyOf(arrival, capacity);
+        burst = Arrays.copyOf(burst, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        deadline = Arrays.copyOf(deadline, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        start = Arrays.copyOf(start, capacity);
+        finish = Arrays.copyOf(finish, capacity);
+        waiting = Arrays.copyOf(waiting, capacity);
+        if (phaseStart != null) {
+            phaseStart = Arrays.copyOf(phaseStart, capacity + 1);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+// How a policy orders its ready queue and when a process that becomes ready takes the CPU from the
+// running one. The batch engines, the EventSimulator policies, MultiCoreScheduler, OnlineSimulator
+// and StreamingSimulator all take these decisions from here, so that the engines cannot drift
+// apart on them.
+//
+// A process is queued under key(...) at the moment it becomes ready; equal keys go by the tie
+// column (the burst for SJF Non-Preemptive, otherwise the arrival time), then by index. A
+// preemptive rule re-keys the running process as if it became ready again at that moment, with
+// the CPU time it has left, and the best waiting process takes over if it now comes first. Aging
+// therefore restarts whenever a process is preempted.
+//
+// Round Robin's key is a running count, so a rule belongs to one run. The engines that keep Round
+// Robin in a ring queue instead of a heap get the same order without asking for keys.
+final class ReadyRule {
+    enum Order {
+        FIFO, // the order processes became ready in
+        READY_TIME, // when the process became ready, shortest burst first among equals
+        REMAINING, // CPU time left
+        PRIORITY, // priority, lower first, aged while waiting (see PriorityScheduler)
+        DEADLINE // absolute deadline, processes without one last
+    }
+
+    final Order order;
+    final boolean preemptive;
+    final int slice; // longest run per dispatch: the quantum for FIFO, otherwise unlimited
+    private final int agingInterval; // 0 = no aging
+    private long sequence; // FIFO key of the next process to become ready
+
+    private ReadyRule(Order order, boolean preemptive, int slice, int agingInterval) {
+        this.order = order;
+        this.preemptive = preemptive;
+        this.slice = slice;
+        this.agingInterval = agingInterval;
+    }
+
+    static ReadyRule roundRobin(int quantum) {
+        return new ReadyRule(Order.FIFO, false, quantum, 0);
+    }
+
+    static ReadyRule shortestJobFirst() {
+        return new ReadyRule(Order.READY_TIME, false, Integer.MAX_VALUE, 0);
+    }
+
+    static ReadyRule shortestRemainingTime() {
+        return new ReadyRule(Order.REMAINING, true, Integer.MAX_VALUE, 0);
+    }
+
+    static ReadyRule priority(boolean preemptive, int agingInterval) {
+        return new ReadyRule(Order.PRIORITY, preemptive, Integer.MAX_VALUE, agingInterval);
+    }
+
+    static ReadyRule earliestDeadline() {
+        return new ReadyRule(Order.DEADLINE, true, Integer.MAX_VALUE, 0);
+    }
+
+    // A fresh rule for the named algorithm; null for those that do not keep a keyed ready queue
+    static ReadyRule forName(String algorithmName, SchedulerConfig config) {
+        if (algorithmName.equalsIgnoreCase("Round Robin")) {
+            return roundRobin(config.quantum);
+        } else if (algorithmName.equalsIgnoreCase("SJF Non-Preemptive")) {
+            return shortestJobFirst();
+        } else if (algorithmName.equalsIgnoreCase("Priority Non-Preemptive")) {
+            return priority(false, config.agingInterval);
+        } else if (algorithmName.equalsIgnoreCase("SJF Preemptive")) {
+            return shortestRemainingTime();
+        } else if (algorithmName.equalsIgnoreCase("Priority Preemptive")) {
+            return priority(true, config.agingInterval);
+        } else if (algorithmName.equalsIgnoreCase("EDF")) {
+            return earliestDeadline();
+        }
+        return null;
+    }
+
+    // Key of a process that becomes ready at now with remaining CPU time left, or of the running
+    // process being checked for preemption at now
+    long key(long now, long remaining, int priority, int deadline) {
+        switch (order) {
+            case FIFO:
+                return sequence++;
+            case READY_TIME:
+                return now;
+            case REMAINING:
+                return remaining;
+            case PRIORITY:
+                // Aging is linear and the same for every waiting process, so this orders them
+                // exactly by aged priority and never has to change while they wait
+                return agingInterval == 0 ? priority : (long) priority * agingInterval + now;
+            default:
+                return deadline;
+        }
+    }
+
+    long key(ProcessTable processes, int index, long now) {
+        return key(now, processes.remaining[index], processes.priority[index], processes.deadline[index]);
+    }
+
+    // Whether equal keys go by burst rather than by arrival
+    boolean tiesOnBurst() {
+        return order == Order.READY_TIME;
+    }
+
+    // How long a process with remaining CPU time runs once dispatched, unless preempted
+    long runLength(long remaining) {
+        return Math.min(remaining, slice);
+    }
+}
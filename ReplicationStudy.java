@@ -0,0 +1,127 @@
+import java.io.PrintStream;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Monte Carlo comparison of algorithms: K independent random workloads drawn from one
+// distribution (WorkloadGenerator's burst shape, arrival pattern, load, priority mix and share of
+// I/O-bound processes), each run
+// under every algorithm, with each metric summarized as a mean and 95% confidence interval over
+// the replications. All algorithms see the same K workloads, so their differences are not blurred
+// by luck of the draw.
+// Replications run in parallel on a fork-join pool, each task halving its replication range. A task
+// splits its generator as it halves the range: the left half takes the split-off generator and the
+// right half keeps the parent's, so every replication gets its own generator, fixed by the seed
+// alone, and only O(log K) of them exist at once. Tasks merge their RunningStats along the same
+// halving, so for a given seed the output is the same to the last digit on any number of threads.
+// Nothing is kept of a run beyond its accumulators.
+final class ReplicationStudy {
+    static final String[] METRICS = {"Avg wait", "p99 wait", "Avg TA", "Avg resp", "Util %", "Ctx sw"};
+
+    private final int size; // processes per workload
+    private final WorkloadGenerator.Bursts bursts;
+    private final WorkloadGenerator.Arrivals arrivals;
+    private final double load;
+    private final double[] priorityWeights; // null = uniform
+    private final double ioBound;
+    private final int devices;
+
+    ReplicationStudy(int size, WorkloadGenerator.Bursts bursts, WorkloadGenerator.Arrivals arrivals, double load,
+                     double[] priorityWeights, double ioBound, int devices) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Workload size must be at least 1");
+        }
+        this.size = size;
+        this.bursts = bursts;
+        this.arrivals = arrivals;
+        this.load = load;
+        this.priorityWeights = priorityWeights == null ? null : priorityWeights.clone();
+        this.ioBound = ioBound;
+        this.devices = devices;
+        // Fails here, rather than in a worker, if the load, weights or I/O settings are invalid
+        WorkloadGenerator.generate(1, bursts, arrivals, load, this.priorityWeights, ioBound, devices,
+                new SplittableRandom(0));
+    }
+
+    // stats[a][m] summarizes METRICS[m] of algorithms[a] over the replications
+    RunningStats[][] run(List<SchedulingAlgorithm> algorithms, int replications, long seed, ForkJoinPool pool) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("Replications must be at least 1");
+        }
+        return pool.invoke(new ReplicationTask(this, algorithms.toArray(new SchedulingAlgorithm[0]),
+                new SplittableRandom(seed), 0, replications));
+    }
+
+    private static final class ReplicationTask extends RecursiveTask<RunningStats[][]> {
+        private static final long serialVersionUID = 1L;
+        private final transient ReplicationStudy study;
+        private final transient SchedulingAlgorithm[] algorithms;
+        private final transient SplittableRandom random; // owned by this task until it is split
+        private final int from, to;
+
+        ReplicationTask(ReplicationStudy study, SchedulingAlgorithm[] algorithms, SplittableRandom random,
+                        int from, int to) {
+            this.study = study;
+            this.algorithms = algorithms;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected RunningStats[][] compute() {
+            if (to - from == 1) {
+                return study.replicate(algorithms, random);
+            }
+            int middle = (from + to) >>> 1;
+            // Split before forking, so the halves never share a generator
+            ReplicationTask left = new ReplicationTask(study, algorithms, random.split(), from, middle);
+            ReplicationTask right = new ReplicationTask(study, algorithms, random, middle, to);
+            right.fork();
+            RunningStats[][] stats = left.compute();
+            RunningStats[][] rightStats = right.join();
+            for (int a = 0; a < stats.length; a++) {
+                for (int m = 0; m < METRICS.length; m++) {
+                    stats[a][m].add(rightStats[a][m]);
+                }
+            }
+            return stats;
+        }
+    }
+
+    // One replication: a fresh workload from random, run under every algorithm
+    private RunningStats[][] replicate(SchedulingAlgorithm[] algorithms, SplittableRandom random) {
+        ProcessTable workload = WorkloadGenerator.generate(size, bursts, arrivals, load, priorityWeights, ioBound,
+                devices, random);
+        RunningStats[][] stats = new RunningStats[algorithms.length][METRICS.length];
+        for (int a = 0; a < algorithms.length; a++) {
+            SimulationResult result = SchedulingEngine.run(algorithms[a], workload);
+            SchedulingMetrics metrics = result.metrics();
+            double[] values = {result.averageWaitingTime, metrics.waiting.percentile(0.99),
+                    result.averageTurnaroundTime, metrics.response.mean(), 100 * metrics.utilization(),
+                    metrics.contextSwitches};
+            for (int m = 0; m < METRICS.length; m++) {
+                stats[a][m] = new RunningStats();
+                stats[a][m].add(values[m]);
+            }
+        }
+        return stats;
+    }
+
+    // One row per algorithm, each metric as mean +/- the half-width of its 95% confidence interval
+    static void print(PrintStream out, List<SchedulingAlgorithm> algorithms, RunningStats[][] stats) {
+        out.printf("%-24s", "Algorithm");
+        for (String metric : METRICS) {
+            out.printf(" %20s", metric);
+        }
+        out.println();
+        for (int a = 0; a < stats.length; a++) {
+            out.printf("%-24s", algorithms.get(a).name());
+            for (RunningStats s : stats[a]) {
+                out.printf(" %20s", String.format("%.2f +/- %.2f", s.mean(), s.halfWidth95()));
+            }
+            out.println();
+        }
+    }
+}
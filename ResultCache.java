@@ -0,0 +1,339 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+// Finished simulation results, keyed by a SHA-256 digest of the workload's input columns (phases
+// included), the algorithm name and every SchedulerConfig field, so repeating a run returns the
+// earlier result instead of scheduling again. Results are held in an LRU bounded by their
+// estimated heap size. Given a directory, every result is also stored there, one file per key,
+// and is found again after a restart. Cached results are shared between callers and must not be modified.
+final class ResultCache {
+    private static final int MAGIC = 0x43505552; // "CPUR"
+    // Bumped whenever the engines change any schedule, so that results stored by older ones are not
+    // served. 3: --cs charged by every engine, arrivals during a switch checked at its end
+    private static final int VERSION = 3;
+    private static final String SUFFIX = ".result";
+    private static final int METRICS_BYTES = 4 * LatencyHistogram.FOOTPRINT_BYTES + 256;
+
+    private final long maxBytes;
+    private final Path directory; // null for a memory-only cache
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // LRU first
+    private long bytes;
+    private long hits, misses;
+
+    private static final class Entry {
+        final SimulationResult result;
+        final long bytes;
+
+        Entry(SimulationResult result, long bytes) {
+            this.result = result;
+            this.bytes = bytes;
+        }
+    }
+
+    // Memory only
+    ResultCache(long maxBytes) {
+        this.maxBytes = checkSize(maxBytes);
+        this.directory = null;
+    }
+
+    // Memory backed by files in the directory, which is created if needed
+    ResultCache(long maxBytes, Path directory) throws IOException {
+        this.maxBytes = checkSize(maxBytes);
+        this.directory = Files.createDirectories(directory);
+    }
+
+    private static long checkSize(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative");
+        }
+        return maxBytes;
+    }
+
+    // Runs the algorithm on a copy of the workload, unless the same run is cached already.
+    // config must be the one the algorithm was built from, since it is part of the key.
+    SimulationResult run(SchedulingAlgorithm algorithm, SchedulerConfig config, ProcessTable workload,
+                         SimulationProgress progress) {
+        String key = key(workload, algorithm.name(), config);
+        SimulationResult result = get(key);
+        if (result == null) {
+            result = SchedulingEngine.run(algorithm, workload, progress);
+            put(key, result);
+        }
+        return result;
+    }
+
+    // Hex digest identifying one run of the named algorithm on the workload's inputs
+    static String key(ProcessTable workload, String algorithm, SchedulerConfig config) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex); // every JRE has SHA-256
+        }
+        digest.update((algorithm + '\n' + config + '\n').getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        buffer.putInt(workload.size);
+        for (int i = 0; i < workload.size; i++) {
+            if (buffer.remaining() < 16) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            buffer.putInt(workload.arrival[i]).putInt(workload.burst[i]).putInt(workload.priority[i])
+                    .putInt(workload.deadline[i]);
+        }
+        if (workload.hasPhases()) {
+            // Only workloads with I/O hash their phases
+            for (int i = 0; i < workload.size; i++) {
+                for (int k = workload.phaseStart[i]; k < workload.phaseStart[i + 1]; k++) {
+                    if (buffer.remaining() < 12) {
+                        buffer.flip();
+                        digest.update(buffer);
+                        buffer.clear();
+                    }
+                    buffer.putInt(i).putInt(workload.phaseLength[k]).putInt(workload.phaseDevice[k]);
+                }
+            }
+        }
+        buffer.flip();
+        digest.update(buffer);
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    // The cached result for the key, from memory or else from disk; null if there is none
+    SimulationResult get(String key) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.result;
+            }
+        }
+        SimulationResult result = directory == null ? null : load(key);
+        if (result != null) {
+            result.metrics(); // as in put(): built before other threads can see the result
+        }
+        synchronized (this) {
+            if (result == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            remember(key, result);
+            return result;
+        }
+    }
+
+    void put(String key, SimulationResult result) {
+        result.metrics(); // built now, so readers on other threads never race to build it
+        synchronized (this) {
+            remember(key, result);
+        }
+        if (directory != null) {
+            store(key, result);
+        }
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    // Memory held by the cached results, estimated from their array sizes
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    private void remember(String key, SimulationResult result) {
+        long size = sizeOf(result);
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.bytes;
+        }
+        if (size > maxBytes) {
+            return; // would evict everything else and still not fit; the disk copy remains
+        }
+        entries.put(key, new Entry(result, size));
+        bytes += size;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    private static long sizeOf(SimulationResult result) {
+        ProcessTable p = result.processes;
+        long size = METRICS_BYTES + 4L * (p.arrival.length + p.burst.length + p.priority.length + p.deadline.length
+                + p.remaining.length + p.start.length + p.finish.length + p.waiting.length
+                + result.completionOrder.length);
+        if (p.hasPhases()) {
+            size += 4L * (p.phaseStart.length + p.phaseLength.length + p.phaseDevice.length);
+        }
+        for (Timeline lane : result.lanes) {
+            size += 4L * (lane.process.length + lane.start.length + lane.end.length);
+        }
+        return size;
+    }
+
+    // File layout, big-endian: MAGIC, VERSION, key, algorithm (length-prefixed UTF-8), process count,
+    // the arrival, burst, priority, deadline, start, finish and waiting columns, the phase count (-1
+    // without phases) and the phase columns, completion order, migrations, both averages, then the
+    // CPU count and each lane as (size, processes, starts, ends)
+    private void store(String key, SimulationResult result) {
+        ProcessTable p = result.processes;
+        int n = p.size;
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] algorithm = result.algorithm.getBytes(StandardCharsets.UTF_8);
+        int phases = p.hasPhases() ? p.phaseStart[n] : -1;
+        long size = 8 * 4 + keyBytes.length + algorithm.length + 8L * 4 * n + 2 * 8;
+        if (phases >= 0) {
+            size += 4L * (n + 1) + 8L * phases;
+        }
+        for (Timeline lane : result.lanes) {
+            size += 4 + 12L * lane.size;
+        }
+        if (size > Integer.MAX_VALUE) {
+            return; // too big for one buffer; it is only kept in memory
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putInt(keyBytes.length).put(keyBytes);
+        buffer.putInt(algorithm.length).put(algorithm);
+        buffer.putInt(n);
+        for (int[] column : new int[][]{p.arrival, p.burst, p.priority, p.deadline, p.start, p.finish, p.waiting}) {
+            buffer.asIntBuffer().put(column, 0, n);
+            buffer.position(buffer.position() + 4 * n);
+        }
+        buffer.putInt(phases);
+        if (phases >= 0) {
+            for (int[] column : new int[][]{p.phaseStart, p.phaseLength, p.phaseDevice}) {
+                int count = column == p.phaseStart ? n + 1 : phases;
+                buffer.asIntBuffer().put(column, 0, count);
+                buffer.position(buffer.position() + 4 * count);
+            }
+        }
+        buffer.asIntBuffer().put(result.completionOrder, 0, n);
+        buffer.position(buffer.position() + 4 * n);
+        buffer.putInt(result.migrations);
+        buffer.putDouble(result.averageWaitingTime).putDouble(result.averageTurnaroundTime);
+        buffer.putInt(result.lanes.length);
+        for (Timeline lane : result.lanes) {
+            buffer.putInt(lane.size);
+            for (int[] column : new int[][]{lane.process, lane.start, lane.end}) {
+                buffer.asIntBuffer().put(column, 0, lane.size);
+                buffer.position(buffer.position() + 4 * lane.size);
+            }
+        }
+        // Written under a temporary name and renamed, so a reader never sees half a file
+        Path file = directory.resolve(key + SUFFIX);
+        try {
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+            try {
+                Files.write(temporary, buffer.array());
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException ex) {
+            // Storing is best effort: without the file the run is simply repeated after a restart
+        }
+    }
+
+    // The stored result for the key; null if there is none or the file is unreadable or damaged
+    private SimulationResult load(String key) {
+        Path file = directory.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !key.equals(string(buffer))) {
+                return null;
+            }
+            String algorithm = string(buffer);
+            int n = buffer.getInt();
+            if (n < 0 || 4L * n > buffer.remaining()) {
+                return null;
+            }
+            ProcessTable p = new ProcessTable(n);
+            p.size = n;
+            for (int[] column : new int[][]{p.arrival, p.burst, p.priority, p.deadline, p.start, p.finish, p.waiting}) {
+                readInts(buffer, column, n);
+            }
+            int phases = buffer.getInt();
+            if (phases >= 0) {
+                if (8L * phases > buffer.remaining()) {
+                    return null;
+                }
+                p.phaseStart = new int[p.arrival.length + 1];
+                p.phaseLength = new int[Math.max(phases, 16)];
+                p.phaseDevice = new int[p.phaseLength.length];
+                readInts(buffer, p.phaseStart, n + 1);
+                readInts(buffer, p.phaseLength, phases);
+                readInts(buffer, p.phaseDevice, phases);
+            }
+            int[] completionOrder = new int[n];
+            readInts(buffer, completionOrder, n);
+            int migrations = buffer.getInt();
+            double averageWaiting = buffer.getDouble(), averageTurnaround = buffer.getDouble();
+            int cpus = buffer.getInt();
+            if (cpus < 1 || cpus > buffer.remaining() / 4) {
+                return null;
+            }
+            SimulationResult result = new SimulationResult(algorithm, p, cpus, SimulationProgress.NONE);
+            System.arraycopy(completionOrder, 0, result.completionOrder, 0, n);
+            result.completedCount = n;
+            result.migrations = migrations;
+            result.averageWaitingTime = averageWaiting;
+            result.averageTurnaroundTime = averageTurnaround;
+            for (Timeline lane : result.lanes) {
+                int segments = buffer.getInt();
+                if (segments < 0 || 12L * segments > buffer.remaining()) {
+                    return null;
+                }
+                lane.size = segments;
+                lane.process = new int[Math.max(segments, 4)];
+                lane.start = new int[Math.max(segments, 4)];
+                lane.end = new int[Math.max(segments, 4)];
+                readInts(buffer, lane.process, segments);
+                readInts(buffer, lane.start, segments);
+                readInts(buffer, lane.end, segments);
+            }
+            return buffer.hasRemaining() ? null : result;
+        } catch (IOException | BufferUnderflowException ex) {
+            return null;
+        }
+    }
+
+    private static void readInts(ByteBuffer buffer, int[] into, int count) {
+        buffer.asIntBuffer().get(into, 0, count);
+        buffer.position(buffer.position() + 4 * count);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
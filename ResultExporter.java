@@ -0,0 +1,452 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Writes a finished SimulationResult to files straight from its columns, without a Swing
+// component, so it runs headless and on timelines far longer than the window could show.
+// SVG, CSV and JSON are streamed through CsvResultWriter.AsciiOut's buffer as the segments are
+// walked. PNG is rendered in strips STRIP_WIDTH pixels wide, in parallel on a fork-join pool,
+// each strip an off-screen BufferedImage written to its own numbered file. Memory beyond the
+// result is therefore one buffer, or one strip per thread, however long the run.
+// Charts look like GanttChartPanel's (see GanttRenderer): segments at least DETAIL_MIN_PX wide
+// are labelled bars, runs of narrower ones a band shaded by the busy fraction of each pixel
+// column. The panel reads that fraction from prefix sums so any tile renders quickly; here each
+// lane is walked once from left to right, which needs no per-segment arrays at all.
+final class ResultExporter {
+    static final String[] FORMATS = {"svg", "png", "csv", "json"};
+    static final int STRIP_WIDTH = 4096;
+    private static final double MAX_DEFAULT_WIDTH = 1 << 20; // pixels, for defaultScale
+    private static final double MAX_WIDTH = 1 << 30;
+    private static final int SEQUENTIAL_STRIPS = 1; // a strip task renders this many itself
+
+    private ResultExporter() {
+    }
+
+    // The panel's initial zoom, reduced where needed so the chart is at most 2^20 pixels wide
+    static double defaultScale(SimulationResult result) {
+        return Math.min(GanttRenderer.DEFAULT_SCALE, MAX_DEFAULT_WIDTH / Math.max(result.makespan(), 1));
+    }
+
+    // Writes the result in the format named by the file's extension (see FORMATS) and returns the
+    // files written: CSV adds the Gantt segments in "<name>-gantt.csv", and a PNG chart wider than
+    // one strip is split into "<name>-<k>.png" strips
+    static List<Path> export(SimulationResult result, Path file, Color[] palette, double scale, ForkJoinPool pool)
+            throws IOException {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot < 0 ? name : name.substring(0, dot);
+        String format = dot < 0 ? "" : name.substring(dot + 1).toLowerCase();
+        List<Path> written = new ArrayList<>();
+        switch (format) {
+            case "svg":
+                checkScale(result, scale);
+                try (OutputStream out = Files.newOutputStream(file)) {
+                    writeSvg(result, palette, scale, out);
+                }
+                written.add(file);
+                break;
+            case "png":
+                written.addAll(writePng(result, palette, scale, file, pool));
+                break;
+            case "csv":
+                Path segments = file.resolveSibling(base + "-gantt.csv");
+                try (OutputStream out = Files.newOutputStream(file);
+                     OutputStream gantt = Files.newOutputStream(segments)) {
+                    writeCsv(result, out, gantt);
+                }
+                written.add(file);
+                written.add(segments);
+                break;
+            case "json":
+                try (OutputStream out = Files.newOutputStream(file)) {
+                    writeJson(result, out);
+                }
+                written.add(file);
+                break;
+            default:
+                throw new IllegalArgumentException("Cannot export to " + name + "; use .svg, .png, .csv or .json");
+        }
+        return written;
+    }
+
+    private static int chartWidth(SimulationResult result, double scale) {
+        return (int) Math.ceil(2 * GanttRenderer.MARGIN + result.makespan() * scale);
+    }
+
+    private static void checkScale(SimulationResult result, double scale) {
+        if (!(scale > 0)) {
+            throw new IllegalArgumentException("Chart scale must be positive");
+        }
+        if (2 * GanttRenderer.MARGIN + result.makespan() * scale > MAX_WIDTH) {
+            throw new IllegalArgumentException(String.format(
+                    "A chart at %s pixels per time unit would be wider than %d pixels", scale, (long) MAX_WIDTH));
+        }
+    }
+
+    // Receives a lane's pixel columns from walk, left to right
+    private interface Columns {
+        // A segment wide enough for a bar, drawn from its start even if that is left of the range
+        void bar(int segment) throws IOException;
+
+        // One pixel column of narrower segments, busy for the given fraction of it
+        void band(int column, double fraction) throws IOException;
+    }
+
+    // Walks the chart pixel columns from up to to of one lane. Each segment is looked at a
+    // bounded number of times, so a whole lane costs O(segments + pixels).
+    private static void walk(Timeline timeline, double scale, int from, int to, Columns out) throws IOException {
+        if (timeline.isEmpty()) {
+            return;
+        }
+        int end = timeline.endTime();
+        int s = GanttRenderer.segmentAt(timeline, Math.max(0, (from - GanttRenderer.MARGIN) / scale));
+        int column = from;
+        while (column < to) {
+            double t0 = (column - GanttRenderer.MARGIN) / scale;
+            double t1 = t0 + 1 / scale;
+            if (t0 >= end) {
+                break;
+            }
+            if (t1 <= 0) {
+                column++;
+                continue;
+            }
+            while (timeline.end[s] <= t0) {
+                s++;
+            }
+            if ((timeline.end[s] - timeline.start[s]) * scale >= GanttRenderer.DETAIL_MIN_PX) {
+                // Wide enough to draw as a bar; continue with the first column after it
+                out.bar(s);
+                int next = (int) Math.ceil(GanttRenderer.MARGIN + timeline.end[s] * scale);
+                column = Math.max(column + 1, next);
+            } else {
+                double busy = 0;
+                double from0 = Math.max(0, t0);
+                for (int k = s; k < timeline.size && timeline.start[k] < t1; k++) {
+                    if (timeline.process[k] >= 0) {
+                        busy += Math.min(timeline.end[k], t1) - Math.max(timeline.start[k], from0);
+                    }
+                }
+                out.band(column, busy * scale);
+                column++;
+            }
+        }
+    }
+
+    // One SVG document: a group per lane, then the axis. Consecutive band columns of the same
+    // shade are merged into one rectangle.
+    static void writeSvg(SimulationResult result, Color[] palette, double scale, OutputStream stream)
+            throws IOException {
+        checkScale(result, scale);
+        CsvResultWriter.AsciiOut out = new CsvResultWriter.AsciiOut(stream);
+        int width = chartWidth(result, scale);
+        int height = GanttRenderer.height(result.lanes.length);
+        FontMetrics metrics = GanttRenderer.labelMetrics();
+        String[] fills = new String[palette.length];
+        for (int c = 0; c < palette.length; c++) {
+            fills[c] = hex(palette[c]);
+        }
+        String idleFill = hex(GanttRenderer.IDLE_COLOR), switchFill = hex(GanttRenderer.SWITCH_COLOR);
+        out.text("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").number(width).text("\" height=\"")
+                .number(height).text("\" font-family=\"Comic Sans MS, sans-serif\">\n");
+        out.text("<title>").text(escapeXml(result.algorithm)).text("</title>\n");
+        out.text("<rect width=\"100%\" height=\"100%\" fill=\"").text(hex(GanttRenderer.BACKGROUND)).text("\"/>\n");
+        for (int lane = 0; lane < result.lanes.length; lane++) {
+            Timeline timeline = result.lanes[lane];
+            int top = GanttRenderer.rowTop(lane);
+            out.text("<g transform=\"translate(0,").number(top).text(")\" stroke-width=\"2\" font-size=\"12\""
+                    + " font-weight=\"bold\" text-anchor=\"middle\">\n");
+            if (result.lanes.length > 1) {
+                out.text("<text x=\"4\" y=\"19\" font-size=\"10\" font-weight=\"normal\" text-anchor=\"start\">CPU ")
+                        .number(lane).text("</text>\n");
+            }
+            int[] band = {0, 0, -2}; // pending run of band columns: first, count, shade
+            walk(timeline, scale, 0, width, new Columns() {
+                @Override
+                public void bar(int s) throws IOException {
+                    flushBand(out, band);
+                    int process = timeline.process[s];
+                    double left = GanttRenderer.MARGIN + timeline.start[s] * scale;
+                    double right = GanttRenderer.MARGIN + timeline.end[s] * scale;
+                    out.text("<rect x=\"");
+                    decimal(out, left).text("\" y=\"1\" width=\"");
+                    decimal(out, right - left).text("\" height=\"").number(GanttRenderer.BAR_HEIGHT - 2)
+                            .text("\" rx=\"5\" fill=\"").text(process == Timeline.IDLE ? idleFill
+                                    : process == Timeline.CONTEXT_SWITCH ? switchFill : fills[process % fills.length])
+                            .text("\" stroke=\"#000\"/>\n");
+                    String label = Timeline.label(process);
+                    if (metrics.stringWidth(label) + 4 <= right - left) {
+                        out.text("<text x=\"");
+                        decimal(out, (left + right) / 2).text("\" y=\"")
+                                .number((GanttRenderer.BAR_HEIGHT + metrics.getAscent() - metrics.getDescent()) / 2)
+                                .text("\">").text(label).text("</text>\n");
+                    }
+                }
+
+                @Override
+                public void band(int column, double fraction) throws IOException {
+                    int shade = GanttRenderer.shade(fraction);
+                    if (band[1] > 0 && (shade != band[2] || column != band[0] + band[1])) {
+                        flushBand(out, band);
+                    }
+                    if (band[1] == 0) {
+                        band[0] = column;
+                        band[2] = shade;
+                    }
+                    band[1]++;
+                }
+            });
+            flushBand(out, band);
+            out.text("</g>\n");
+        }
+        writeSvgAxis(out, result.makespan(), scale, GanttRenderer.axisTop(result.lanes.length), width);
+        out.text("</svg>\n");
+        out.flush();
+    }
+
+    private static void flushBand(CsvResultWriter.AsciiOut out, int[] band) throws IOException {
+        if (band[1] == 0) {
+            return;
+        }
+        Color color = band[2] < 0 ? GanttRenderer.IDLE_COLOR : GanttRenderer.BAND_SHADES[band[2]];
+        out.text("<rect x=\"").number(band[0]).text("\" y=\"1\" width=\"").number(band[1]).text("\" height=\"")
+                .number(GanttRenderer.BAR_HEIGHT - 2).text("\" fill=\"").text(hex(color)).text("\"");
+        if (color.getAlpha() < 255) {
+            out.text(" fill-opacity=\"");
+            decimal(out, color.getAlpha() / 255.0).text("\"");
+        }
+        out.text(" stroke=\"none\"/>\n");
+        band[1] = 0;
+    }
+
+    // The same ticks as GanttRenderer.drawTicks, over the whole width
+    private static void writeSvgAxis(CsvResultWriter.AsciiOut out, int endTime, double scale, int top, int width)
+            throws IOException {
+        out.text("<g transform=\"translate(0,").number(top).text(")\" font-size=\"10\" stroke=\"#000\">\n");
+        long step = GanttRenderer.tickStep(scale);
+        for (long tick = 0; tick <= endTime; tick += step) {
+            long x = Math.round(GanttRenderer.MARGIN + tick * scale);
+            if (x > width) break;
+            out.text("<line x1=\"").number(x).text("\" y1=\"0\" x2=\"").number(x).text("\" y2=\"4\"/><text x=\"")
+                    .number(x).text("\" y=\"15\" stroke=\"none\">").number(tick).text("</text>\n");
+        }
+        long lastTick = endTime / step * step;
+        if (endTime != lastTick && (endTime - lastTick) * scale >= 40) {
+            // Always mark where the timeline ends
+            out.text("<text x=\"").number(Math.round(GanttRenderer.MARGIN + endTime * scale))
+                    .text("\" y=\"15\" stroke=\"none\">").number(endTime).text("</text>\n");
+        }
+        out.text("</g>\n");
+    }
+
+    // Renders the chart in strips on the pool and writes them to file, or to "<name>-<k>.png"
+    // files numbered from 0 when it takes more than one strip
+    static List<Path> writePng(SimulationResult result, Color[] palette, double scale, Path file, ForkJoinPool pool)
+            throws IOException {
+        checkScale(result, scale);
+        int width = chartWidth(result, scale);
+        int strips = (width + STRIP_WIDTH - 1) / STRIP_WIDTH;
+        Path[] files = new Path[strips];
+        if (strips == 1) {
+            files[0] = file;
+        } else {
+            String name = file.getFileName().toString();
+            String base = name.substring(0, name.length() - ".png".length());
+            String digits = "%0" + String.valueOf(strips - 1).length() + "d";
+            for (int k = 0; k < strips; k++) {
+                files[k] = file.resolveSibling(base + "-" + String.format(digits, k) + ".png");
+            }
+        }
+        try {
+            pool.invoke(new StripTask(result, palette, scale, width, files, 0, strips));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return List.of(files);
+    }
+
+    private static final class StripTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient SimulationResult result;
+        private final transient Color[] palette;
+        private final transient Path[] files;
+        private final double scale;
+        private final int width;
+        private final int from, to;
+
+        StripTask(SimulationResult result, Color[] palette, double scale, int width, Path[] files, int from, int to) {
+            this.result = result;
+            this.palette = palette;
+            this.scale = scale;
+            this.width = width;
+            this.files = files;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_STRIPS) {
+                for (int k = from; k < to; k++) {
+                    try {
+                        ImageIO.write(renderStrip(k), "png", files[k].toFile());
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new StripTask(result, palette, scale, width, files, from, middle),
+                    new StripTask(result, palette, scale, width, files, middle, to));
+        }
+
+        private BufferedImage renderStrip(int k) throws IOException {
+            int stripX = k * STRIP_WIDTH;
+            int stripWidth = Math.min(STRIP_WIDTH, width - stripX);
+            int lanes = result.lanes.length;
+            BufferedImage image = new BufferedImage(stripWidth, GanttRenderer.height(lanes), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = image.createGraphics();
+            try {
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2d.setColor(GanttRenderer.BACKGROUND);
+                g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+                for (int lane = 0; lane < lanes; lane++) {
+                    Timeline timeline = result.lanes[lane];
+                    Graphics2D laneGraphics = (Graphics2D) g2d.create(0, GanttRenderer.rowTop(lane), stripWidth,
+                            GanttRenderer.BAR_HEIGHT);
+                    try {
+                        if (stripX == 0 && lanes > 1) {
+                            GanttRenderer.drawLaneLabel(laneGraphics, lane);
+                        }
+                        walk(timeline, scale, stripX, stripX + stripWidth, new Columns() {
+                            @Override
+                            public void bar(int s) {
+                                GanttRenderer.drawSegment(laneGraphics, timeline, s, stripX, stripWidth, scale, palette);
+                            }
+
+                            @Override
+                            public void band(int column, double fraction) {
+                                GanttRenderer.drawBand(laneGraphics, column - stripX, fraction);
+                            }
+                        });
+                    } finally {
+                        laneGraphics.dispose();
+                    }
+                }
+                Graphics2D axis = (Graphics2D) g2d.create(0, GanttRenderer.axisTop(lanes), stripWidth,
+                        GanttRenderer.AXIS_HEIGHT);
+                GanttRenderer.drawTicks(axis, stripX, stripWidth, scale, 0, result.makespan());
+                axis.dispose();
+            } finally {
+                g2d.dispose();
+            }
+            return image;
+        }
+    }
+
+    // Per-process rows in the columns of CsvResultWriter, and the Gantt segments in time order,
+    // with the CPU first when there are several
+    static void writeCsv(SimulationResult result, OutputStream processesOut, OutputStream segmentsOut)
+            throws IOException {
+        CsvResultWriter.AsciiOut out = new CsvResultWriter.AsciiOut(processesOut);
+        ProcessTable p = result.processes;
+        out.text("process,arrival,burst,priority,start,finish,waiting,turnaround\n");
+        for (int i = 0; i < p.size; i++) {
+            out.label(i).comma().number(p.arrival[i]).comma().number(p.burst[i]).comma().number(p.priority[i])
+                    .comma().number(p.start[i]).comma().number(p.finish[i]).comma().number(p.waiting[i])
+                    .comma().number(p.turnaround(i)).newline();
+        }
+        out.flush();
+
+        boolean multiCore = result.lanes.length > 1;
+        out = new CsvResultWriter.AsciiOut(segmentsOut);
+        out.text(multiCore ? "cpu,process,start,end\n" : "process,start,end\n");
+        for (int cpu = 0; cpu < result.lanes.length; cpu++) {
+            Timeline lane = result.lanes[cpu];
+            for (int s = 0; s < lane.size; s++) {
+                if (multiCore) {
+                    out.number(cpu).comma();
+                }
+                out.label(lane.process[s]).comma().number(lane.start[s]).comma().number(lane.end[s]).newline();
+            }
+        }
+        out.flush();
+    }
+
+    // One JSON object: the algorithm, a summary of the metrics, a "processes" array of objects and
+    // a "lanes" array with one array of [process, start, end] segments per CPU
+    static void writeJson(SimulationResult result, OutputStream stream) throws IOException {
+        CsvResultWriter.AsciiOut out = new CsvResultWriter.AsciiOut(stream);
+        ProcessTable p = result.processes;
+        SchedulingMetrics metrics = result.metrics();
+        out.text("{\"algorithm\":").text(quoteJson(result.algorithm)).text(",\"cpus\":").number(result.lanes.length)
+                .text(",\n\"summary\":{\"processes\":").number(p.size);
+        out.text(",\"averageWaiting\":").text(jsonNumber(result.averageWaitingTime));
+        out.text(",\"averageTurnaround\":").text(jsonNumber(result.averageTurnaroundTime));
+        out.text(",\"p99Waiting\":").number(metrics.waiting.percentile(0.99));
+        out.text(",\"maxWaiting\":").number(metrics.waiting.max());
+        out.text(",\"makespan\":").number(metrics.makespan);
+        out.text(",\"utilization\":").text(jsonNumber(metrics.utilization()));
+        out.text(",\"throughput\":").text(jsonNumber(metrics.throughput()));
+        out.text(",\"contextSwitches\":").number(metrics.contextSwitches);
+        out.text(",\"overhead\":").text(jsonNumber(metrics.overhead()));
+        out.text(",\"migrations\":").number(result.migrations);
+        out.text(",\"missedDeadlines\":").number(metrics.missedDeadlines).text("},\n\"processes\":[");
+        for (int i = 0; i < p.size; i++) {
+            out.text(i == 0 ? "\n" : ",\n").text("{\"process\":\"").label(i).text("\",\"arrival\":").number(p.arrival[i])
+                    .text(",\"burst\":").number(p.burst[i]).text(",\"priority\":").number(p.priority[i]);
+            if (p.hasDeadline(i)) {
+                out.text(",\"deadline\":").number(p.deadline[i]);
+            }
+            out.text(",\"start\":").number(p.start[i]).text(",\"finish\":").number(p.finish[i])
+                    .text(",\"waiting\":").number(p.waiting[i]).text(",\"turnaround\":").number(p.turnaround(i))
+                    .text("}");
+        }
+        out.text("],\n\"lanes\":[");
+        for (int cpu = 0; cpu < result.lanes.length; cpu++) {
+            Timeline lane = result.lanes[cpu];
+            out.text(cpu == 0 ? "[" : ",\n[");
+            for (int s = 0; s < lane.size; s++) {
+                out.text(s == 0 ? "\n[\"" : ",\n[\"").label(lane.process[s]).text("\",").number(lane.start[s])
+                        .comma().number(lane.end[s]).text("]");
+            }
+            out.text("]");
+        }
+        out.text("]}\n");
+        out.flush();
+    }
+
+    // Non-negative value with one decimal place
+    private static CsvResultWriter.AsciiOut decimal(CsvResultWriter.AsciiOut out, double value) throws IOException {
+        long tenths = Math.round(value * 10);
+        out.number(tenths / 10);
+        return tenths % 10 == 0 ? out : out.text(".").number(tenths % 10);
+    }
+
+    private static String hex(Color color) {
+        return String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static String quoteJson(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    // JSON has no NaN (the averages of an empty workload)
+    private static String jsonNumber(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+}
@@ -0,0 +1,11 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+// Receives simulation output as it is produced, so nothing has to be kept per process.
+// Process ids are trace record numbers; segment process values below zero use the
+// Timeline.IDLE / Timeline.CONTEXT_SWITCH markers.
+interface ResultSink extends Closeable {
+    void processCompleted(long id, int arrival, int burst, int priority, long start, long finish) throws IOException;
+
+    void segment(long process, long start, long end) throws IOException;
+}
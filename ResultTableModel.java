@@ -0,0 +1,53 @@
+import javax.swing.table.AbstractTableModel;
+
+// Table model that reads rows straight from a SimulationResult's columns, in completion order.
+// Nothing is copied per row, and replacing the result fires a single table change event.
+class ResultTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = {
+        "Process", "Arrival Time", "Burst Time", "Priority", "Finish Time", "Waiting Time", "Turnaround Time"
+    };
+
+    private SimulationResult result;
+    private boolean showPriority;
+
+    void setResult(SimulationResult result, boolean showPriority) {
+        this.result = result;
+        this.showPriority = showPriority;
+        fireTableDataChanged();
+    }
+
+    void clear() {
+        setResult(null, false);
+    }
+
+    @Override
+    public int getRowCount() {
+        return result == null ? 0 : result.completedCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int i = result.completionOrder[row];
+        ProcessTable p = result.processes;
+        switch (column) {
+            case 0: return ProcessTable.name(i);
+            case 1: return p.arrival[i];
+            case 2: return p.burst[i];
+            case 3: return showPriority ? (Object) p.priority[i] : "";
+            case 4: return p.finish[i];
+            case 5: return p.waiting[i];
+            default: return p.turnaround(i);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+// Round Robin with a configurable quantum. The ready queue is a ring buffer of process indices
+// and idle gaps are skipped in one step, so every dispatch is O(1).
+// Switching the CPU to a different process than the one it ran last costs what the SwitchCosts
+// model says, and shows up as a "CS" entry in the Gantt chart.
+class RoundRobinScheduler implements CheckpointingAlgorithm {
+    private final int quantum;
+    private final SwitchCosts switchCosts;
+
+    RoundRobinScheduler(int quantum, SwitchCosts switchCosts) {
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("Quantum must be positive");
+        }
+        this.quantum = quantum;
+        this.switchCosts = switchCosts;
+    }
+
+    @Override
+    public String name() {
+        return "Round Robin";
+    }
+
+    @Override
+    public boolean usesQuantum() {
+        return true;
+    }
+
+    @Override
+    public SimulationResult schedule(ProcessTable processes, Checkpoint from, Checkpoints log,
+                                     SimulationProgress progress) {
+        SimulationResult result = new SimulationResult(name(), processes, progress);
+        int n = processes.size;
+        int[] arrival = processes.arrival;
+        int[] remaining = processes.remaining;
+        int[] arrivalOrder = IndexSort.byKey(arrival, n); // processes waiting to arrive, in order of arrival
+        IntRingQueue readyQueue = new IntRingQueue(n); //Queue to store process that are ready to execute
+
+        int currentTime = 0; //Initialize current time
+        int next = 0; // next position in arrivalOrder
+        int lastRun = -1; // process that ran last, to detect context switches
+        SwitchCosts.Tracker switches = switchCosts.track(processes);
+        if (from != null) {
+            from.restore(result);
+            switches.resume(result.timeline);
+            currentTime = from.time;
+            next = from.admitted;
+            lastRun = (int) from.registers[0];
+            for (int index : from.active) {
+                readyQueue.add(index);
+            }
+        }
+
+        // Continue as long as we have unprocessed processes
+        while (!readyQueue.isEmpty() || next < n) {
+            if (log != null && log.due()) {
+                log.add(new Checkpoint(result, currentTime, next, next > 0 ? arrival[arrivalOrder[next - 1]] : -1,
+                        new long[]{lastRun}, readyQueue.toArray(), null));
+            }
+            // Add processes that have arrived by the current time
+            while (next < n && arrival[arrivalOrder[next]] <= currentTime) {
+                readyQueue.add(arrivalOrder[next++]);
+            }
+
+            if (readyQueue.isEmpty()) {
+                // Nothing is ready: skip the idle gap up to the next arrival in one step
+                int nextArrival = arrival[arrivalOrder[next]];
+                result.timeline.add(Timeline.IDLE, currentTime, nextArrival);
+                currentTime = nextArrival;
+                continue;
+            }
+
+            //Take the next process from the ready queue and assign it for execution
+            int current = readyQueue.poll();
+            currentTime = switches.charge(result.timeline, lastRun, current, currentTime);
+            lastRun = current;
+            result.dispatched(current, currentTime, readyQueue.size());
+            int executeTime = Math.min(remaining[current], quantum);//Execute process for the minimum of its remaining time or quantum
+            result.timeline.add(current, currentTime, currentTime + executeTime);//Add the execution of process to the Gantt Chart
+            currentTime += executeTime; //update current time
+            remaining[current] -= executeTime; //subs executed time from the remaining time
+
+            // If the process finishes, record its finish, turnaround and waiting times
+            if (remaining[current] == 0) {
+                result.complete(current, currentTime);
+            } else {
+                // New arrivals during the slice queue up ahead of the process that was just preempted
+                while (next < n && arrival[arrivalOrder[next]] <= currentTime) {
+                    readyQueue.add(arrivalOrder[next++]);
+                }
+                result.preempted();
+                switches.stopped(current, currentTime - executeTime, currentTime);
+                readyQueue.add(current); // Add the current process back to the ready queue
+            }
+        }
+        //After all process are finished, calculate the avg WT and TA
+        result.finish();
+        return result;
+    }
+
+    @Override
+    public EventPolicy eventPolicy() {
+        return new EventPolicies.RoundRobin(quantum, switchCosts);
+    }
+}
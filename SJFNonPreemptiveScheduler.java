@@ -0,0 +1,60 @@
+class SJFNonPreemptiveScheduler implements CheckpointingAlgorithm {
+    private final SwitchCosts switchCosts;
+
+    SJFNonPreemptiveScheduler(SwitchCosts switchCosts) {
+        this.switchCosts = switchCosts;
+    }
+
+    @Override
+    public String name() {
+        return "SJF Non-Preemptive";
+    }
+
+    @Override
+    public SimulationResult schedule(ProcessTable processes, Checkpoint from, Checkpoints log,
+                                     SimulationProgress progress) {
+        SimulationResult result = new SimulationResult(name(), processes, progress);
+        int n = processes.size;
+        //Sort the process by AT and then by the BT (burst first, then a stable sort by arrival)
+        int[] order = IndexSort.byKey(processes.burst, n);
+        order = IndexSort.byKey(order, processes.arrival);
+
+        int currentTime = 0;
+        int k = 0; // position in order; everything before it has finished
+        SwitchCosts.Tracker switches = switchCosts.track(processes); // processes run once, so there is nothing to resume
+        if (from != null) {
+            from.restore(result);
+            currentTime = from.time;
+            k = from.admitted;
+        }
+
+        for (; k < n; k++) {
+            if (log != null && log.due()) {
+                log.add(new Checkpoint(result, currentTime, k, k > 0 ? processes.arrival[order[k - 1]] : -1,
+                        new long[0], new int[0], null));
+            }
+            int i = order[k];
+            //if the current time is less than the arrival time, add idle time to Gant Chart
+            if (currentTime < processes.arrival[i]) {
+                result.timeline.add(Timeline.IDLE, currentTime, processes.arrival[i]);
+                currentTime = processes.arrival[i];
+            }
+            //Run the process to completion, after switching from the one before, and record its stats
+            currentTime = switches.charge(result.timeline, k > 0 ? order[k - 1] : -1, i, currentTime);
+            result.dispatched(i, currentTime, 0); // runs in a precomputed order, with no ready queue to measure
+            int startTime = currentTime;
+            currentTime += processes.burst[i];
+            result.complete(i, currentTime);
+            //log the process execution in the Gantt Chart
+            result.timeline.add(i, startTime, currentTime);
+        }
+        //Calculate the avg WT and TA times
+        result.finish();
+        return result;
+    }
+
+    @Override
+    public EventPolicy eventPolicy() {
+        return new EventPolicies.Heap(ReadyRule.shortestJobFirst(), switchCosts);
+    }
+}
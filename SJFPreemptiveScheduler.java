@@ -0,0 +1,17 @@
+// Shortest Remaining Time First: the process with the least CPU time left runs, and an arrival
+// that needs less than the running process has left takes the CPU (see HeapScheduler).
+class SJFPreemptiveScheduler extends HeapScheduler {
+    SJFPreemptiveScheduler(SwitchCosts switchCosts) {
+        super(switchCosts);
+    }
+
+    @Override
+    public String name() {
+        return "SJF Preemptive";
+    }
+
+    @Override
+    ReadyRule rule() {
+        return ReadyRule.shortestRemainingTime();
+    }
+}
@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Micro-benchmark for the scheduling engines on generated workloads. Every algorithm runs against
+// every burst shape, arrival pattern and size. Each case is warmed up first and then measured in
+// several timed iterations, in a fresh JVM per fork (-f) so that the JIT profile one algorithm
+// leaves behind does not slow down the next. Reports time per run with the 95% confidence interval
+// over the iterations of all forks, processes scheduled per second and bytes allocated per run (the
+// engine's input copy included), using the JVM's per-thread allocation counter.
+// With --io-bound, that share of the processes also do I/O, so every run goes through
+// EventSimulator, and the events it handles per second are reported as well.
+//
+// This follows JMH's method (forks, warm-up, measured iterations, a sink for results) without JMH
+// itself: JMH generates its harness classes into a subpackage of each benchmark's package and
+// rejects benchmarks in the default package, and code in any named package cannot import the
+// engines, which live in the default package.
+//   java SchedulerBenchmark [-a <algorithm>] [-n <size,...>] [-t <seconds per case>] [-i <iterations>]
+//                           [-f <forks>] [--seed <seed>] [--io-bound <fraction>] [--devices <n>]
+public class SchedulerBenchmark {
+    private static final String USAGE =
+            "Usage: java SchedulerBenchmark [-a <algorithm>] [-n <size,...>] [-t <seconds per case>] [-i <iterations>]\n"
+            + "                               [-f <forks>] [--seed <seed>] [--io-bound <fraction>] [--devices <n>]";
+    private static final String FORKED = "--forked"; // internal: measure the one case given and print raw results
+
+    public static void main(String[] args) {
+        List<String> algorithms = new ArrayList<>();
+        int[] sizes = {10, 1_000, 100_000};
+        double seconds = 1;
+        int iterations = 5;
+        int forks = 1;
+        long seed = 42;
+        double ioBound = 0;
+        int devices = 2;
+        String forkedCase = null; // "bursts,arrivals" in a forked JVM
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-a":
+                        algorithms.add(SchedulingEngine.forName(requireValue(args, ++i)).name());
+                        break;
+                    case "-n":
+                        String[] values = requireValue(args, ++i).split(",");
+                        sizes = new int[values.length];
+                        for (int k = 0; k < values.length; k++) {
+                            sizes[k] = Integer.parseInt(values[k].trim());
+                        }
+                        break;
+                    case "-t":
+                        seconds = Double.parseDouble(requireValue(args, ++i));
+                        break;
+                    case "-i":
+                        iterations = Integer.parseInt(requireValue(args, ++i));
+                        break;
+                    case "-f":
+                        forks = Integer.parseInt(requireValue(args, ++i));
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(requireValue(args, ++i));
+                        break;
+                    case "--io-bound":
+                        ioBound = Double.parseDouble(requireValue(args, ++i));
+                        break;
+                    case "--devices":
+                        devices = Integer.parseInt(requireValue(args, ++i));
+                        break;
+                    case FORKED:
+                        forkedCase = requireValue(args, ++i);
+                        break;
+                    default:
+                        fail("Unknown option: " + args[i]);
+                }
+            }
+            if (iterations <= 0 || forks < 0) {
+                fail("Iterations must be positive and forks must not be negative");
+            }
+        } catch (IllegalArgumentException ex) {
+            fail(ex.getMessage());
+        }
+        if (algorithms.isEmpty()) {
+            algorithms.addAll(List.of(SchedulingEngine.algorithmNames()));
+        }
+
+        long budgetNanos = (long) (seconds * 1e9);
+        if (forkedCase != null) {
+            String[] shape = forkedCase.split(",");
+            ProcessTable workload = workload(sizes[0], WorkloadGenerator.Bursts.valueOf(shape[0]),
+                    WorkloadGenerator.Arrivals.valueOf(shape[1]), seed, ioBound, devices);
+            // fork() appends the case's own -a after any given on the parent's command line
+            String algorithm = algorithms.get(algorithms.size() - 1);
+            Measurement m = measure(SchedulingEngine.forName(algorithm), workload, budgetNanos, iterations);
+            System.out.println(m.encode());
+            return;
+        }
+
+        boolean io = ioBound > 0;
+        System.out.printf("%-24s %-12s %-7s %10s %20s %14s %14s" + (io ? " %14s" : "") + "%n",
+                "Algorithm", "Bursts", "Arrival", "Processes", "ms/run (95% CI)", "processes/s", "bytes/run",
+                "events/s");
+        for (int size : sizes) {
+            for (WorkloadGenerator.Bursts bursts : WorkloadGenerator.Bursts.values()) {
+                for (WorkloadGenerator.Arrivals arrivals : WorkloadGenerator.Arrivals.values()) {
+                    ProcessTable workload = forks == 0 ? workload(size, bursts, arrivals, seed, ioBound, devices) : null;
+                    for (String name : algorithms) {
+                        Measurement m;
+                        if (forks == 0) {
+                            m = measure(SchedulingEngine.forName(name), workload, budgetNanos, iterations);
+                        } else {
+                            m = new Measurement();
+                            for (int fork = 0; fork < forks; fork++) {
+                                m.add(fork(args, name, size, bursts + "," + arrivals));
+                            }
+                        }
+                        double nanos = m.nanosPerRun.mean();
+                        double error = m.nanosPerRun.halfWidth95();
+                        System.out.printf("%-24s %-12s %-7s %10d %20s %14.0f %14d", name, bursts, arrivals, size,
+                                Double.isNaN(error) ? String.format("%.4f", nanos / 1e6)
+                                        : String.format("%.4f +- %.4f", nanos / 1e6, error / 1e6),
+                                size * 1e9 / nanos, m.bytesPerRun);
+                        if (io) {
+                            System.out.printf(" %14.0f", m.eventsPerRun * 1e9 / nanos);
+                        }
+                        System.out.println();
+                    }
+                }
+            }
+        }
+    }
+
+    private static ProcessTable workload(int size, WorkloadGenerator.Bursts bursts, WorkloadGenerator.Arrivals arrivals,
+                                         long seed, double ioBound, int devices) {
+        try {
+            return WorkloadGenerator.generate(size, bursts, arrivals, WorkloadGenerator.LOAD, null, ioBound, devices,
+                    new SplittableRandom(seed));
+        } catch (IllegalArgumentException ex) {
+            fail(ex.getMessage());
+            return null;
+        }
+    }
+
+    // Measures one case in a new JVM with this one's heap and other settings, passing on every
+    // option and narrowing the run to the case
+    private static Measurement fork(String[] args, String algorithm, int size, String shape) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SchedulerBenchmark.class.getName());
+        command.addAll(List.of(args));
+        command.addAll(List.of("-a", algorithm, "-n", String.valueOf(size), FORKED, shape));
+        try {
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+            if (process.waitFor() != 0) {
+                fail("Forked benchmark of " + algorithm + " failed");
+            }
+            return Measurement.decode(output);
+        } catch (IOException ex) {
+            fail("Cannot fork a benchmark JVM: " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            fail("Interrupted");
+        }
+        return null;
+    }
+
+    // Per-iteration times, pooled over forks, with allocation and events per run
+    static final class Measurement {
+        final RunningStats nanosPerRun = new RunningStats();
+        private final List<Double> iterations = new ArrayList<>(); // this JVM's, to send to the parent
+        long bytesPerRun;
+        long eventsPerRun;
+
+        void add(Measurement other) {
+            nanosPerRun.add(other.nanosPerRun);
+            bytesPerRun = other.bytesPerRun;
+            eventsPerRun = other.eventsPerRun;
+        }
+
+        // The forked JVM's output: bytes and events per run, then each iteration's time per run
+        String encode() {
+            StringBuilder out = new StringBuilder().append(bytesPerRun).append(' ').append(eventsPerRun);
+            for (double nanos : iterations) {
+                out.append(' ').append(nanos);
+            }
+            return out.toString();
+        }
+
+        static Measurement decode(String line) {
+            String[] fields = line.split(" ");
+            Measurement m = new Measurement();
+            m.bytesPerRun = Long.parseLong(fields[0]);
+            m.eventsPerRun = Long.parseLong(fields[1]);
+            for (int k = 2; k < fields.length; k++) {
+                m.nanosPerRun.add(Double.parseDouble(fields[k]));
+            }
+            return m;
+        }
+    }
+
+    // Warms up for a third of the budget, then splits the rest into timed iterations of at least one
+    // run each
+    static Measurement measure(SchedulingAlgorithm algorithm, ProcessTable workload, long budgetNanos,
+                               int iterations) {
+        long warmupEnd = System.nanoTime() + budgetNanos / 3;
+        do {
+            consume(SchedulingEngine.run(algorithm, workload));
+        } while (System.nanoTime() < warmupEnd);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long iterationNanos = (budgetNanos - budgetNanos / 3) / iterations;
+        long totalRuns = 0;
+        Measurement m = new Measurement();
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            long start = System.nanoTime();
+            long end = start + iterationNanos;
+            long runs = 0;
+            long now;
+            do {
+                consume(SchedulingEngine.run(algorithm, workload));
+                runs++;
+                now = System.nanoTime();
+            } while (now < end);
+            double nanos = (double) (now - start) / runs;
+            m.nanosPerRun.add(nanos);
+            m.iterations.add(nanos);
+            totalRuns += runs;
+        }
+        m.bytesPerRun = (threads.getThreadAllocatedBytes(thread) - allocatedBefore) / totalRuns;
+        if (workload.hasPhases()) {
+            // Every run handles the same events, so one counted run is enough
+            EventSimulator simulator = new EventSimulator(algorithm.name(), algorithm.eventPolicy(),
+                    workload.copyInputs(), SimulationProgress.NONE);
+            simulator.run();
+            m.eventsPerRun = simulator.eventsHandled();
+        }
+        return m;
+    }
+
+    // Keeps the JIT from discarding the runs whose results are otherwise unused
+    private static double sink;
+
+    private static void consume(SimulationResult result) {
+        sink += result.averageWaitingTime + result.timeline.size;
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            fail("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+}
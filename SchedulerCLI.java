@@ -0,0 +1,739 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Headless batch entry point: runs workload files through the scheduling engine without starting AWT.
+//   java SchedulerCLI [-a <algorithm>|all] [-o <output file>] [-q <quantum>] [--cs <cost>] [--aging <interval>] <workload file>...
+// --stream runs one sorted trace from disk with bounded memory and writes CSV (see StreamingSimulator);
+// --sweep compares a grid of quanta and context-switch costs (lists like "1-20,50") in parallel;
+// --online runs an open system fed by arrival generators until stopped (see OnlineSimulator);
+// --convert turns a CSV trace into the binary trace format;
+// --replicate compares algorithms over many seeded random workloads with confidence intervals;
+// --checkpoint saves a single run's progress now and then, and --resume carries on from the saved file;
+// --export writes every result as an SVG or PNG Gantt chart and CSV or JSON tables (see ResultExporter);
+// --serve answers simulation requests over HTTP on localhost (see SimulationService).
+public class SchedulerCLI {
+    private static final long CHECKPOINT_SAVE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final String USAGE =
+            "Usage: java SchedulerCLI [-a <algorithm>|all] [-o <output file>] [-q <quantum>] [--cs <cost>] [--aging <interval>]\n"
+            + "           [--refill <max cost>] [--refill-interval <t>] [--migration <cost>]\n"
+            + "           [--cpus <n>] [--per-core] [--balance none|steal|rebalance] [--rebalance-interval <t>] [--affinity]\n"
+            + "           [--latency <t>] [--min-granularity <t>] [--mlfq-quanta <q1,q2,...>] [--boost <interval>]\n"
+            + "           [--cache <directory>] [--checkpoint <file>] [--export <directory>] [--formats svg,png,csv,json]\n"
+            + "           [--chart-scale <pixels per time unit>] [-j <threads>] <workload file>...\n"
+            + "       java SchedulerCLI --resume <checkpoint file> [--checkpoint <file>] [-o <output file>]\n"
+            + "       java SchedulerCLI --stream -a <algorithm> [-o <results csv>] [--gantt <segments csv>] [-q <quantum>] [--cs <cost>] <trace file>\n"
+            + "       java SchedulerCLI --sweep [-a <algorithm>|all] [--quanta <list>] [--costs <list>] [-j <threads>] [-o <output file>] <workload file>...\n"
+            + "       java SchedulerCLI --online poisson|bursty|<trace file> [-a <algorithm>] [--pace <units per second>] [--duration <t>]\n"
+            + "           [--producers <n>] [--load <fraction>] [--seed <seed>] [-q <quantum>] [--cs <cost>] [--aging <interval>]\n"
+            + "       java SchedulerCLI --replicate <k> [-a <algorithm>|all] [--size <n>] [--bursts uniform|exponential|heavy]\n"
+            + "           [--arrivals poisson|bursty] [--load <fraction>] [--priority-mix <w0,w1,...>] [--io-bound <fraction>]\n"
+            + "           [--devices <n>] [--seed <seed>] [-j <threads>] [-o <output file>] [scheduler options]\n"
+            + "       java SchedulerCLI --serve <port> [-j <concurrent simulations>] [--cache <directory>]\n"
+            + "       java SchedulerCLI --convert <binary trace> <csv trace>";
+
+    public static void main(String[] args) {
+        String algorithmName = "all";
+        String outputFile = null;
+        String ganttFile = null;
+        String convertTo = null;
+        boolean stream = false;
+        boolean sweep = false;
+        String quanta = null, costs = null;
+        String online = null;
+        int servePort = -1;
+        String cacheDirectory = null;
+        String checkpointFile = null, resumeFile = null;
+        String exportDirectory = null;
+        String[] exportFormats = ResultExporter.FORMATS;
+        double chartScale = 0; // 0 for ResultExporter.defaultScale
+        double pace = 0, load = WorkloadGenerator.LOAD;
+        long duration = Long.MAX_VALUE, seed = 42;
+        int producers = 1;
+        int replications = 0, workloadSize = 1000;
+        WorkloadGenerator.Bursts bursts = WorkloadGenerator.Bursts.EXPONENTIAL;
+        WorkloadGenerator.Arrivals arrivals = WorkloadGenerator.Arrivals.SPARSE;
+        double[] priorityMix = null;
+        double ioBound = 0;
+        int devices = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        SchedulerConfig config = SchedulerConfig.DEFAULT;
+        List<Path> workloads = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-a":
+                        algorithmName = requireValue(args, ++i);
+                        break;
+                    case "-o":
+                        outputFile = requireValue(args, ++i);
+                        break;
+                    case "-q":
+                        config = config.withQuantum(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--cs":
+                        config = config.withContextSwitchCost(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--refill":
+                        config = config.withRefillCost(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--refill-interval":
+                        config = config.withRefillInterval(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--migration":
+                        config = config.withMigrationCost(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--cpus":
+                        config = config.withCpus(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--per-core":
+                        config = config.withQueues(SchedulerConfig.Queues.PER_CORE);
+                        break;
+                    case "--balance":
+                        config = config.withBalancing(parseBalancing(requireValue(args, ++i)));
+                        break;
+                    case "--rebalance-interval":
+                        config = config.withRebalanceInterval(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--affinity":
+                        config = config.withAffinity(true);
+                        break;
+                    case "--stream":
+                        stream = true;
+                        break;
+                    case "--sweep":
+                        sweep = true;
+                        break;
+                    case "--quanta":
+                        quanta = requireValue(args, ++i);
+                        break;
+                    case "--costs":
+                        costs = requireValue(args, ++i);
+                        break;
+                    case "-j":
+                        threads = parseInt(requireValue(args, ++i));
+                        break;
+                    case "--gantt":
+                        ganttFile = requireValue(args, ++i);
+                        break;
+                    case "--convert":
+                        convertTo = requireValue(args, ++i);
+                        break;
+                    case "--cache":
+                        cacheDirectory = requireValue(args, ++i);
+                        break;
+                    case "--checkpoint":
+                        checkpointFile = requireValue(args, ++i);
+                        break;
+                    case "--resume":
+                        resumeFile = requireValue(args, ++i);
+                        break;
+                    case "--export":
+                        exportDirectory = requireValue(args, ++i);
+                        break;
+                    case "--formats":
+                        exportFormats = parseFormats(requireValue(args, ++i));
+                        break;
+                    case "--chart-scale":
+                        chartScale = parseDouble(requireValue(args, ++i));
+                        if (!(chartScale > 0)) {
+                            throw new IllegalArgumentException("Chart scale must be positive");
+                        }
+                        break;
+                    case "--replicate":
+                        replications = parseInt(requireValue(args, ++i));
+                        break;
+                    case "--size":
+                        workloadSize = parseInt(requireValue(args, ++i));
+                        break;
+                    case "--bursts":
+                        bursts = parseBursts(requireValue(args, ++i));
+                        break;
+                    case "--arrivals":
+                        arrivals = parseArrivals(requireValue(args, ++i));
+                        break;
+                    case "--priority-mix":
+                        priorityMix = parseDoubleList(requireValue(args, ++i));
+                        break;
+                    case "--io-bound":
+                        ioBound = parseDouble(requireValue(args, ++i));
+                        break;
+                    case "--devices":
+                        devices = parseInt(requireValue(args, ++i));
+                        break;
+                    case "--online":
+                        online = requireValue(args, ++i);
+                        break;
+                    case "--serve":
+                        servePort = parseInt(requireValue(args, ++i));
+                        break;
+                    case "--pace":
+                        pace = parseDouble(requireValue(args, ++i));
+                        break;
+                    case "--duration":
+                        duration = parseLong(requireValue(args, ++i));
+                        break;
+                    case "--producers":
+                        producers = parseInt(requireValue(args, ++i));
+                        break;
+                    case "--load":
+                        load = parseDouble(requireValue(args, ++i));
+                        break;
+                    case "--seed":
+                        seed = parseLong(requireValue(args, ++i));
+                        break;
+                    case "--aging":
+                        config = config.withAgingInterval(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--latency":
+                        config = config.withTargetLatency(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--min-granularity":
+                        config = config.withMinGranularity(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "--mlfq-quanta":
+                        config = config.withLevelQuanta(parseIntList(requireValue(args, ++i)));
+                        break;
+                    case "--boost":
+                        config = config.withBoostInterval(parseInt(requireValue(args, ++i)));
+                        break;
+                    case "-h":
+                    case "--help":
+                        System.out.println(USAGE);
+                        System.out.println("Algorithms: " + String.join(", ", SchedulingEngine.algorithmNames()));
+                        return;
+                    default:
+                        workloads.add(Paths.get(args[i]));
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            fail(ex.getMessage());
+        }
+        if (servePort >= 0) {
+            serve(servePort, threads, cacheDirectory);
+            return;
+        }
+        if (online != null) {
+            online(algorithmName, config, online, producers, load, seed, pace, duration);
+            return;
+        }
+        if (replications > 0) {
+            replicate(algorithmName, config, replications, seed, threads, outputFile,
+                    workloadSize, bursts, arrivals, load, priorityMix, ioBound, devices);
+            return;
+        }
+        if (resumeFile != null) {
+            resume(Paths.get(resumeFile), checkpointFile == null ? null : Paths.get(checkpointFile), outputFile);
+            return;
+        }
+        if (workloads.isEmpty()) {
+            fail("No workload files given.");
+        }
+        if (convertTo != null) {
+            convert(workloads, Paths.get(convertTo));
+            return;
+        }
+        if (stream) {
+            stream(algorithmName, config, workloads, outputFile, ganttFile);
+            return;
+        }
+
+        List<SchedulingAlgorithm> algorithms = new ArrayList<>();
+        try {
+            if (algorithmName.equalsIgnoreCase("all")) {
+                for (String name : SchedulingEngine.algorithmNames(config)) {
+                    algorithms.add(SchedulingEngine.forName(name, config));
+                }
+            } else {
+                algorithms.add(SchedulingEngine.forName(algorithmName, config));
+            }
+        } catch (IllegalArgumentException ex) {
+            fail(ex.getMessage());
+        }
+        if (checkpointFile != null && (algorithms.size() != 1 || workloads.size() != 1 || sweep)) {
+            fail("--checkpoint runs one algorithm on one workload; choose it with -a.");
+        }
+        if (checkpointFile != null && !(algorithms.get(0) instanceof CheckpointingAlgorithm)) {
+            fail("--checkpoint needs a single-CPU run.");
+        }
+        if (exportDirectory != null && sweep) {
+            fail("--export writes single runs; it cannot be combined with --sweep.");
+        }
+        if ((sweep || exportDirectory != null) && threads < 1) {
+            fail("Thread count must be positive");
+        }
+
+        int[] quantumValues = null, costValues = null;
+        if (sweep) {
+            try {
+                quantumValues = quanta == null ? new int[]{config.quantum} : ParameterSweep.parseValues(quanta);
+                costValues = costs == null ? new int[]{config.contextSwitchCost} : ParameterSweep.parseValues(costs);
+            } catch (IllegalArgumentException ex) {
+                fail(ex.getMessage());
+            }
+        }
+
+        PrintStream out = System.out;
+        ForkJoinPool pool = sweep || exportDirectory != null ? new ForkJoinPool(threads) : null;
+        try {
+            if (outputFile != null) {
+                out = new PrintStream(outputFile, StandardCharsets.UTF_8);
+            }
+            Path exportTo = exportDirectory == null ? null : Files.createDirectories(Paths.get(exportDirectory));
+            // Runs repeated with the same workload, algorithm and settings are read back from the cache
+            ResultCache cache = cacheDirectory == null ? null
+                    : new ResultCache(Runtime.getRuntime().maxMemory() / 8, Paths.get(cacheDirectory));
+            for (Path workload : workloads) {
+                ProcessTable processes = WorkloadFile.read(workload);
+                if (sweep) {
+                    List<String> names = new ArrayList<>();
+                    for (SchedulingAlgorithm algorithm : algorithms) {
+                        names.add(algorithm.name());
+                    }
+                    long start = System.nanoTime();
+                    ParameterSweep.Row[] rows =
+                            ParameterSweep.run(processes, names, quantumValues, costValues, config, pool);
+                    printSweep(out, workload.toString(), rows, System.nanoTime() - start, threads);
+                    continue;
+                }
+                for (SchedulingAlgorithm algorithm : algorithms) {
+                    SimulationResult result = checkpointFile != null
+                            ? runCheckpointed(algorithm, config, processes, null, Paths.get(checkpointFile))
+                            : cache == null ? SchedulingEngine.run(algorithm, processes)
+                            : cache.run(algorithm, config, processes, SimulationProgress.NONE);
+                    printResult(out, workload.toString(), result, algorithm.usesPriority());
+                    if (exportTo != null) {
+                        export(result, workload, exportTo, exportFormats, chartScale, pool);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            runFailed(ex.getMessage());
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            if (out != System.out) {
+                out.close();
+            }
+        }
+    }
+
+    // Writes the result in each format to "<workload name>-<algorithm>.<format>" in the directory
+    private static void export(SimulationResult result, Path workload, Path directory, String[] formats,
+                               double scale, ForkJoinPool pool) throws IOException {
+        String name = workload.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = (dot > 0 ? name.substring(0, dot) : name) + "-"
+                + result.algorithm.toLowerCase().replace(' ', '-');
+        double chartScale = scale > 0 ? scale : ResultExporter.defaultScale(result);
+        int files = 0;
+        for (String format : formats) {
+            files += ResultExporter.export(result, directory.resolve(base + "." + format),
+                    GanttRenderer.PASTEL_COLORS, chartScale, pool).size();
+        }
+        System.err.println("Exported " + base + " to " + files + (files == 1 ? " file" : " files") + " in " + directory);
+    }
+
+    // Runs every chosen algorithm on k generated workloads in parallel and prints each metric's mean
+    // and 95% confidence interval; the table depends only on the seed, not on the thread count
+    private static void replicate(String algorithmName, SchedulerConfig config, int replications, long seed,
+                                  int threads, String outputFile, int size, WorkloadGenerator.Bursts bursts,
+                                  WorkloadGenerator.Arrivals arrivals, double load, double[] priorityMix,
+                                  double ioBound, int devices) {
+        List<SchedulingAlgorithm> algorithms = new ArrayList<>();
+        ReplicationStudy study = null;
+        try {
+            if (algorithmName.equalsIgnoreCase("all")) {
+                for (String name : SchedulingEngine.algorithmNames(config)) {
+                    algorithms.add(SchedulingEngine.forName(name, config));
+                }
+            } else {
+                algorithms.add(SchedulingEngine.forName(algorithmName, config));
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException("Thread count must be positive");
+            }
+            study = new ReplicationStudy(size, bursts, arrivals, load, priorityMix, ioBound, devices);
+        } catch (IllegalArgumentException ex) {
+            fail(ex.getMessage());
+        }
+        PrintStream out = System.out;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            if (outputFile != null) {
+                out = new PrintStream(outputFile, StandardCharsets.UTF_8);
+            }
+            long start = System.nanoTime();
+            RunningStats[][] stats = study.run(algorithms, replications, seed, pool);
+            System.err.printf("%d replications on %d threads in %.1f ms%n", replications, threads,
+                    (System.nanoTime() - start) / 1e6);
+            String arrivalName = arrivals == WorkloadGenerator.Arrivals.SPARSE ? "poisson" : "bursty";
+            String ioMix = ioBound > 0 ? String.format(" | %.0f%% I/O-bound on %d devices", 100 * ioBound, devices) : "";
+            out.printf("== %d replications | %d processes | %s bursts | %s arrivals | load %.2f%s | seed %d ==%n",
+                    replications, size, bursts.name().toLowerCase().replace('_', '-'), arrivalName, load, ioMix, seed);
+            ReplicationStudy.print(out, algorithms, stats);
+        } catch (IOException | IllegalArgumentException ex) {
+            runFailed(ex.getMessage());
+        } finally {
+            pool.shutdown();
+            if (out != System.out) {
+                out.close();
+            }
+        }
+    }
+
+    // Carries on a run saved with --checkpoint, saving further checkpoints to saveTo if given
+    private static void resume(Path file, Path saveTo, String outputFile) {
+        PrintStream out = System.out;
+        try {
+            CheckpointFile saved = CheckpointFile.read(file);
+            System.err.println("Resuming " + saved.algorithm.name() + " at time " + saved.checkpoint.time + " with "
+                    + saved.checkpoint.completed + " of " + saved.workload.size + " processes finished");
+            SimulationResult result = saveTo == null ? saved.resume(null, SimulationProgress.NONE)
+                    : runCheckpointed(saved.algorithm, saved.config, saved.workload, saved, saveTo);
+            if (outputFile != null) {
+                out = new PrintStream(outputFile, StandardCharsets.UTF_8);
+            }
+            printResult(out, file.toString(), result, saved.algorithm.usesPriority());
+        } catch (IOException | IllegalArgumentException ex) {
+            runFailed(ex.getMessage());
+        } finally {
+            if (out != System.out) {
+                out.close();
+            }
+        }
+    }
+
+    // Runs one simulation, from the start or from a saved checkpoint, writing its latest checkpoint
+    // to the file at most every CHECKPOINT_SAVE_NANOS so that an interrupted run can be resumed
+    private static SimulationResult runCheckpointed(SchedulingAlgorithm algorithm, SchedulerConfig config,
+                                                    ProcessTable processes, CheckpointFile from, Path file)
+            throws IOException {
+        if (processes.hasPhases()) {
+            throw new IllegalArgumentException("--checkpoint cannot save runs of processes with I/O phases.");
+        }
+        Checkpoints log = new Checkpoints();
+        long[] nextSave = {System.nanoTime()};
+        log.setListener(checkpoint -> {
+            long now = System.nanoTime();
+            if (now - nextSave[0] >= 0) {
+                try {
+                    CheckpointFile.write(file, checkpoint, config);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                nextSave[0] = now + CHECKPOINT_SAVE_NANOS;
+            }
+        });
+        try {
+            return from != null ? from.resume(log, SimulationProgress.NONE)
+                    : ((CheckpointingAlgorithm) algorithm).schedule(processes.copyInputs(), null, log,
+                            SimulationProgress.NONE);
+        } catch (UncheckedIOException ex) {
+            throw new IOException("Cannot save checkpoint to " + file + ": " + ex.getCause().getMessage(), ex);
+        }
+    }
+
+    private static void convert(List<Path> workloads, Path output) {
+        if (workloads.size() != 1) {
+            fail("--convert takes exactly one trace file.");
+        }
+        try {
+            long records = TraceWriter.convert(workloads.get(0), output);
+            System.out.println("Wrote " + records + " processes to " + output);
+        } catch (IOException ex) {
+            runFailed(ex.getMessage());
+        }
+    }
+
+    private static void stream(String algorithmName, SchedulerConfig config, List<Path> workloads,
+                               String outputFile, String ganttFile) {
+        if (workloads.size() != 1) {
+            fail("--stream takes exactly one trace file.");
+        }
+        if (!StreamingSimulator.supports(algorithmName)) {
+            fail("--stream supports only Round Robin and SJF Non-Preemptive.");
+        }
+        // The summary goes to stderr when stdout carries the CSV
+        PrintStream summaryOut = outputFile == null ? System.err : System.out;
+        StreamingSimulator.Summary summary = null;
+        try (TraceReader trace = TraceReader.open(workloads.get(0));
+             CsvResultWriter sink = new CsvResultWriter(
+                     outputFile == null ? System.out : Files.newOutputStream(Paths.get(outputFile)),
+                     ganttFile == null ? null : Files.newOutputStream(Paths.get(ganttFile)))) {
+            summary = StreamingSimulator.run(algorithmName, config, trace, sink);
+        } catch (IOException | IllegalArgumentException ex) {
+            runFailed(ex.getMessage());
+        }
+        if (summary.processes == 0) {
+            runFailed("The workload has no processes: " + workloads.get(0));
+        }
+        summaryOut.println("Processes: " + summary.processes);
+        summaryOut.println("Makespan: " + summary.makespan);
+        summaryOut.printf("Average Waiting Time: %.2f%n", summary.averageWaitingTime());
+        summaryOut.printf("Average Turnaround Time: %.2f%n", summary.averageTurnaroundTime());
+        summary.metrics.print(summaryOut);
+    }
+
+    // Answers simulation requests on localhost until the process is stopped; the server's own
+    // thread keeps the JVM running after main returns
+    private static void serve(int port, int concurrency, String cacheDirectory) {
+        SimulationService service = null;
+        try {
+            long cacheBytes = Runtime.getRuntime().maxMemory() / 8;
+            ResultCache cache = cacheDirectory == null ? new ResultCache(cacheBytes)
+                    : new ResultCache(cacheBytes, Paths.get(cacheDirectory));
+            service = new SimulationService(port, concurrency, cache);
+        } catch (IOException | IllegalArgumentException ex) {
+            fail(ex.getMessage());
+        }
+        SimulationService running = service;
+        Runtime.getRuntime().addShutdownHook(new Thread(running::stop));
+        service.start();
+        System.out.println("Serving simulations on http://localhost:" + service.port() + "/ with at most "
+                + concurrency + " running at once");
+    }
+
+    // Runs an open system until the source runs dry, --duration is reached or the user presses
+    // Ctrl-C, with a status line every second and the latency table at the end
+    private static void online(String algorithmName, SchedulerConfig config, String source, int producers,
+                               double load, long seed, double pace, long duration) {
+        if (algorithmName.equalsIgnoreCase("all")) {
+            fail("--online runs one algorithm; choose it with -a.");
+        }
+        OnlineSimulator simulator = null;
+        try {
+            simulator = new OnlineSimulator(algorithmName, config,
+                    ArrivalGenerator.forSource(source, producers, load, seed), pace, duration, 1);
+        } catch (IOException | IllegalArgumentException ex) {
+            fail(ex.getMessage());
+        }
+        OnlineSimulator running = simulator;
+        CountDownLatch reported = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            running.stop();
+            try {
+                reported.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                // exiting anyway
+            }
+        }));
+
+        boolean failed = false;
+        System.out.println("== online | " + simulator.algorithmName() + " | " + source + " ==");
+        simulator.start();
+        try {
+            while (!simulator.isFinished()) {
+                Thread.sleep(1000);
+                OnlineSimulator.Snapshot s = simulator.snapshot();
+                System.out.printf("t=%d admitted=%d completed=%d in system=%d p99 waiting=%d utilization=%.1f%%%n",
+                        s.time, s.admitted, s.completed, s.inSystem, s.metrics.waiting.percentile(0.99),
+                        100 * s.metrics.utilization());
+            }
+            OnlineSimulator.Snapshot s = simulator.awaitFinished();
+            System.out.println("Simulated time: " + s.time + ", admitted " + s.admitted + ", completed " + s.completed);
+            s.metrics.print(System.out);
+        } catch (IOException ex) {
+            System.err.println(ex.getMessage());
+            failed = true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            reported.countDown();
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    static void printResult(PrintStream out, String source, SimulationResult result, boolean showPriority) {
+        out.println("== " + source + " | " + result.algorithm + " ==");
+        out.printf("%-8s %8s %8s %8s %8s %8s %10s%n",
+                "Process", "Arrival", "Burst", "Priority", "Finish", "Waiting", "Turnaround");
+        ProcessTable p = result.processes;
+        for (int k = 0; k < result.completedCount; k++) {
+            int i = result.completionOrder[k];
+            out.printf("%-8s %8d %8d %8s %8d %8d %10d%n", ProcessTable.name(i), p.arrival[i], p.burst[i],
+                    showPriority ? String.valueOf(p.priority[i]) : "", p.finish[i], p.waiting[i], p.turnaround(i));
+        }
+        Timeline timeline = result.timeline;
+        out.print(result.lanes.length > 1 ? "CPU0:" : "Gantt:");
+        for (int s = 0; s < timeline.size; s++) {
+            out.print(' ');
+            out.print(timeline.describe(s));
+        }
+        out.println();
+        for (int c = 1; c < result.lanes.length; c++) {
+            Timeline lane = result.lanes[c];
+            out.print("CPU" + c + ":");
+            for (int s = 0; s < lane.size; s++) {
+                out.print(' ');
+                out.print(lane.describe(s));
+            }
+            out.println();
+        }
+        out.printf("Average Waiting Time: %.2f%n", result.averageWaitingTime);
+        out.printf("Average Turnaround Time: %.2f%n", result.averageTurnaroundTime);
+        if (result.lanes.length > 1) {
+            out.print("CPU utilization:");
+            for (int c = 0; c < result.lanes.length; c++) {
+                out.printf(" %.1f%%", 100 * result.utilization(c));
+            }
+            out.println();
+            out.println("Migrations: " + result.migrations);
+        }
+        result.metrics().print(out);
+        // Results read back from a cache file were not run here and have nothing counted
+        if (EngineCounters.ENABLED && result.counters.wallNanos > 0) {
+            out.println("Engine counters: " + result.counters.describe());
+        }
+        out.println();
+    }
+
+    static void printSweep(PrintStream out, String source, ParameterSweep.Row[] rows, long nanos, int threads) {
+        out.printf("== %s | sweep of %d configurations on %d threads, %.1f ms ==%n",
+                source, rows.length, threads, nanos / 1e6);
+        out.printf("%-24s %7s %4s %10s %8s %8s %10s %8s %8s%n", "Algorithm", "Quantum", "CS",
+                "Avg Wait", "p95 Wait", "Max Wait", "Avg TA", "p95 TA", "Max TA");
+        ParameterSweep.Row best = null;
+        for (ParameterSweep.Row row : rows) {
+            out.printf("%-24s %7s %4d %10.2f %8d %8d %10.2f %8d %8d%n", row.algorithm,
+                    row.quantum == ParameterSweep.Row.NO_QUANTUM ? "-" : String.valueOf(row.quantum),
+                    row.contextSwitchCost, row.averageWaiting, row.p95Waiting, row.maxWaiting,
+                    row.averageTurnaround, row.p95Turnaround, row.maxTurnaround);
+            if (best == null || row.averageWaiting < best.averageWaiting) {
+                best = row;
+            }
+        }
+        if (best != null) {
+            String quantum = best.quantum == ParameterSweep.Row.NO_QUANTUM ? "" : ", quantum " + best.quantum;
+            out.printf("Lowest average waiting time: %s%s, context switch cost %d (%.2f)%n",
+                    best.algorithm, quantum, best.contextSwitchCost, best.averageWaiting);
+        }
+        out.println();
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            fail("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    static SchedulerConfig.Balancing parseBalancing(String value) {
+        switch (value.toLowerCase()) {
+            case "none":
+                return SchedulerConfig.Balancing.NONE;
+            case "steal":
+                return SchedulerConfig.Balancing.STEAL;
+            case "rebalance":
+                return SchedulerConfig.Balancing.REBALANCE;
+            default:
+                throw new IllegalArgumentException("Unknown load balancing: " + value + " (none, steal or rebalance)");
+        }
+    }
+
+    private static WorkloadGenerator.Bursts parseBursts(String value) {
+        switch (value.toLowerCase()) {
+            case "uniform":
+                return WorkloadGenerator.Bursts.UNIFORM;
+            case "exponential":
+                return WorkloadGenerator.Bursts.EXPONENTIAL;
+            case "heavy":
+                return WorkloadGenerator.Bursts.HEAVY_TAILED;
+            default:
+                throw new IllegalArgumentException("Unknown burst distribution: " + value + " (uniform, exponential or heavy)");
+        }
+    }
+
+    private static WorkloadGenerator.Arrivals parseArrivals(String value) {
+        switch (value.toLowerCase()) {
+            case "poisson":
+                return WorkloadGenerator.Arrivals.SPARSE;
+            case "bursty":
+                return WorkloadGenerator.Arrivals.BURSTY;
+            default:
+                throw new IllegalArgumentException("Unknown arrival pattern: " + value + " (poisson or bursty)");
+        }
+    }
+
+    private static String[] parseFormats(String value) {
+        String[] formats = value.toLowerCase().split(",");
+        for (int i = 0; i < formats.length; i++) {
+            formats[i] = formats[i].trim();
+            if (!List.of(ResultExporter.FORMATS).contains(formats[i])) {
+                throw new IllegalArgumentException("Unknown export format: " + formats[i] + " (svg, png, csv or json)");
+            }
+        }
+        return formats;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            fail("Invalid number: " + value);
+            return 0;
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException ex) {
+            fail("Invalid number: " + value);
+            return 0;
+        }
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            fail("Invalid number: " + value);
+            return 0;
+        }
+    }
+
+    private static int[] parseIntList(String value) {
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = parseInt(parts[i].trim());
+        }
+        return values;
+    }
+
+    private static double[] parseDoubleList(String value) {
+        String[] parts = value.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = parseDouble(parts[i].trim());
+        }
+        return values;
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    // The options were fine but the run could not be completed: reading, simulating or writing
+    // failed, so the usage text would not help
+    private static void runFailed(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+}
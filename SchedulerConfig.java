@@ -0,0 +1,221 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Tunable parameters for the algorithms. Each algorithm reads the ones that apply to it.
+final class SchedulerConfig {
+    // Where waiting processes queue on a multi-CPU machine
+    enum Queues {
+        GLOBAL, // one shared ready queue
+        PER_CORE // one ready queue per CPU
+    }
+
+    // How per-core queues are kept even
+    enum Balancing {
+        NONE,
+        STEAL, // an idle CPU takes a waiting process from the CPU with the most queued
+        REBALANCE // every rebalanceInterval, queued processes move from the longest to the shortest queues
+    }
+
+    static final SchedulerConfig DEFAULT = new Builder().build();
+
+    final int quantum; // Round Robin time slice
+    final int contextSwitchCost; // time charged when the CPU switches to a different process
+    final int agingInterval; // time units of waiting per priority level gained, 0 = no aging
+    final int cpus; // number of processors; more than one selects MultiCoreScheduler
+    final Queues queues;
+    final Balancing balancing;
+    final int rebalanceInterval; // for Balancing.REBALANCE
+    final boolean affinity; // once a process has run on a CPU, it is never migrated off it
+    final int targetLatency; // CFS: period in which every runnable process gets a turn
+    final int minGranularity; // CFS: shortest slice, and the lead over a newcomer that gets a process preempted
+    private final int[] levelQuanta; // MLFQ: time slice of each level, top level first
+    final int boostInterval; // MLFQ: every process moves back to the top level this often, 0 = never
+    // Cache refill on a context switch (see SwitchCosts): one time unit per refillInterval units the
+    // process spent off the CPU, at most refillCost; 0 = caches never go cold
+    final int refillCost;
+    final int refillInterval;
+    final int migrationCost; // extra cost of dispatching a process on another CPU than it last ran on
+
+    private SchedulerConfig(int quantum, int contextSwitchCost, int agingInterval, int cpus, Queues queues,
+                            Balancing balancing, int rebalanceInterval, boolean affinity, int targetLatency,
+                            int minGranularity, int[] levelQuanta, int boostInterval, int refillCost,
+                            int refillInterval, int migrationCost) {
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("Quantum must be positive");
+        }
+        if (contextSwitchCost < 0) {
+            throw new IllegalArgumentException("Context switch cost must not be negative");
+        }
+        if (agingInterval < 0) {
+            throw new IllegalArgumentException("Aging interval must not be negative");
+        }
+        if (cpus <= 0) {
+            throw new IllegalArgumentException("Number of CPUs must be positive");
+        }
+        if (rebalanceInterval <= 0) {
+            throw new IllegalArgumentException("Rebalance interval must be positive");
+        }
+        if (targetLatency <= 0 || minGranularity <= 0) {
+            throw new IllegalArgumentException("Target latency and minimum granularity must be positive");
+        }
+        if (levelQuanta.length == 0) {
+            throw new IllegalArgumentException("MLFQ needs at least one level");
+        }
+        for (int levelQuantum : levelQuanta) {
+            if (levelQuantum <= 0) {
+                throw new IllegalArgumentException("MLFQ quanta must be positive");
+            }
+        }
+        if (boostInterval < 0) {
+            throw new IllegalArgumentException("Boost interval must not be negative");
+        }
+        if (refillCost < 0 || migrationCost < 0) {
+            throw new IllegalArgumentException("Refill and migration costs must not be negative");
+        }
+        if (refillInterval <= 0) {
+            throw new IllegalArgumentException("Refill interval must be positive");
+        }
+        this.quantum = quantum;
+        this.contextSwitchCost = contextSwitchCost;
+        this.agingInterval = agingInterval;
+        this.cpus = cpus;
+        this.queues = queues;
+        this.balancing = balancing;
+        this.rebalanceInterval = rebalanceInterval;
+        this.affinity = affinity;
+        this.targetLatency = targetLatency;
+        this.minGranularity = minGranularity;
+        this.levelQuanta = levelQuanta;
+        this.boostInterval = boostInterval;
+        this.refillCost = refillCost;
+        this.refillInterval = refillInterval;
+        this.migrationCost = migrationCost;
+    }
+
+    // Copy of the MLFQ quanta, top level first
+    int[] levelQuanta() {
+        return levelQuanta.clone();
+    }
+
+    SchedulerConfig withQuantum(int quantum) {
+        return with(builder -> builder.quantum = quantum);
+    }
+
+    SchedulerConfig withContextSwitchCost(int contextSwitchCost) {
+        return with(builder -> builder.contextSwitchCost = contextSwitchCost);
+    }
+
+    SchedulerConfig withAgingInterval(int agingInterval) {
+        return with(builder -> builder.agingInterval = agingInterval);
+    }
+
+    SchedulerConfig withCpus(int cpus) {
+        return with(builder -> builder.cpus = cpus);
+    }
+
+    SchedulerConfig withQueues(Queues queues) {
+        return with(builder -> builder.queues = queues);
+    }
+
+    SchedulerConfig withBalancing(Balancing balancing) {
+        return with(builder -> builder.balancing = balancing);
+    }
+
+    SchedulerConfig withRebalanceInterval(int rebalanceInterval) {
+        return with(builder -> builder.rebalanceInterval = rebalanceInterval);
+    }
+
+    SchedulerConfig withAffinity(boolean affinity) {
+        return with(builder -> builder.affinity = affinity);
+    }
+
+    SchedulerConfig withTargetLatency(int targetLatency) {
+        return with(builder -> builder.targetLatency = targetLatency);
+    }
+
+    SchedulerConfig withMinGranularity(int minGranularity) {
+        return with(builder -> builder.minGranularity = minGranularity);
+    }
+
+    // One quantum per level, top level first; the array is copied
+    SchedulerConfig withLevelQuanta(int... levelQuanta) {
+        return with(builder -> builder.levelQuanta = levelQuanta.clone());
+    }
+
+    SchedulerConfig withBoostInterval(int boostInterval) {
+        return with(builder -> builder.boostInterval = boostInterval);
+    }
+
+    SchedulerConfig withRefillCost(int refillCost) {
+        return with(builder -> builder.refillCost = refillCost);
+    }
+
+    SchedulerConfig withRefillInterval(int refillInterval) {
+        return with(builder -> builder.refillInterval = refillInterval);
+    }
+
+    SchedulerConfig withMigrationCost(int migrationCost) {
+        return with(builder -> builder.migrationCost = migrationCost);
+    }
+
+    private SchedulerConfig with(Consumer<Builder> change) {
+        Builder builder = new Builder(this);
+        change.accept(builder);
+        return builder.build();
+    }
+
+    // Mutable copy of every field, so each wither changes just one; starts out as DEFAULT
+    private static final class Builder {
+        int quantum = 3, contextSwitchCost, agingInterval, cpus = 1;
+        Queues queues = Queues.GLOBAL;
+        Balancing balancing = Balancing.NONE;
+        int rebalanceInterval = 50;
+        boolean affinity;
+        int targetLatency = 24, minGranularity = 3;
+        int[] levelQuanta = {3, 6, 12};
+        int boostInterval = 100, refillCost, refillInterval = 10, migrationCost;
+
+        Builder() {
+        }
+
+        Builder(SchedulerConfig config) {
+            quantum = config.quantum;
+            contextSwitchCost = config.contextSwitchCost;
+            agingInterval = config.agingInterval;
+            cpus = config.cpus;
+            queues = config.queues;
+            balancing = config.balancing;
+            rebalanceInterval = config.rebalanceInterval;
+            affinity = config.affinity;
+            targetLatency = config.targetLatency;
+            minGranularity = config.minGranularity;
+            levelQuanta = config.levelQuanta;
+            boostInterval = config.boostInterval;
+            refillCost = config.refillCost;
+            refillInterval = config.refillInterval;
+            migrationCost = config.migrationCost;
+        }
+
+        SchedulerConfig build() {
+            return new SchedulerConfig(quantum, contextSwitchCost, agingInterval, cpus, queues, balancing,
+                    rebalanceInterval, affinity, targetLatency, minGranularity, levelQuanta, boostInterval,
+                    refillCost, refillInterval, migrationCost);
+        }
+    }
+
+    // Lists every field, so equal strings mean equal configurations (ResultCache relies on this)
+    @Override
+    public String toString() {
+        return "quantum=" + quantum + " contextSwitchCost=" + contextSwitchCost + " agingInterval=" + agingInterval
+                + " cpus=" + cpus + " queues=" + queues + " balancing=" + balancing
+                + " rebalanceInterval=" + rebalanceInterval + " affinity=" + affinity
+                + " targetLatency=" + targetLatency + " minGranularity=" + minGranularity
+                + " levelQuanta=" + Arrays.toString(levelQuanta) + " boostInterval=" + boostInterval
+                + " refillCost=" + refillCost + " refillInterval=" + refillInterval + " migrationCost=" + migrationCost;
+    }
+
+    // True when the configuration describes more than the classic single shared CPU
+    boolean isMultiCore() {
+        return cpus > 1 || queues == Queues.PER_CORE;
+    }
+}
@@ -0,0 +1,26 @@
+// A CPU scheduling policy that can be run without any GUI attached.
+// Implementations must not keep state between calls to schedule().
+interface SchedulingAlgorithm {
+    String name();
+
+    // Whether the Priority column is meaningful for this algorithm's results
+    default boolean usesPriority() {
+        return false;
+    }
+
+    // Whether the quantum setting changes this algorithm's schedule
+    default boolean usesQuantum() {
+        return false;
+    }
+
+    // Runs the workload to completion, reporting to progress as processes finish. The table's
+    // output columns are filled in, so callers that want to keep their input should pass a copy
+    // (see SchedulingEngine).
+    SimulationResult schedule(ProcessTable processes, SimulationProgress progress);
+
+    // The same policy for EventSimulator, which runs workloads whose processes do I/O between CPU
+    // bursts; null if the algorithm cannot run those
+    default EventPolicy eventPolicy() {
+        return null;
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Registry of the available algorithms and the single entry point used by both the GUI and the CLI
+final class SchedulingEngine {
+    private static final Map<String, Function<SchedulerConfig, SchedulingAlgorithm>> ALGORITHMS = new LinkedHashMap<>();
+
+    static {
+        register("Round Robin", config -> new RoundRobinScheduler(config.quantum, SwitchCosts.of(config)));
+        register("SJF Non-Preemptive", config -> new SJFNonPreemptiveScheduler(SwitchCosts.of(config)));
+        register("Priority Non-Preemptive", config -> new PriorityScheduler(false, config.agingInterval,
+                SwitchCosts.of(config)));
+        register("SJF Preemptive", config -> new SJFPreemptiveScheduler(SwitchCosts.of(config)));
+        register("Priority Preemptive", config -> new PriorityScheduler(true, config.agingInterval,
+                SwitchCosts.of(config)));
+        register("CFS", config -> new CfsScheduler(config.targetLatency, config.minGranularity,
+                SwitchCosts.of(config)));
+        register("MLFQ", config -> new MlfqScheduler(config.levelQuanta(), config.boostInterval,
+                SwitchCosts.of(config)));
+        register("EDF", config -> new EdfScheduler(SwitchCosts.of(config)));
+    }
+
+    private SchedulingEngine() {
+    }
+
+    static void register(String name, Function<SchedulerConfig, SchedulingAlgorithm> factory) {
+        ALGORITHMS.put(name, factory);
+    }
+
+    static String[] algorithmNames() {
+        return ALGORITHMS.keySet().toArray(new String[0]);
+    }
+
+    // The algorithms that can run with the given configuration: on a multi-CPU machine, only
+    // those MultiCoreScheduler has a policy for
+    static String[] algorithmNames(SchedulerConfig config) {
+        List<String> names = new ArrayList<>();
+        for (String name : ALGORITHMS.keySet()) {
+            if (!config.isMultiCore() || MultiCoreScheduler.Policy.find(name) != null) {
+                names.add(name);
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+
+    // Looks an algorithm up by its display name, ignoring case. A multi-CPU configuration runs the
+    // same policy on MultiCoreScheduler instead.
+    static SchedulingAlgorithm forName(String name, SchedulerConfig config) {
+        for (Map.Entry<String, Function<SchedulerConfig, SchedulingAlgorithm>> entry : ALGORITHMS.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                if (config.isMultiCore()) {
+                    return new MultiCoreScheduler(MultiCoreScheduler.Policy.forName(entry.getKey()), config);
+                }
+                return entry.getValue().apply(config);
+            }
+        }
+        throw new IllegalArgumentException("Unknown algorithm: " + name);
+    }
+
+    static SchedulingAlgorithm forName(String name) {
+        return forName(name, SchedulerConfig.DEFAULT);
+    }
+
+    // Runs the algorithm on a fresh copy so the caller's table is left untouched. Workloads with
+    // I/O phases go to the discrete-event simulator, the rest to the algorithm's own engine.
+    static SimulationResult run(SchedulingAlgorithm algorithm, ProcessTable processes, SimulationProgress progress) {
+        if (processes.hasPhases()) {
+            return EventSimulator.run(algorithm, processes.copyInputs(), progress);
+        }
+        return algorithm.schedule(processes.copyInputs(), progress);
+    }
+
+    static SimulationResult run(SchedulingAlgorithm algorithm, ProcessTable processes) {
+        return run(algorithm, processes, SimulationProgress.NONE);
+    }
+
+    static SimulationResult run(String algorithmName, ProcessTable processes) {
+        return run(forName(algorithmName), processes);
+    }
+}
@@ -0,0 +1,147 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+
+// Latency and machine statistics of one run, fed one finished process and one Gantt segment at a
+// time and kept in fixed-size histograms, so the cost does not depend on the workload size.
+//   waiting    = finish - arrival - burst
+//   turnaround = finish - arrival
+//   response   = first dispatch - arrival
+//   slowdown   = turnaround / burst (burst counted as at least 1), in thousandths
+final class SchedulingMetrics {
+    static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final int SLOWDOWN_SCALE = 1000;
+
+    final LatencyHistogram waiting = new LatencyHistogram();
+    final LatencyHistogram turnaround = new LatencyHistogram();
+    final LatencyHistogram response = new LatencyHistogram();
+    final LatencyHistogram slowdown = new LatencyHistogram();
+    long busyTime; // summed over all CPUs
+    long overheadTime; // spent in context switches, summed over all CPUs
+    long makespan;
+    long contextSwitches; // dispatches of a different process than the CPU last ran
+    long deadlines, missedDeadlines; // processes that had a deadline, and those that finished after it
+    int cpus = 1;
+    private long[] lastProcess = {Long.MIN_VALUE};
+
+    void setCpus(int cpus) {
+        this.cpus = cpus;
+        lastProcess = new long[cpus];
+        Arrays.fill(lastProcess, Long.MIN_VALUE);
+    }
+
+    // start is the first dispatch, or negative if the process never ran (zero burst)
+    void processCompleted(long arrival, long burst, long start, long finish) {
+        long turnaroundTime = finish - arrival;
+        waiting.record(turnaroundTime - burst);
+        turnaround.record(turnaroundTime);
+        response.record((start < 0 ? finish : start) - arrival);
+        slowdown.record(turnaroundTime * SLOWDOWN_SCALE / Math.max(burst, 1));
+        makespan = Math.max(makespan, finish);
+    }
+
+    // One Gantt segment on the given CPU; segments of a CPU must come in time order
+    void segment(int cpu, long process, long start, long end) {
+        makespan = Math.max(makespan, end);
+        if (process < 0) {
+            if (process == Timeline.CONTEXT_SWITCH) {
+                overheadTime += end - start;
+            }
+            return;
+        }
+        busyTime += end - start;
+        if (lastProcess[cpu] != process) {
+            if (lastProcess[cpu] != Long.MIN_VALUE) {
+                contextSwitches++;
+            }
+            lastProcess[cpu] = process;
+        }
+    }
+
+    long processes() {
+        return turnaround.count();
+    }
+
+    // Fraction of all CPUs' time over the makespan lost to context switches
+    double overhead() {
+        return makespan == 0 ? 0 : (double) overheadTime / ((double) makespan * cpus);
+    }
+
+    // Busy fraction of all CPUs over the makespan
+    double utilization() {
+        return makespan == 0 ? 0 : (double) busyTime / ((double) makespan * cpus);
+    }
+
+    // Finished processes per time unit
+    double throughput() {
+        return makespan == 0 ? 0 : (double) processes() / makespan;
+    }
+
+    // Independent copy of the statistics so far, for reading on another thread
+    SchedulingMetrics copy() {
+        SchedulingMetrics copy = new SchedulingMetrics();
+        copy.waiting.add(waiting);
+        copy.turnaround.add(turnaround);
+        copy.response.add(response);
+        copy.slowdown.add(slowdown);
+        copy.busyTime = busyTime;
+        copy.overheadTime = overheadTime;
+        copy.makespan = makespan;
+        copy.contextSwitches = contextSwitches;
+        copy.deadlines = deadlines;
+        copy.missedDeadlines = missedDeadlines;
+        copy.cpus = cpus;
+        return copy;
+    }
+
+    // Fills metrics from a finished in-memory run
+    static SchedulingMetrics of(SimulationResult result) {
+        SchedulingMetrics metrics = new SchedulingMetrics();
+        metrics.setCpus(result.lanes.length);
+        ProcessTable p = result.processes;
+        for (int i = 0; i < p.size; i++) {
+            metrics.processCompleted(p.arrival[i], p.burst[i], p.start[i], p.finish[i]);
+            if (p.hasDeadline(i)) {
+                metrics.deadlines++;
+                if (p.finish[i] > p.deadline[i]) {
+                    metrics.missedDeadlines++;
+                }
+            }
+        }
+        for (int c = 0; c < result.lanes.length; c++) {
+            Timeline lane = result.lanes[c];
+            for (int s = 0; s < lane.size; s++) {
+                metrics.segment(c, lane.process[s], lane.start[s], lane.end[s]);
+            }
+        }
+        return metrics;
+    }
+
+    // Percentile table plus the machine-wide figures
+    void print(PrintStream out) {
+        out.printf("%-12s %10s %10s %10s %10s %10s %10s%n", "Metric", "Mean", "p50", "p90", "p99", "p99.9", "Max");
+        printRow(out, "Waiting", waiting, 1);
+        printRow(out, "Turnaround", turnaround, 1);
+        printRow(out, "Response", response, 1);
+        printRow(out, "Slowdown", slowdown, SLOWDOWN_SCALE);
+        out.printf("Utilization: %.1f%%  Throughput: %.4f/unit  Context switches: %d%n",
+                100 * utilization(), throughput(), contextSwitches);
+        if (overheadTime > 0) {
+            out.printf("Switch overhead: %.1f%% of CPU time (%d time units)%n", 100 * overhead(), overheadTime);
+        }
+        if (deadlines > 0) {
+            out.printf("Missed deadlines: %d of %d%n", missedDeadlines, deadlines);
+        }
+    }
+
+    private static void printRow(PrintStream out, String label, LatencyHistogram histogram, int scale) {
+        out.printf("%-12s %10.2f", label, histogram.mean() / scale);
+        for (double fraction : PERCENTILES) {
+            out.printf(" %10s", format(histogram.percentile(fraction), scale));
+        }
+        out.printf(" %10s%n", format(histogram.max(), scale));
+    }
+
+    private static String format(long value, int scale) {
+        return scale == 1 ? String.valueOf(value) : String.format("%.2f", (double) value / scale);
+    }
+}
@@ -0,0 +1,12 @@
+// Receives progress from a running simulation. Implementations may stop the run by throwing
+// java.util.concurrent.CancellationException from update().
+interface SimulationProgress {
+    SimulationProgress NONE = (time, horizon) -> { };
+
+    // Called every few thousand dispatches or completed processes, so runs of a few long processes
+    // report as often as runs of many short ones, and once more when the last process finishes.
+    // time is how far the clock has got and horizon the latest time the run can end without switch
+    // costs (ProcessTable.horizon), so time / horizon estimates the share done; the last call
+    // passes horizon for both.
+    void update(long time, long horizon);
+}
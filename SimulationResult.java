@@ -0,0 +1,124 @@
+// Everything one simulation run produces: per-process stats, the timeline and the aggregates
+class SimulationResult {
+    final String algorithm;
+    final ProcessTable processes; // per-process stats are in the output columns
+    final int[] completionOrder; // process indices in the order they finished
+    int completedCount;
+    final Timeline[] lanes; // one timeline per CPU
+    final Timeline timeline; // the first CPU's lane, the whole chart on a single CPU
+    int migrations; // dispatches on a different CPU than the process last ran on
+    double averageWaitingTime, averageTurnaroundTime;
+    private final SimulationProgress progress;
+    private final long horizon; // of the workload, for progress
+    private int steps; // dispatches and completions, for progress
+    private SchedulingMetrics metrics; // built on first request
+    final EngineCounters counters = EngineCounters.ENABLED ? new EngineCounters() : null;
+
+    SimulationResult(String algorithm, ProcessTable processes, SimulationProgress progress) {
+        this(algorithm, processes, 1, progress);
+    }
+
+    SimulationResult(String algorithm, ProcessTable processes, int cpus, SimulationProgress progress) {
+        this.algorithm = algorithm;
+        lanes = new Timeline[cpus];
+        for (int c = 0; c < cpus; c++) {
+            lanes[c] = new Timeline();
+        }
+        timeline = lanes[0];
+        this.processes = processes;
+        this.completionOrder = new int[processes.size];
+        this.progress = progress;
+        horizon = processes.horizon();
+    }
+
+    // Records that a process got the CPU while `waiting` others stayed in the ready queues
+    void dispatched(int index, int time, int waiting) {
+        processes.dispatched(index, time);
+        if (EngineCounters.ENABLED) {
+            counters.dispatched(waiting);
+        }
+        step(time);
+    }
+
+    // Records that the running process left the CPU with work left
+    void preempted() {
+        if (EngineCounters.ENABLED) {
+            counters.preemptions++;
+        }
+    }
+
+    void ioCompleted() {
+        if (EngineCounters.ENABLED) {
+            counters.ioCompletions++;
+        }
+    }
+
+    // Records that a process finished at finishTime and fills in its waiting time
+    void complete(int index, int finishTime) {
+        processes.finish[index] = finishTime;
+        processes.waiting[index] = finishTime - processes.arrival[index] - processes.burst[index];
+        processes.remaining[index] = 0;
+        completionOrder[completedCount++] = index;
+        if (EngineCounters.ENABLED) {
+            counters.completions++;
+        }
+        if (completedCount == processes.size) {
+            progress.update(horizon, horizon);
+        } else {
+            step(finishTime);
+        }
+    }
+
+    private void step(int time) {
+        if ((++steps & 0xFFF) == 0) {
+            progress.update(time, horizon);
+        }
+    }
+
+    // Computes the averages once every process has been completed
+    void finish() {
+        double totalWaitingTime = 0, totalTurnaroundTime = 0;
+        for (int i = 0; i < processes.size; i++) {
+            totalWaitingTime += processes.waiting[i];
+            totalTurnaroundTime += processes.turnaround(i);
+        }
+        averageWaitingTime = totalWaitingTime / processes.size;
+        averageTurnaroundTime = totalTurnaroundTime / processes.size;
+        if (EngineCounters.ENABLED) {
+            counters.finish(this);
+        }
+    }
+
+    // Percentiles, utilization, throughput and context switches of the finished run
+    SchedulingMetrics metrics() {
+        if (metrics == null) {
+            metrics = SchedulingMetrics.of(this);
+        }
+        return metrics;
+    }
+
+    // Latest end over all CPU lanes
+    int makespan() {
+        int end = 0;
+        for (Timeline lane : lanes) {
+            end = Math.max(end, lane.endTime());
+        }
+        return end;
+    }
+
+    // Fraction of the makespan the given CPU spent running processes
+    double utilization(int cpu) {
+        int makespan = makespan();
+        if (makespan == 0) {
+            return 0;
+        }
+        Timeline lane = lanes[cpu];
+        long busy = 0;
+        for (int s = 0; s < lane.size; s++) {
+            if (lane.process[s] >= 0) {
+                busy += lane.end[s] - lane.start[s];
+            }
+        }
+        return (double) busy / makespan;
+    }
+}
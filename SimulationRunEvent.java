@@ -0,0 +1,79 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JFR event for one finished scheduling run, carrying its EngineCounters. Only runs with counters
+// on produce it, and it is enabled by default, so any recording picks it up:
+//   java -Dscheduler.counters=true -XX:StartFlightRecording=filename=runs.jfr SchedulerCLI ...
+// Without -Dscheduler.counters this class is never loaded.
+@Name("scheduler.SimulationRun")
+@Label("Simulation Run")
+@Category("CPU Scheduling Simulator")
+@Description("One scheduling engine run and what it did")
+@StackTrace(false)
+class SimulationRunEvent extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Processes")
+    int processes;
+
+    @Label("Events")
+    long events;
+
+    @Label("Admitted")
+    long admitted;
+
+    @Label("Dispatches")
+    long dispatches;
+
+    @Label("Preemptions")
+    long preemptions;
+
+    @Label("Completions")
+    long completions;
+
+    @Label("I/O Completions")
+    long ioCompletions;
+
+    @Label("Gantt Segments")
+    long segments;
+
+    @Label("Queue High-Water Mark")
+    int queueHighWater;
+
+    @Label("Simulated Time")
+    long simulatedTime;
+
+    @Label("Simulated Time per Second")
+    double simulatedTimePerSecond;
+
+    @Label("Wall Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long wallTime;
+
+    static void commit(String algorithm, int processes, EngineCounters counters) {
+        SimulationRunEvent event = new SimulationRunEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.algorithm = algorithm;
+        event.processes = processes;
+        event.events = counters.events();
+        event.admitted = counters.admitted;
+        event.dispatches = counters.dispatches;
+        event.preemptions = counters.preemptions;
+        event.completions = counters.completions;
+        event.ioCompletions = counters.ioCompletions;
+        event.segments = counters.segments;
+        event.queueHighWater = counters.queueHighWater;
+        event.simulatedTime = counters.simulatedTime;
+        event.simulatedTimePerSecond = counters.simulatedTimePerSecond();
+        event.wallTime = counters.wallNanos;
+        event.commit();
+    }
+}
@@ -0,0 +1,413 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Local HTTP service for tools that want scheduling results without driving the Swing window:
+//   POST /simulate?algorithm=<name>[&quantum=3&cs=1&cpus=2&balance=steal...]  body: a workload file
+//        -> the result as JSON, in the format of ResultExporter.writeJson
+//   GET  /algorithms -> the algorithm names, one per line
+//   GET  /stats      -> requests, simulations, shared and cached answers, rejections
+// The parameters are the CLI's scheduler options without the dashes; flags like per-core and
+// affinity take no value. The body is CSV as in workload files (I/O phases included) or a binary trace.
+// Each request is handled on its own thread, a virtual thread when the JVM has them. Simulations
+// are CPU-bound, so at most `concurrency` run at once; up to MAX_WAITING_PER_PERMIT times as many
+// wait for their turn and any more are turned away with 503. Requests for a run that is already
+// going (same workload, algorithm and settings, by ResultCache.key) wait for that run's result
+// instead of simulating again, and finished results are answered from the ResultCache.
+// Workloads are parsed before a request queues for a permit, so their size is capped instead: a
+// body over MAX_BODY_BYTES is refused with 413, by its Content-Length or as soon as it has sent
+// that much, which bounds the memory every request can take while it is parsed.
+// The server only listens on the loopback interface.
+final class SimulationService {
+    static final int MAX_WAITING_PER_PERMIT = 16;
+    static final long MAX_BODY_BYTES = 64L << 20;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final long maxBodyBytes;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ConcurrentHashMap<String, CompletableFuture<SimulationResult>> running = new ConcurrentHashMap<>();
+    private final ResultCache cache; // results are shared between requests and never modified
+    private final LongAdder requests = new LongAdder(), simulations = new LongAdder(), shared = new LongAdder(),
+            rejected = new LongAdder();
+
+    // Port 0 picks a free port; see port()
+    SimulationService(int port, int concurrency, ResultCache cache) throws IOException {
+        this(port, concurrency, MAX_WAITING_PER_PERMIT * concurrency, MAX_BODY_BYTES, cache);
+    }
+
+    SimulationService(int port, int concurrency, int maxWaiting, long maxBodyBytes, ResultCache cache)
+            throws IOException {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        if (maxWaiting < 0 || maxBodyBytes <= 0) {
+            throw new IllegalArgumentException("The waiting limit must not be negative and the body limit must be positive");
+        }
+        this.concurrency = concurrency;
+        this.permits = new Semaphore(concurrency, true);
+        this.maxWaiting = maxWaiting;
+        this.maxBodyBytes = maxBodyBytes;
+        this.cache = cache;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/simulate", this::simulate);
+        server.createContext("/algorithms", this::algorithms);
+        server.createContext("/stats", this::stats);
+    }
+
+    // A new virtual thread per request on JVMs that have them, otherwise a growing pool of daemon threads
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "simulation-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    void start() {
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void simulate(HttpExchange exchange) throws IOException {
+        try {
+            requests.increment();
+            if (!exchange.getRequestMethod().equals("POST")) {
+                send(exchange, 405, "POST the workload to /simulate?algorithm=<name>\n");
+                return;
+            }
+            SchedulerConfig config;
+            SchedulingAlgorithm algorithm;
+            ProcessTable workload;
+            try {
+                Map<String, String> params = query(exchange.getRequestURI().getRawQuery());
+                config = config(params);
+                String name = params.get("algorithm");
+                if (name == null || name.isEmpty()) {
+                    throw new IllegalArgumentException("Missing algorithm parameter");
+                }
+                algorithm = SchedulingEngine.forName(name, config);
+                String length = exchange.getRequestHeaders().getFirst("Content-Length");
+                if (length != null && Long.parseLong(length.trim()) > maxBodyBytes) {
+                    throw new BodyTooLarge(maxBodyBytes);
+                }
+                workload = TraceReader.readAll(new LimitedBody(exchange.getRequestBody(), maxBodyBytes),
+                        "request body");
+                if (workload.size == 0) {
+                    throw new IllegalArgumentException("The workload has no processes");
+                }
+            } catch (BodyTooLarge ex) {
+                send(exchange, 413, ex.getMessage() + "\n");
+                return;
+            } catch (IOException | IllegalArgumentException ex) {
+                send(exchange, 400, ex.getMessage() + "\n");
+                return;
+            }
+
+            SimulationResult result;
+            try {
+                result = result(algorithm, config, workload);
+            } catch (IllegalArgumentException ex) {
+                send(exchange, 400, ex.getMessage() + "\n"); // e.g. I/O phases on more than one CPU
+                return;
+            } catch (RejectedExecutionException ex) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, ex.getMessage() + "\n");
+                return;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                send(exchange, 503, "The service is shutting down\n");
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                ResultExporter.writeJson(result, body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void algorithms(HttpExchange exchange) throws IOException {
+        try {
+            send(exchange, 200, String.join("\n", SchedulingEngine.algorithmNames()) + "\n");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            send(exchange, 200, "{\"requests\":" + requests.sum() + ",\"simulations\":" + simulations.sum()
+                    + ",\"shared\":" + shared.sum() + ",\"cacheHits\":" + cache.hits()
+                    + ",\"rejected\":" + rejected.sum() + ",\"running\":" + (concurrency - permits.availablePermits())
+                    + ",\"waiting\":" + waiting.get() + "}\n");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // The finished result of the run: cached, shared with an identical run in progress, or new
+    private SimulationResult result(SchedulingAlgorithm algorithm, SchedulerConfig config, ProcessTable workload)
+            throws InterruptedException {
+        String key = ResultCache.key(workload, algorithm.name(), config);
+        SimulationResult result = cache.get(key);
+        if (result != null) {
+            return result;
+        }
+        CompletableFuture<SimulationResult> mine = new CompletableFuture<>();
+        CompletableFuture<SimulationResult> other = running.putIfAbsent(key, mine);
+        if (other != null) {
+            shared.increment();
+            return await(other);
+        }
+        try {
+            result = run(algorithm, workload);
+            cache.put(key, result);
+            mine.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            mine.completeExceptionally(ex); // the requests waiting for this run fail the same way
+            throw ex;
+        } finally {
+            running.remove(key, mine);
+        }
+    }
+
+    private static SimulationResult await(CompletableFuture<SimulationResult> run) throws InterruptedException {
+        try {
+            return run.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RejectedExecutionException("The simulation was interrupted");
+        }
+    }
+
+    // Runs the simulation once a permit is free, or throws RejectedExecutionException if too many wait
+    private SimulationResult run(SchedulingAlgorithm algorithm, ProcessTable workload) throws InterruptedException {
+        if (!permits.tryAcquire()) {
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                rejected.increment();
+                throw new RejectedExecutionException("Too many simulations waiting; try again later");
+            }
+            try {
+                permits.acquire();
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        try {
+            simulations.increment();
+            return SchedulingEngine.run(algorithm, workload);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Scheduler settings from the query parameters, named like the CLI options
+    static SchedulerConfig config(Map<String, String> params) {
+        SchedulerConfig config = SchedulerConfig.DEFAULT;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            String value = param.getValue();
+            switch (param.getKey()) {
+                case "algorithm":
+                    break;
+                case "quantum":
+                    config = config.withQuantum(number(param));
+                    break;
+                case "cs":
+                    config = config.withContextSwitchCost(number(param));
+                    break;
+                case "refill":
+                    config = config.withRefillCost(number(param));
+                    break;
+                case "refill-interval":
+                    config = config.withRefillInterval(number(param));
+                    break;
+                case "migration":
+                    config = config.withMigrationCost(number(param));
+                    break;
+                case "aging":
+                    config = config.withAgingInterval(number(param));
+                    break;
+                case "cpus":
+                    config = config.withCpus(number(param));
+                    break;
+                case "per-core":
+                    config = config.withQueues(flag(param) ? SchedulerConfig.Queues.PER_CORE : SchedulerConfig.Queues.GLOBAL);
+                    break;
+                case "balance":
+                    config = config.withBalancing(SchedulerCLI.parseBalancing(value));
+                    break;
+                case "rebalance-interval":
+                    config = config.withRebalanceInterval(number(param));
+                    break;
+                case "affinity":
+                    config = config.withAffinity(flag(param));
+                    break;
+                case "latency":
+                    config = config.withTargetLatency(number(param));
+                    break;
+                case "min-granularity":
+                    config = config.withMinGranularity(number(param));
+                    break;
+                case "mlfq-quanta": {
+                    String[] parts = value.split(",");
+                    int[] quanta = new int[parts.length];
+                    for (int i = 0; i < parts.length; i++) {
+                        quanta[i] = number(param.getKey(), parts[i].trim());
+                    }
+                    config = config.withLevelQuanta(quanta);
+                    break;
+                }
+                case "boost":
+                    config = config.withBoostInterval(number(param));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + param.getKey());
+            }
+        }
+        return config;
+    }
+
+    private static int number(Map.Entry<String, String> param) {
+        return number(param.getKey(), param.getValue());
+    }
+
+    private static int number(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number for " + name + ": " + value);
+        }
+    }
+
+    // A flag given without a value is on
+    private static boolean flag(Map.Entry<String, String> param) {
+        String value = param.getValue();
+        if (value.isEmpty() || value.equals("true")) {
+            return true;
+        }
+        if (value.equals("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid value for " + param.getKey() + ": " + value + " (true or false)");
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static final class BodyTooLarge extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        BodyTooLarge(long maxBytes) {
+            super("The workload is larger than " + maxBytes + " bytes");
+        }
+    }
+
+    // The request body, failing with BodyTooLarge once more than maxBytes have been read
+    private static final class LimitedBody extends FilterInputStream {
+        private final long maxBytes;
+        private long read;
+
+        LimitedBody(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws BodyTooLarge {
+            read += n;
+            if (read > maxBytes) {
+                throw new BodyTooLarge(maxBytes);
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+}
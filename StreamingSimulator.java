@@ -0,0 +1,283 @@
+import java.io.IOException;
+
+// Runs a trace straight from disk, for algorithms that can decide without seeing the whole
+// workload. The trace must be sorted by arrival time. Memory is bounded by the number of
+// processes present at the same time, not by the trace length, so traces far larger than the
+// heap can be simulated. Results and Gantt segments go to a ResultSink as they are produced.
+//
+// Supported: the ReadyRules that never preempt and go by when processes became ready, which are
+// SJF Non-Preemptive (arrival, then burst) and Round Robin.
+final class StreamingSimulator {
+    private final TraceReader trace;
+    private final ResultSink sink;
+    private final Summary summary = new Summary();
+
+    // One record of lookahead from the trace
+    private boolean hasNext;
+    private long nextId;
+    private int nextArrival, nextBurst, nextPriority;
+
+    // Pending Gantt segment, merged with the next one when they continue each other
+    private long segmentProcess = Long.MIN_VALUE, segmentStart, segmentEnd;
+
+    // Totals written once the trace has been consumed
+    static final class Summary {
+        long processes;
+        double totalWaitingTime, totalTurnaroundTime;
+        long makespan;
+        final SchedulingMetrics metrics = new SchedulingMetrics();
+
+        double averageWaitingTime() {
+            return totalWaitingTime / processes;
+        }
+
+        double averageTurnaroundTime() {
+            return totalTurnaroundTime / processes;
+        }
+    }
+
+    private StreamingSimulator(TraceReader trace, ResultSink sink) {
+        this.trace = trace;
+        this.sink = sink;
+    }
+
+    static boolean supports(String algorithmName) {
+        return supports(ReadyRule.forName(algorithmName, SchedulerConfig.DEFAULT));
+    }
+
+    private static boolean supports(ReadyRule rule) {
+        return rule != null && !rule.preemptive
+                && (rule.order == ReadyRule.Order.FIFO || rule.order == ReadyRule.Order.READY_TIME);
+    }
+
+    static Summary run(String algorithmName, SchedulerConfig config, TraceReader trace, ResultSink sink)
+            throws IOException {
+        ReadyRule rule = ReadyRule.forName(algorithmName, config);
+        if (!supports(rule)) {
+            throw new IllegalArgumentException(algorithmName + " cannot be run in streaming mode");
+        }
+        StreamingSimulator simulator = new StreamingSimulator(trace, sink);
+        simulator.advance();
+        if (rule.order == ReadyRule.Order.FIFO) {
+            simulator.roundRobin(rule.slice, config.contextSwitchCost);
+        } else {
+            simulator.sjfNonPreemptive();
+        }
+        simulator.flushSegment();
+        return simulator.summary;
+    }
+
+    private void sjfNonPreemptive() throws IOException {
+        ProcessWindow group = new ProcessWindow(); // processes sharing one arrival time
+        long currentTime = 0;
+        while (hasNext) {
+            int arrival = nextArrival;
+            while (hasNext && nextArrival == arrival) {
+                group.add(nextId, nextArrival, nextBurst, nextPriority);
+                advance();
+            }
+            // Equal arrivals run shortest burst first; ties keep trace order
+            int[] order = IndexSort.byKey(group.bursts(), group.size());
+            if (currentTime < arrival) {
+                segment(Timeline.IDLE, currentTime, arrival);
+                currentTime = arrival;
+            }
+            for (int slot : order) {
+                long start = currentTime;
+                currentTime += group.burst[slot];
+                segment(group.id[slot], start, currentTime);
+                complete(group.id[slot], group.arrival[slot], group.burst[slot], group.priority[slot], start, currentTime);
+            }
+            group.clear();
+        }
+    }
+
+    private void roundRobin(int quantum, int contextSwitchCost) throws IOException {
+        ProcessWindow readyQueue = new ProcessWindow();
+        long currentTime = 0;
+        long lastRun = -1;
+        while (hasNext || !readyQueue.isEmpty()) {
+            // Add processes that have arrived by the current time
+            while (hasNext && nextArrival <= currentTime) {
+                readyQueue.add(nextId, nextArrival, nextBurst, nextPriority);
+                advance();
+            }
+            if (readyQueue.isEmpty()) {
+                segment(Timeline.IDLE, currentTime, nextArrival);
+                currentTime = nextArrival;
+                continue;
+            }
+
+            int slot = readyQueue.head();
+            long id = readyQueue.id[slot];
+            if (contextSwitchCost > 0 && lastRun >= 0 && lastRun != id) {
+                segment(Timeline.CONTEXT_SWITCH, currentTime, currentTime + contextSwitchCost);
+                currentTime += contextSwitchCost;
+            }
+            lastRun = id;
+            if (readyQueue.start[slot] < 0) {
+                readyQueue.start[slot] = currentTime;
+            }
+            int executeTime = Math.min(readyQueue.remaining[slot], quantum);
+            segment(id, currentTime, currentTime + executeTime);
+            currentTime += executeTime;
+            readyQueue.remaining[slot] -= executeTime;
+
+            if (readyQueue.remaining[slot] == 0) {
+                complete(id, readyQueue.arrival[slot], readyQueue.burst[slot], readyQueue.priority[slot],
+                        readyQueue.start[slot], currentTime);
+                readyQueue.removeHead();
+            } else {
+                // New arrivals during the slice queue up ahead of the preempted process
+                while (hasNext && nextArrival <= currentTime) {
+                    readyQueue.add(nextId, nextArrival, nextBurst, nextPriority);
+                    advance();
+                }
+                readyQueue.rotateHead();
+            }
+        }
+    }
+
+    // Reads the next trace record into the lookahead, checking arrival order
+    private void advance() throws IOException {
+        int previousArrival = nextArrival;
+        hasNext = trace.next();
+        if (!hasNext) {
+            return;
+        }
+        nextId = trace.records() - 1;
+        nextArrival = trace.arrival;
+        nextBurst = trace.burst;
+        nextPriority = trace.priority;
+        if (nextArrival < 0 || nextBurst < 0) {
+            throw new IOException("Record " + nextId + ": arrival and burst times must not be negative");
+        }
+        if (nextId > 0 && nextArrival < previousArrival) {
+            throw new IOException("Record " + nextId + ": streaming mode needs a trace sorted by arrival time");
+        }
+    }
+
+    private void complete(long id, int arrival, int burst, int priority, long start, long finish) throws IOException {
+        sink.processCompleted(id, arrival, burst, priority, start, finish);
+        summary.processes++;
+        summary.totalWaitingTime += finish - arrival - burst;
+        summary.totalTurnaroundTime += finish - arrival;
+        summary.makespan = Math.max(summary.makespan, finish);
+        summary.metrics.processCompleted(arrival, burst, start, finish);
+    }
+
+    private void segment(long process, long start, long end) throws IOException {
+        if (end <= start) {
+            return;
+        }
+        if (process == segmentProcess && start == segmentEnd) {
+            segmentEnd = end;
+            return;
+        }
+        flushSegment();
+        segmentProcess = process;
+        segmentStart = start;
+        segmentEnd = end;
+    }
+
+    private void flushSegment() throws IOException {
+        if (segmentProcess != Long.MIN_VALUE) {
+            sink.segment(segmentProcess, segmentStart, segmentEnd);
+            summary.metrics.segment(0, segmentProcess, segmentStart, segmentEnd);
+            segmentProcess = Long.MIN_VALUE;
+        }
+    }
+
+    // Growable circular buffer holding the processes currently in the system, as parallel arrays
+    private static final class ProcessWindow {
+        long[] id = new long[16];
+        int[] arrival = new int[16], burst = new int[16], priority = new int[16], remaining = new int[16];
+        long[] start = new long[16];
+        private int head, size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        void add(long processId, int arrivalTime, int burstTime, int priorityValue) {
+            if (size == id.length) {
+                grow();
+            }
+            int slot = slot(size++);
+            id[slot] = processId;
+            arrival[slot] = arrivalTime;
+            burst[slot] = burstTime;
+            priority[slot] = priorityValue;
+            remaining[slot] = burstTime;
+            start[slot] = -1;
+        }
+
+        int head() {
+            return head;
+        }
+
+        void removeHead() {
+            head = slot(1);
+            size--;
+        }
+
+        // Moves the head entry to the tail, as a preempted process re-entering the queue
+        void rotateHead() {
+            int from = head;
+            removeHead();
+            int to = slot(size++);
+            id[to] = id[from];
+            arrival[to] = arrival[from];
+            burst[to] = burst[from];
+            priority[to] = priority[from];
+            remaining[to] = remaining[from];
+            start[to] = start[from];
+        }
+
+        // Burst times in queue order (only used on groups that start at slot 0)
+        int[] bursts() {
+            return burst;
+        }
+
+        private int slot(int offset) {
+            int slot = head + offset;
+            return slot >= id.length ? slot - id.length : slot;
+        }
+
+        private void grow() {
+            int capacity = id.length * 2;
+            id = unwrap(id, capacity);
+            arrival = unwrap(arrival, capacity);
+            burst = unwrap(burst, capacity);
+            priority = unwrap(priority, capacity);
+            remaining = unwrap(remaining, capacity);
+            start = unwrap(start, capacity);
+            head = 0;
+        }
+
+        private long[] unwrap(long[] values, int capacity) {
+            long[] copy = new long[capacity];
+            int firstPart = Math.min(size, values.length - head);
+            System.arraycopy(values, head, copy, 0, firstPart);
+            System.arraycopy(values, 0, copy, firstPart, size - firstPart);
+            return copy;
+        }
+
+        private int[] unwrap(int[] values, int capacity) {
+            int[] copy = new int[capacity];
+            int firstPart = Math.min(size, values.length - head);
+            System.arraycopy(values, head, copy, 0, firstPart);
+            System.arraycopy(values, 0, copy, firstPart, size - firstPart);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.Arrays;
+
+// What a context switch costs, charged as a CONTEXT_SWITCH segment before the new process runs:
+//   dispatch  - a fixed cost for every switch to a different process (--cs)
+//   refill    - the process's working set has to be brought back into the cache: one time unit
+//               per refillInterval units it spent off the CPU, up to refillCost. A process that
+//               never ran, or that moves to another CPU, refills completely.
+//   migration - an extra cost when the process last ran on another CPU
+// The first dispatch on a CPU that never ran anything is free (unless the process migrates), and
+// so is a process carrying on where it left off. All costs 0 (NONE) makes switching free.
+final class SwitchCosts {
+    static final SwitchCosts NONE = new SwitchCosts(0, 0, 1, 0);
+
+    final int dispatch, refill, refillInterval, migration;
+
+    SwitchCosts(int dispatch, int refill, int refillInterval, int migration) {
+        if (dispatch < 0 || refill < 0 || migration < 0) {
+            throw new IllegalArgumentException("Context switch costs must not be negative");
+        }
+        if (refillInterval <= 0) {
+            throw new IllegalArgumentException("Refill interval must be positive");
+        }
+        this.dispatch = dispatch;
+        this.refill = refill;
+        this.refillInterval = refillInterval;
+        this.migration = migration;
+    }
+
+    static SwitchCosts of(SchedulerConfig config) {
+        return new SwitchCosts(config.contextSwitchCost, config.refillCost, config.refillInterval, config.migrationCost);
+    }
+
+    // Per-run state, for a run of the given workload
+    Tracker track(ProcessTable processes) {
+        return new Tracker(processes);
+    }
+
+    // When each process last left a CPU, for the refill cost, and how much the run has spent on
+    // switches. Times are ints, so every switch charged is checked against the workload's horizon:
+    // as long as horizon plus the costs so far fit, no time the engines compute can overflow. With
+    // several CPUs the costs on all of them count, which errs on the safe side.
+    final class Tracker {
+        private final int[] lastStop; // -1 before the first run; null when refills are free
+        private final long horizon;
+        private long overhead;
+
+        private Tracker(ProcessTable processes) {
+            horizon = processes.horizon();
+            if (refill > 0) {
+                lastStop = new int[processes.size];
+                Arrays.fill(lastStop, -1);
+            } else {
+                lastStop = null;
+            }
+        }
+
+        // The process left the CPU with work left at time now, having run since then. A process
+        // taken off again before it got to run leaves its cache as it was; the timeline has no
+        // segment for it either, which keeps resume() exact.
+        void stopped(int process, int since, int now) {
+            if (lastStop != null && now > since) {
+                lastStop[process] = now;
+            }
+        }
+
+        // Picks up the stops and switches of a run resumed from a checkpoint, from its single-CPU
+        // timeline so far
+        void resume(Timeline timeline) {
+            for (int s = 0; s < timeline.size; s++) {
+                if (timeline.process[s] >= 0 && lastStop != null) {
+                    lastStop[timeline.process[s]] = timeline.end[s];
+                } else if (timeline.process[s] == Timeline.CONTEXT_SWITCH) {
+                    overhead += timeline.end[s] - timeline.start[s];
+                }
+            }
+        }
+
+        // Overhead of dispatching process at time now on a CPU that last ran previous (-1 for
+        // none); migrated when the process last ran on another CPU
+        int cost(int previous, int process, int now, boolean migrated) {
+            if (!migrated && (previous < 0 || previous == process)) {
+                return 0;
+            }
+            long cost = dispatch;
+            if (migrated) {
+                cost += (long) migration + refill;
+            } else if (lastStop != null) {
+                int stop = lastStop[process];
+                cost += stop < 0 ? refill : Math.min(refill, (now - stop) / refillInterval);
+            }
+            overhead += cost;
+            if (horizon + overhead > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Simulation time is out of range: the workload and its context"
+                        + " switches take longer than " + Integer.MAX_VALUE + " time units");
+            }
+            return (int) cost;
+        }
+
+        // Adds the switch from previous to process on a single CPU's lane, if it costs anything,
+        // and returns the time it is over
+        int charge(Timeline lane, int previous, int process, int now) {
+            int cost = cost(previous, process, now, false);
+            if (cost == 0) {
+                return now;
+            }
+            long end = (long) now + cost;
+            if (end > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Simulation time is out of range");
+            }
+            lane.add(Timeline.CONTEXT_SWITCH, now, (int) end);
+            return (int) end;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.Arrays;
+
+// Gantt chart data as parallel int arrays of (process index, start, end), in time order.
+// Negative process values mark non-process segments. A segment that continues the previous
+// one (same process, starts where it ended) is merged into it on append.
+final class Timeline {
+    static final int IDLE = -1;
+    static final int CONTEXT_SWITCH = -2;
+
+    int size;
+    int[] process, start, end;
+
+    Timeline() {
+        this(16);
+    }
+
+    Timeline(int capacity) {
+        capacity = Math.max(capacity, 4);
+        process = new int[capacity];
+        start = new int[capacity];
+        end = new int[capacity];
+    }
+
+    void add(int processIndex, int from, int to) {
+        if (to <= from) {
+            return;
+        }
+        if (size > 0 && process[size - 1] == processIndex && end[size - 1] == from) {
+            end[size - 1] = to;
+            return;
+        }
+        if (size == process.length) {
+            int capacity = size * 2;
+            process = Arrays.copyOf(process, capacity);
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+        }
+        process[size] = processIndex;
+        start[size] = from;
+        end[size] = to;
+        size++;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    // Replaces the contents with the first segments of other, the last of them ending at lastEnd
+    // (later appends may have extended it in other)
+    void copyPrefix(Timeline other, int segments, int lastEnd) {
+        int capacity = Math.max(segments * 2, 16);
+        process = Arrays.copyOf(other.process, capacity);
+        start = Arrays.copyOf(other.start, capacity);
+        end = Arrays.copyOf(other.end, capacity);
+        size = segments;
+        if (segments > 0) {
+            end[segments - 1] = lastEnd;
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // End of the last segment, or 0 when empty
+    int endTime() {
+        return size == 0 ? 0 : end[size - 1];
+    }
+
+    static String label(int processIndex) {
+        switch (processIndex) {
+            case IDLE:
+                return "Idle";
+            case CONTEXT_SWITCH:
+                return "CS";
+            default:
+                return ProcessTable.name(processIndex);
+        }
+    }
+
+    // "label:start-end" form of one segment, as used by the text reports
+    String describe(int segment) {
+        return label(process[segment]) + ":" + start[segment] + "-" + end[segment];
+    }
+}
@@ -0,0 +1,295 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Streams a workload trace from disk one process at a time, in file order.
+// Two formats are accepted and told apart by the first four bytes:
+//   CSV    - "arrival,burst[,priority[,deadline]]" per line, blank lines and '#' comments ignored.
+//            A process that does I/O gives its burst as CPU and I/O phases in turn, each I/O phase
+//            with an optional device number (default 0): "4/10@1/3" is 4 on the CPU, 10 on
+//            device 1, then 3 on the CPU. Only readAll accepts these.
+//   binary - the MAGIC header, a version int, then (arrival, burst, priority, deadline) as big-endian
+//            ints; version 1 files have no deadline int
+// Both are read through a channel into one direct buffer and parsed byte by byte, so no
+// String is built per line and memory use does not depend on the file size.
+final class TraceReader implements Closeable {
+    static final int MAGIC = 0x43505554; // "CPUT"
+    static final int VERSION = 2;
+    static final int RECORD_BYTES = 16;
+    private static final int V1_RECORD_BYTES = 12;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final String source;
+    private final boolean binary;
+    private final int recordBytes;
+    private boolean eof;
+    private long line = 1; // current CSV line, for error messages
+    private long records;
+
+    // Fields of the record read by the last successful next()
+    int arrival, burst, priority;
+    int deadline; // ProcessTable.NO_DEADLINE when the record has none
+    // Phases of the record when phaseCount > 1 (burst is then the first CPU burst)
+    private int[] phases = new int[8], devices = new int[4];
+    private int phaseCount;
+    private boolean phasesAllowed;
+
+    private TraceReader(ReadableByteChannel channel, String source) throws IOException {
+        this.channel = channel;
+        this.source = source;
+        buffer.limit(0);
+        binary = fill(8) && buffer.getInt(buffer.position()) == MAGIC;
+        if (binary) {
+            buffer.getInt();
+            int version = buffer.getInt();
+            if (version != VERSION && version != 1) {
+                throw new IOException(source + ": unsupported trace version " + version);
+            }
+            recordBytes = version == 1 ? V1_RECORD_BYTES : RECORD_BYTES;
+        } else {
+            recordBytes = 0;
+        }
+    }
+
+    static TraceReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new TraceReader(channel, path.toString());
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    // Reads a whole trace into a ProcessTable
+    static ProcessTable readAll(Path path) throws IOException {
+        try (TraceReader reader = open(path)) {
+            return reader.readAll(((FileChannel) reader.channel).size());
+        }
+    }
+
+    // Reads a whole trace from a stream, such as a request body, and closes it; source names the
+    // stream in error messages
+    static ProcessTable readAll(InputStream in, String source) throws IOException {
+        try (TraceReader reader = new TraceReader(Channels.newChannel(in), source)) {
+            return reader.readAll(0);
+        }
+    }
+
+    // The remaining records, given the trace's size in bytes (0 if unknown) to size the table
+    private ProcessTable readAll(long size) throws IOException {
+        phasesAllowed = true;
+        int estimate = size == 0 ? 1024 : (int) Math.min(Integer.MAX_VALUE - 8, binary ? size / recordBytes : size / 8);
+        ProcessTable processes = new ProcessTable(Math.min(estimate, 1 << 20));
+        while (next()) {
+            try {
+                if (phaseCount > 1) {
+                    processes.add(arrival, Arrays.copyOf(phases, phaseCount), Arrays.copyOf(devices, phaseCount / 2),
+                            priority, deadline);
+                } else {
+                    processes.add(arrival, burst, priority, deadline);
+                }
+            } catch (IllegalArgumentException ex) {
+                throw new IOException(source + ": record " + records + ": " + ex.getMessage(), ex);
+            }
+        }
+        return processes;
+    }
+
+    boolean isBinary() {
+        return binary;
+    }
+
+    // Number of records read so far
+    long records() {
+        return records;
+    }
+
+    // Advances to the next record; false at the end of the trace
+    boolean next() throws IOException {
+        boolean found = binary ? nextBinary() : nextCsv();
+        if (found) {
+            records++;
+        }
+        return found;
+    }
+
+    private boolean nextBinary() throws IOException {
+        if (!fill(recordBytes)) {
+            if (buffer.hasRemaining()) {
+                throw new IOException(source + ": truncated record after " + records + " records");
+            }
+            return false;
+        }
+        arrival = buffer.getInt();
+        burst = buffer.getInt();
+        priority = buffer.getInt();
+        deadline = recordBytes == V1_RECORD_BYTES ? ProcessTable.NO_DEADLINE : buffer.getInt();
+        return true;
+    }
+
+    private boolean nextCsv() throws IOException {
+        int c = skipBlankAndComments();
+        if (c < 0) {
+            return false;
+        }
+        arrival = parseInt(c);
+        expectComma();
+        burst = parseInt(read());
+        phaseCount = 1;
+        if (peek() == '/') {
+            parsePhases();
+        }
+        c = skipSpaces(read());
+        priority = 0;
+        deadline = ProcessTable.NO_DEADLINE;
+        if (c == ',') {
+            priority = parseInt(read());
+            c = skipSpaces(read());
+            if (c == ',') {
+                deadline = parseInt(read());
+                c = skipSpaces(read());
+            }
+        }
+        if (c == '\r') {
+            c = read();
+        }
+        if (c != '\n' && c >= 0) {
+            throw error("expected arrival,burst[,priority[,deadline]]");
+        }
+        line++;
+        return true;
+    }
+
+    // Reads the "/io[@device]/cpu" pairs after the first CPU burst
+    private void parsePhases() throws IOException {
+        if (!phasesAllowed) {
+            throw error("I/O phases are only supported in workloads read as a whole, not streamed or converted");
+        }
+        phases[0] = burst;
+        while (peek() == '/') {
+            read();
+            if (phaseCount + 2 > phases.length) {
+                phases = Arrays.copyOf(phases, phases.length * 2);
+                devices = Arrays.copyOf(devices, phases.length / 2);
+            }
+            phases[phaseCount] = parseInt(read());
+            devices[phaseCount / 2] = 0;
+            if (peek() == '@') {
+                read();
+                devices[phaseCount / 2] = parseInt(read());
+            }
+            if (read() != '/') {
+                throw error("an I/O phase must be followed by a CPU burst");
+            }
+            phases[phaseCount + 1] = parseInt(read());
+            phaseCount += 2;
+        }
+    }
+
+    // Skips empty lines, whitespace and comment lines; returns the first byte of a record or -1
+    private int skipBlankAndComments() throws IOException {
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                return -1;
+            } else if (c == '\n') {
+                line++;
+            } else if (c == '#') {
+                while (c >= 0 && c != '\n') {
+                    c = read();
+                }
+                if (c < 0) {
+                    return -1;
+                }
+                line++;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return c;
+            }
+        }
+    }
+
+    private void expectComma() throws IOException {
+        if (skipSpaces(read()) != ',') {
+            throw error("expected arrival,burst[,priority[,deadline]]");
+        }
+    }
+
+    private int skipSpaces(int c) throws IOException {
+        while (c == ' ' || c == '\t') {
+            c = read();
+        }
+        return c;
+    }
+
+    // Parses an optionally signed decimal int starting at byte c; the byte after it is left unread
+    private int parseInt(int c) throws IOException {
+        c = skipSpaces(c);
+        boolean negative = c == '-';
+        if (negative) {
+            c = read();
+        }
+        if (c < '0' || c > '9') {
+            throw error("invalid number");
+        }
+        long value = c - '0';
+        for (int d = peek(); d >= '0' && d <= '9'; d = peek()) {
+            read();
+            value = value * 10 + (d - '0');
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw error("number out of range");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw error("number out of range");
+        }
+        return (int) value;
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill(1)) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill(1)) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    // Makes sure at least n bytes are buffered; false if the file ends first
+    private boolean fill(int n) throws IOException {
+        while (buffer.remaining() < n && !eof) {
+            buffer.compact();
+            int read = channel.read(buffer);
+            buffer.flip();
+            if (read < 0) {
+                eof = true;
+            }
+        }
+        return buffer.remaining() >= n;
+    }
+
+    private IOException error(String message) {
+        String where = binary ? "record " + (records + 1) : "line " + line;
+        return new IOException(source + ": " + where + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
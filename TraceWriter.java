@@ -0,0 +1,52 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes the binary trace format read by TraceReader
+final class TraceWriter implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+    TraceWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(TraceReader.MAGIC).putInt(TraceReader.VERSION);
+    }
+
+    void write(int arrival, int burst, int priority, int deadline) throws IOException {
+        if (buffer.remaining() < TraceReader.RECORD_BYTES) {
+            flush();
+        }
+        buffer.putInt(arrival).putInt(burst).putInt(priority).putInt(deadline);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Converts any trace TraceReader understands (normally CSV) to the binary format
+    static long convert(Path input, Path output) throws IOException {
+        try (TraceReader reader = TraceReader.open(input); TraceWriter writer = new TraceWriter(output)) {
+            while (reader.next()) {
+                writer.write(reader.arrival, reader.burst, reader.priority, reader.deadline);
+            }
+            return reader.records();
+        }
+    }
+}
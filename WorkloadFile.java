@@ -0,0 +1,20 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Reads workload files: one process per line as "arrival,burst[,priority[,deadline]]", where the
+// burst of a process that does I/O lists its phases, as in "4/10@1/3" (see TraceReader).
+// Blank lines and lines starting with '#' are ignored; processes are numbered in file order.
+// Binary traces written by TraceWriter are accepted as well.
+final class WorkloadFile {
+    private WorkloadFile() {
+    }
+
+    // A file without a single process is an error rather than a run with nothing to average
+    static ProcessTable read(Path path) throws IOException {
+        ProcessTable processes = TraceReader.readAll(path);
+        if (processes.size == 0) {
+            throw new IOException("The workload has no processes: " + path);
+        }
+        return processes;
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.SplittableRandom;
+
+// Seeded synthetic workloads for benchmarks and experiments. The same (size, shape, seed) always
+// gives the same ProcessTable. Bursts have a mean of about MEAN_BURST time units; arrivals are
+// spaced so the offered load is roughly LOAD. Optionally a share of the processes is I/O-bound:
+// the same CPU time split into several short bursts with I/O on random devices in between.
+final class WorkloadGenerator {
+    static final int MEAN_BURST = 10;
+    static final double LOAD = 0.9;
+    private static final int MAX_BURST = 10_000;
+    static final int MAX_PRIORITY = 10;
+    static final int MEAN_IO = 2 * MEAN_BURST; // of one I/O phase
+    private static final int MAX_CPU_BURSTS = 8; // of an I/O-bound process
+
+    enum Bursts {
+        UNIFORM, // 1 .. 2*MEAN_BURST-1
+        EXPONENTIAL, // many short jobs, a few long ones
+        HEAVY_TAILED // Pareto with alpha 1.5: a handful of jobs dominate the total work
+    }
+
+    enum Arrivals {
+        SPARSE, // Poisson arrivals
+        BURSTY // groups of up to 64 processes arriving together, with long gaps in between
+    }
+
+    private WorkloadGenerator() {
+    }
+
+    static ProcessTable generate(int size, Bursts bursts, Arrivals arrivals, long seed) {
+        return generate(size, bursts, arrivals, LOAD, null, new SplittableRandom(seed));
+    }
+
+    // The same at the given offered load, with priority p drawn in proportion to priorityWeights[p]
+    // (uniformly from 0 to MAX_PRIORITY-1 when null), using up values from random
+    static ProcessTable generate(int size, Bursts bursts, Arrivals arrivals, double load, double[] priorityWeights,
+                                 SplittableRandom random) {
+        return generate(size, bursts, arrivals, load, priorityWeights, 0, 1, random);
+    }
+
+    // The same with each process I/O-bound with probability ioBound, doing its I/O on devices
+    // 0 to devices-1. With ioBound 0 this draws exactly the same workload as without it.
+    static ProcessTable generate(int size, Bursts bursts, Arrivals arrivals, double load, double[] priorityWeights,
+                                 double ioBound, int devices, SplittableRandom random) {
+        if (!(load > 0)) {
+            throw new IllegalArgumentException("Load must be positive");
+        }
+        if (!(ioBound >= 0 && ioBound <= 1)) {
+            throw new IllegalArgumentException("The I/O-bound share must be between 0 and 1");
+        }
+        if (devices < 1) {
+            throw new IllegalArgumentException("There must be at least one device");
+        }
+        double[] cumulative = priorityWeights == null ? null : cumulative(priorityWeights);
+        ProcessTable processes = new ProcessTable(size);
+        double meanGap = MEAN_BURST / load; // between arrivals, for the requested load
+        double time = 0;
+        int groupLeft = 0;
+        for (int i = 0; i < size; i++) {
+            if (arrivals == Arrivals.SPARSE) {
+                time += exponential(random, meanGap);
+            } else if (groupLeft-- == 0) {
+                groupLeft = random.nextInt(64);
+                time += exponential(random, meanGap * (groupLeft + 1));
+            }
+            int priority = cumulative == null ? random.nextInt(MAX_PRIORITY) : pick(random, cumulative);
+            int burst = burst(random, bursts);
+            if (ioBound > 0 && random.nextDouble() < ioBound && burst > 1) {
+                addIoBound(processes, (int) time, burst, priority, devices, random);
+            } else {
+                processes.add((int) time, burst, priority);
+            }
+        }
+        return processes;
+    }
+
+    // Splits the CPU time into 2 to MAX_CPU_BURSTS bursts with exponential I/O phases between them
+    private static void addIoBound(ProcessTable processes, int arrival, int cpuTime, int priority, int devices,
+                                   SplittableRandom random) {
+        int cpuBursts = Math.min(cpuTime, 2 + random.nextInt(MAX_CPU_BURSTS - 1));
+        int[] phases = new int[2 * cpuBursts - 1];
+        int[] deviceOf = new int[cpuBursts - 1];
+        int left = cpuTime;
+        for (int k = 0; k < cpuBursts; k++) {
+            // An even share of what is left, give or take half, and at least 1 for each burst to come
+            int share = left / (cpuBursts - k);
+            int length = k == cpuBursts - 1 ? left
+                    : Math.max(1, Math.min(left - (cpuBursts - k - 1), share / 2 + random.nextInt(share + 1)));
+            phases[2 * k] = length;
+            left -= length;
+            if (k < cpuBursts - 1) {
+                phases[2 * k + 1] = (int) Math.min(MAX_BURST, Math.max(1, Math.round(exponential(random, MEAN_IO))));
+                deviceOf[k] = random.nextInt(devices);
+            }
+        }
+        processes.add(arrival, phases, deviceOf, priority, ProcessTable.NO_DEADLINE);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int p = 0; p < weights.length; p++) {
+            if (!(weights[p] >= 0) || Double.isInfinite(weights[p])) {
+                throw new IllegalArgumentException("Priority weights must be finite and not negative");
+            }
+            total += weights[p];
+            cumulative[p] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one priority weight must be positive");
+        }
+        return cumulative;
+    }
+
+    // Index of the first cumulative weight above a uniform draw below the total
+    private static int pick(SplittableRandom random, double[] cumulative) {
+        double draw = random.nextDouble() * cumulative[cumulative.length - 1];
+        int p = 0;
+        while (p < cumulative.length - 1 && cumulative[p] <= draw) {
+            p++;
+        }
+        return p;
+    }
+
+    static int burst(SplittableRandom random, Bursts bursts) {
+        double value;
+        switch (bursts) {
+            case UNIFORM:
+                return 1 + random.nextInt(2 * MEAN_BURST - 1);
+            case EXPONENTIAL:
+                value = exponential(random, MEAN_BURST);
+                break;
+            default:
+                // Pareto(xm, 1.5) has mean 3 * xm
+                value = (MEAN_BURST / 3.0) / Math.pow(1 - random.nextDouble(), 1 / 1.5);
+                break;
+        }
+        return (int) Math.min(MAX_BURST, Math.max(1, Math.round(value)));
+    }
+
+    static double exponential(SplittableRandom random, double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+}
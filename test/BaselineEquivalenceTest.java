@@ -0,0 +1,176 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+// The engines against the original calculate* methods of CPUSchedulingSimulator, ported here
+// unchanged in behaviour: unit-by-unit loops over lists, with the same tie rules. Bursts are at
+// least 1, since the originals never finished a process with no burst.
+class BaselineEquivalenceTest {
+    private static final int QUANTUM = 3;
+
+    // What a baseline run produces: each process's finish time and who ran in each time unit
+    private static final class Reference {
+        final int[] finish;
+        final List<Integer> units = new ArrayList<>();
+
+        Reference(int n) {
+            finish = new int[n];
+        }
+
+        void run(int process, int from, int to) {
+            while (units.size() < from) {
+                units.add(Timeline.IDLE);
+            }
+            for (int t = from; t < to; t++) {
+                units.add(process);
+            }
+        }
+
+        int[] units() {
+            return units.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    @Test
+    void roundRobinMatchesBaseline() {
+        compare("Round Robin", BaselineEquivalenceTest::roundRobin);
+    }
+
+    @Test
+    void sjfNonPreemptiveMatchesBaseline() {
+        compare("SJF Non-Preemptive", BaselineEquivalenceTest::sjfNonPreemptive);
+    }
+
+    @Test
+    void priorityNonPreemptiveMatchesBaseline() {
+        compare("Priority Non-Preemptive", BaselineEquivalenceTest::priorityNonPreemptive);
+    }
+
+    @Test
+    void sjfPreemptiveMatchesBaseline() {
+        compare("SJF Preemptive", BaselineEquivalenceTest::sjfPreemptive);
+    }
+
+    private static void compare(String algorithm, Function<ProcessTable, Reference> baseline) {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int trial = 0; trial < 200; trial++) {
+            ProcessTable workload = Schedules.random(random, 1 + random.nextInt(40), 1, 12);
+            SimulationResult result = SchedulingEngine.run(algorithm, workload);
+            Reference expected = baseline.apply(workload);
+            assertArrayEquals(expected.finish, Schedules.finishTimes(result), algorithm + " trial " + trial);
+            assertArrayEquals(expected.units(), Schedules.units(result), algorithm + " trial " + trial);
+        }
+    }
+
+    private static List<Integer> byArrival(ProcessTable w) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < w.size; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingInt(i -> w.arrival[i]));
+        return order;
+    }
+
+    private static Reference roundRobin(ProcessTable w) {
+        Reference out = new Reference(w.size);
+        int[] remaining = Arrays.copyOf(w.burst, w.size);
+        List<Integer> ready = new ArrayList<>();
+        List<Integer> arrivals = byArrival(w);
+        int time = 0;
+        while (!ready.isEmpty() || !arrivals.isEmpty()) {
+            while (!arrivals.isEmpty() && w.arrival[arrivals.get(0)] <= time) {
+                ready.add(arrivals.remove(0));
+            }
+            if (!ready.isEmpty()) {
+                int p = ready.remove(0);
+                int run = Math.min(remaining[p], QUANTUM);
+                out.run(p, time, time + run);
+                time += run;
+                remaining[p] -= run;
+                if (remaining[p] == 0) {
+                    out.finish[p] = time;
+                } else {
+                    while (!arrivals.isEmpty() && w.arrival[arrivals.get(0)] <= time) {
+                        ready.add(arrivals.remove(0));
+                    }
+                    ready.add(p);
+                }
+            } else if (!arrivals.isEmpty()) {
+                time++;
+            }
+        }
+        return out;
+    }
+
+    private static Reference sjfNonPreemptive(ProcessTable w) {
+        Reference out = new Reference(w.size);
+        List<Integer> order = byArrival(w);
+        order.sort(Comparator.comparingInt((Integer i) -> w.arrival[i]).thenComparingInt(i -> w.burst[i]));
+        int time = 0;
+        for (int p : order) {
+            time = Math.max(time, w.arrival[p]);
+            out.run(p, time, time + w.burst[p]);
+            time += w.burst[p];
+            out.finish[p] = time;
+        }
+        return out;
+    }
+
+    private static Reference priorityNonPreemptive(ProcessTable w) {
+        Reference out = new Reference(w.size);
+        List<Integer> ready = new ArrayList<>();
+        boolean[] done = new boolean[w.size];
+        int time = 0, completed = 0;
+        while (completed < w.size) {
+            for (int i = 0; i < w.size; i++) {
+                if (w.arrival[i] <= time && !ready.contains(i) && !done[i]) {
+                    ready.add(i);
+                }
+            }
+            if (!ready.isEmpty()) {
+                ready.sort(Comparator.comparingInt((Integer i) -> w.priority[i]).thenComparingInt(i -> w.arrival[i]));
+                int p = ready.remove(0);
+                out.run(p, time, time + w.burst[p]);
+                time += w.burst[p];
+                out.finish[p] = time;
+                done[p] = true;
+                completed++;
+            } else {
+                time++;
+            }
+        }
+        return out;
+    }
+
+    private static Reference sjfPreemptive(ProcessTable w) {
+        Reference out = new Reference(w.size);
+        int[] remaining = Arrays.copyOf(w.burst, w.size);
+        int time = 0, completed = 0;
+        while (completed < w.size) {
+            int best = -1;
+            for (int i = 0; i < w.size; i++) {
+                if (w.arrival[i] <= time && remaining[i] > 0
+                        && (best < 0 || remaining[i] < remaining[best]
+                            || remaining[i] == remaining[best] && w.arrival[i] < w.arrival[best])) {
+                    best = i;
+                }
+            }
+            if (best >= 0) {
+                out.run(best, time, time + 1);
+                if (--remaining[best] == 0) {
+                    out.finish[best] = time + 1;
+                    completed++;
+                }
+            }
+            time++;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,68 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class EventQueueTest {
+    // Interleaved adds and removes against a binary heap ordered by time, then insertion order, over
+    // time ranges from one slot to every wheel level
+    @Test
+    void takesEventsInTimeThenInsertionOrder() {
+        SplittableRandom random = new SplittableRandom(19);
+        int[] ranges = {10, 100, 5000, 1 << 20, Integer.MAX_VALUE / 2};
+        for (int trial = 0; trial < 50; trial++) {
+            EventQueue queue = new EventQueue(4);
+            PriorityQueue<long[]> expected = new PriorityQueue<>(
+                    (x, y) -> x[0] != y[0] ? Long.compare(x[0], y[0]) : Long.compare(x[1], y[1]));
+            int range = ranges[trial % ranges.length];
+            int now = 0, sequence = 0;
+            for (int step = 0; step < 5000; step++) {
+                if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                    int time = (int) Math.min(Integer.MAX_VALUE, (long) now + random.nextInt(range));
+                    queue.add(time, sequence % 3, sequence);
+                    expected.add(new long[]{time, sequence++});
+                } else {
+                    now = take(queue, expected.poll());
+                }
+                assertEquals(expected.size(), queue.size());
+            }
+            while (!expected.isEmpty()) {
+                take(queue, expected.poll());
+            }
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    void peekWithLimitLeavesLaterEventsAlone() {
+        EventQueue queue = new EventQueue(4);
+        queue.add(100, 0, 1);
+        assertEquals(Long.MAX_VALUE, queue.peekTime(50));
+        queue.add(60, 0, 2); // still allowed: the clock stayed at or before 50
+        assertEquals(60, queue.peekTime(60));
+        assertEquals(2, queue.peekSubject());
+    }
+
+    @Test
+    void rejectsEventsInThePast() {
+        EventQueue queue = new EventQueue(4);
+        queue.add(70, 0, 0);
+        queue.add(80, 0, 1);
+        queue.remove(); // the clock is now 70
+        assertThrows(IllegalArgumentException.class, () -> queue.add(69, 0, 2));
+    }
+
+    // Checks the queue's earliest event against the expected {time, sequence} and removes it
+    private static int take(EventQueue queue, long[] event) {
+        int time = queue.peekTime();
+        assertEquals(event[0], time);
+        assertEquals((int) event[1], queue.peekSubject());
+        assertEquals((int) event[1] % 3, queue.peekKind());
+        queue.remove();
+        return time;
+    }
+}
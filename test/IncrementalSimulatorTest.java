@@ -0,0 +1,106 @@
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+// A re-run resumed from a checkpoint must give exactly the schedule of a run from time zero
+class IncrementalSimulatorTest {
+    private static final String[] ALGORITHMS = {
+        "Round Robin", "SJF Non-Preemptive", "Priority Non-Preemptive", "SJF Preemptive", "Priority Preemptive",
+        "CFS", "MLFQ", "EDF"
+    };
+
+    @Test
+    void randomEditsMatchFullRuns() {
+        SplittableRandom random = new SplittableRandom(3);
+        int resumed = 0;
+        for (int trial = 0; trial < 12; trial++) {
+            ProcessTable workload = Schedules.random(random, 200 + random.nextInt(2000), 0, 14);
+            SchedulerConfig config = SchedulerConfig.DEFAULT.withContextSwitchCost(random.nextInt(3))
+                    .withRefillCost(random.nextInt(3)).withAgingInterval(random.nextInt(3) == 0 ? 5 : 0);
+            for (String name : ALGORITHMS) {
+                SchedulingAlgorithm algorithm = SchedulingEngine.forName(name, config);
+                IncrementalSimulator simulator = new IncrementalSimulator();
+                simulator.run(algorithm, config, workload, SimulationProgress.NONE);
+                ProcessTable current = workload;
+                for (int edit = 0; edit < 4; edit++) {
+                    current = edit(random, current);
+                    SimulationResult got = simulator.run(algorithm, config, current, SimulationProgress.NONE);
+                    if (simulator.resumedAt() >= 0) {
+                        resumed++;
+                    }
+                    Schedules.assertSameSchedule(SchedulingEngine.run(algorithm, current), got,
+                            name + " trial " + trial + " edit " + edit + " resumed at " + simulator.resumedAt());
+                }
+            }
+        }
+        assertTrue(resumed > 0, "no run resumed from a checkpoint");
+    }
+
+    // A short process inserted just after every arrival in turn. With a context switch cost, Round
+    // Robin and CFS run past their arrivals, so the newest checkpoint before the insert can have a
+    // clock beyond it.
+    @Test
+    void insertAfterCheckpointClockMatchesFullRun() {
+        for (String name : ALGORITHMS) {
+            for (int cost = 0; cost < 2; cost++) {
+                SchedulerConfig config = SchedulerConfig.DEFAULT.withContextSwitchCost(cost);
+                SchedulingAlgorithm algorithm = SchedulingEngine.forName(name, config);
+                for (int at = 0; at < 600; at += 7) {
+                    IncrementalSimulator simulator = new IncrementalSimulator();
+                    simulator.run(algorithm, config, periodic(600, -1), SimulationProgress.NONE);
+                    ProcessTable edited = periodic(600, at * 10 + 3);
+                    SimulationResult got = simulator.run(algorithm, config, edited, SimulationProgress.NONE);
+                    Schedules.assertSameSchedule(SchedulingEngine.run(algorithm, edited), got,
+                            name + " --cs " + cost + " insert at " + (at * 10 + 3));
+                }
+            }
+        }
+    }
+
+    // n processes arriving every 10 time units, plus one more at extra if it is not negative
+    private static ProcessTable periodic(int n, int extra) {
+        ProcessTable table = new ProcessTable(n + 1);
+        for (int i = 0; i < n; i++) {
+            table.add(i * 10, 5, 5, i * 10 + 50);
+        }
+        if (extra >= 0) {
+            table.add(extra, 1, 0, extra + 1);
+        }
+        return table;
+    }
+
+    // Moves, resizes, reprioritizes, removes or appends one process
+    private static ProcessTable edit(SplittableRandom random, ProcessTable current) {
+        ProcessTable edited = new ProcessTable(current.size + 1);
+        int kind = random.nextInt(10);
+        int target = random.nextInt(current.size);
+        int last = 0;
+        for (int i = 0; i < current.size; i++) {
+            last = Math.max(last, current.arrival[i]);
+            if (kind == 9 && i == target) {
+                continue;
+            }
+            int arrival = current.arrival[i], burst = current.burst[i];
+            int priority = current.priority[i], deadline = current.deadline[i];
+            if (i == target && kind < 9) {
+                if (kind < 3) {
+                    arrival = Math.max(0, arrival + random.nextInt(41) - 20);
+                } else if (kind < 6) {
+                    burst = random.nextInt(20);
+                } else if (kind < 8) {
+                    priority = random.nextInt(10);
+                } else {
+                    deadline = ProcessTable.NO_DEADLINE;
+                }
+                deadline = Math.max(deadline, arrival);
+            }
+            edited.add(arrival, burst, priority, deadline);
+        }
+        if (kind == 8) {
+            edited.add(last / 2, 5, 1);
+        }
+        return edited;
+    }
+}
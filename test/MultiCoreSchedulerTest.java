@@ -0,0 +1,100 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class MultiCoreSchedulerTest {
+    // With one CPU, every policy must give exactly the single-CPU engine's schedule
+    @Test
+    void oneCpuMatchesSingleCpuEngine() {
+        SplittableRandom random = new SplittableRandom(12);
+        for (int trial = 0; trial < 200; trial++) {
+            ProcessTable workload = Schedules.random(random, 1 + random.nextInt(60), 0, 12);
+            SchedulerConfig config = SchedulerConfig.DEFAULT.withQuantum(1 + random.nextInt(6))
+                    .withAgingInterval(random.nextInt(3) * 5);
+            if (random.nextBoolean()) {
+                config = config.withContextSwitchCost(random.nextInt(3)).withRefillCost(random.nextInt(5))
+                        .withRefillInterval(1 + random.nextInt(5)).withMigrationCost(random.nextInt(4));
+            }
+            for (MultiCoreScheduler.Policy policy : MultiCoreScheduler.Policy.values()) {
+                SimulationResult expected = SchedulingEngine.run(
+                        SchedulingEngine.forName(policy.algorithmName, config), workload);
+                SimulationResult actual = SchedulingEngine.run(new MultiCoreScheduler(policy, config), workload);
+                Schedules.assertSameSchedule(expected, actual, policy.algorithmName + " trial " + trial);
+            }
+        }
+    }
+
+    // On several CPUs, whatever the queues and balancing: every process gets exactly its burst, never
+    // before it arrives and never on two CPUs at once, and affinity keeps it on one CPU
+    @Test
+    void multipleCpusRunEveryProcessOnce() {
+        SplittableRandom random = new SplittableRandom(13);
+        for (int trial = 0; trial < 40; trial++) {
+            ProcessTable workload = Schedules.random(random, 1 + random.nextInt(80), 0, 12);
+            for (MultiCoreScheduler.Policy policy : MultiCoreScheduler.Policy.values()) {
+                for (SchedulerConfig.Queues queues : SchedulerConfig.Queues.values()) {
+                    for (SchedulerConfig.Balancing balancing : SchedulerConfig.Balancing.values()) {
+                        if (queues == SchedulerConfig.Queues.GLOBAL && balancing != SchedulerConfig.Balancing.NONE) {
+                            continue; // balancing needs per-core queues
+                        }
+                        boolean affinity = queues == SchedulerConfig.Queues.PER_CORE && random.nextBoolean();
+                        SchedulerConfig config = SchedulerConfig.DEFAULT.withCpus(2 + random.nextInt(6))
+                                .withQueues(queues).withBalancing(balancing).withAffinity(affinity)
+                                .withRebalanceInterval(1 + random.nextInt(20))
+                                .withContextSwitchCost(random.nextInt(2)).withMigrationCost(random.nextInt(3));
+                        SimulationResult result = SchedulingEngine.run(new MultiCoreScheduler(policy, config), workload);
+                        check(workload, result, affinity, policy + " " + config + " trial " + trial);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void check(ProcessTable workload, SimulationResult result, boolean affinity, String message) {
+        int n = workload.size;
+        int makespan = result.makespan();
+        long[] ran = new long[n];
+        int[] cpuOf = new int[n];
+        Arrays.fill(cpuOf, -1);
+        int[][] at = new int[result.lanes.length][];
+        for (int cpu = 0; cpu < result.lanes.length; cpu++) {
+            Timeline lane = result.lanes[cpu];
+            at[cpu] = new int[makespan];
+            Arrays.fill(at[cpu], Timeline.IDLE);
+            int previousEnd = 0;
+            for (int s = 0; s < lane.size; s++) {
+                assertEquals(previousEnd, lane.start[s], message + ": gap or overlap on CPU " + cpu);
+                previousEnd = lane.end[s];
+                int p = lane.process[s];
+                Arrays.fill(at[cpu], lane.start[s], lane.end[s], p);
+                if (p >= 0) {
+                    ran[p] += lane.end[s] - lane.start[s];
+                    assertTrue(lane.start[s] >= workload.arrival[p], message + ": P" + p + " ran before it arrived");
+                    if (affinity && cpuOf[p] >= 0 && cpuOf[p] != cpu) {
+                        fail(message + ": P" + p + " left its CPU");
+                    }
+                    cpuOf[p] = cpu;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(workload.burst[i], ran[i], message + ": CPU time of P" + i);
+            assertEquals(result.processes.finish[i] - workload.arrival[i] - workload.burst[i],
+                    result.processes.waiting[i], message + ": waiting time of P" + i);
+        }
+        for (int t = 0; t < makespan; t++) {
+            for (int a = 0; a < at.length; a++) {
+                for (int b = a + 1; b < at.length; b++) {
+                    if (at[a][t] >= 0 && at[a][t] == at[b][t]) {
+                        fail(message + ": P" + at[a][t] + " on two CPUs at " + t);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProcessTableTest {
+    // Large enough slices that the runs below take a handful of dispatches
+    private static final SchedulerConfig LONG_SLICES = SchedulerConfig.DEFAULT.withQuantum(1 << 30)
+            .withTargetLatency(1 << 30).withMinGranularity(1 << 29).withLevelQuanta(1 << 30);
+
+    @TempDir
+    Path directory;
+
+    // 2147 processes of a million time units fit in an int clock, the 2148th does not
+    @Test
+    void workloadLongerThanTheClockIsRejected() throws IOException {
+        ProcessTable table = new ProcessTable(2148);
+        for (int i = 0; i < 2147; i++) {
+            table.add(0, 1_000_000, 0);
+        }
+        assertThrows(IllegalArgumentException.class, () -> table.add(0, 1_000_000, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.add(1_000_000, 0, 0));
+        assertEquals(2147, table.size);
+
+        Path file = directory.resolve("long.csv");
+        Files.write(file, Collections.nCopies(3000, "0,1000000"));
+        IOException error = assertThrows(IOException.class, () -> WorkloadFile.read(file));
+        assertTrue(error.getMessage().contains("record 2148"), error.getMessage());
+    }
+
+    // Nothing to average over: an empty or comment-only file is an error rather than NaN averages
+    @Test
+    void workloadWithoutProcessesIsRejected() throws IOException {
+        Path file = directory.resolve("empty.csv");
+        Files.write(file, List.of("# arrival,burst", ""));
+        IOException error = assertThrows(IOException.class, () -> WorkloadFile.read(file));
+        assertTrue(error.getMessage().startsWith("The workload has no processes"), error.getMessage());
+    }
+
+    // A workload that ends exactly at Integer.MAX_VALUE runs without overflowing on every engine
+    @Test
+    void runEndingAtTheLimitIsExact() {
+        ProcessTable workload = new ProcessTable(2);
+        workload.add(0, 1_000_000_000, 5);
+        workload.add(0, Integer.MAX_VALUE - 1_000_000_000, 1, Integer.MAX_VALUE - 1);
+        for (String name : SchedulingEngine.algorithmNames()) {
+            SimulationResult result = SchedulingEngine.run(SchedulingEngine.forName(name, LONG_SLICES), workload);
+            assertEquals(Integer.MAX_VALUE, result.makespan(), name);
+            for (int i = 0; i < 2; i++) {
+                assertTrue(result.processes.finish[i] > 0, name);
+                assertTrue(result.processes.waiting[i] >= 0, name);
+            }
+        }
+    }
+
+    // Switch costs on top of a workload at the limit make the run fail instead of wrapping around
+    @Test
+    void switchCostsPastTheLimitAreRejected() {
+        ProcessTable workload = new ProcessTable(2);
+        workload.add(0, 1_000_000_000, 0);
+        workload.add(0, Integer.MAX_VALUE - 1_000_000_001, 0);
+        SchedulerConfig config = LONG_SLICES.withContextSwitchCost(1);
+        SimulationResult result = SchedulingEngine.run(SchedulingEngine.forName("SJF Non-Preemptive", config), workload);
+        assertEquals(Integer.MAX_VALUE, result.makespan());
+        for (String name : SchedulingEngine.algorithmNames()) {
+            SchedulingAlgorithm algorithm = SchedulingEngine.forName(name, config.withContextSwitchCost(2));
+            assertThrows(IllegalArgumentException.class, () -> SchedulingEngine.run(algorithm, workload), name);
+        }
+    }
+}
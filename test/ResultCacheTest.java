@@ -0,0 +1,118 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultCacheTest {
+    private static final long MEMORY = 64 << 20;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void repeatedRunIsServedFromMemory() {
+        ResultCache cache = new ResultCache(MEMORY);
+        ProcessTable workload = Schedules.random(new SplittableRandom(16), 100, 0, 10);
+        SchedulingAlgorithm algorithm = SchedulingEngine.forName("Round Robin");
+        SimulationResult first = cache.run(algorithm, SchedulerConfig.DEFAULT, workload, SimulationProgress.NONE);
+        SimulationResult second = cache.run(algorithm, SchedulerConfig.DEFAULT, workload.copyInputs(),
+                SimulationProgress.NONE);
+        assertSame(first, second);
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    // After a restart the disk store gives back the same schedule, lanes, phases and migrations included
+    @Test
+    void storedResultSurvivesRestart() throws IOException {
+        SplittableRandom random = new SplittableRandom(17);
+        ProcessTable plain = Schedules.random(random, 300, 0, 10);
+        ProcessTable withIo = new ProcessTable(3);
+        withIo.add(0, new int[]{4, 10, 3}, new int[]{1}, 0, ProcessTable.NO_DEADLINE);
+        withIo.add(2, 6, 1);
+        withIo.add(3, new int[]{2, 5, 2}, new int[]{0}, 2, ProcessTable.NO_DEADLINE);
+        SchedulerConfig multiCore = SchedulerConfig.DEFAULT.withCpus(3).withQueues(SchedulerConfig.Queues.PER_CORE)
+                .withBalancing(SchedulerConfig.Balancing.STEAL).withMigrationCost(1);
+        Object[][] runs = {
+            {"SJF Preemptive", SchedulerConfig.DEFAULT.withContextSwitchCost(1), plain},
+            {"MLFQ", SchedulerConfig.DEFAULT, withIo},
+            {"Round Robin", multiCore, plain}
+        };
+        for (Object[] run : runs) {
+            SchedulerConfig config = (SchedulerConfig) run[1];
+            ProcessTable workload = (ProcessTable) run[2];
+            SchedulingAlgorithm algorithm = SchedulingEngine.forName((String) run[0], config);
+            SimulationResult expected = new ResultCache(MEMORY, directory).run(algorithm, config, workload,
+                    SimulationProgress.NONE);
+            ResultCache restarted = new ResultCache(MEMORY, directory);
+            SimulationResult loaded = restarted.run(algorithm, config, workload, SimulationProgress.NONE);
+            assertEquals(1, restarted.hits(), algorithm.name());
+            Schedules.assertSameSchedule(expected, loaded, algorithm.name());
+            assertEquals(expected.migrations, loaded.migrations, algorithm.name());
+            assertEquals(expected.lanes.length, loaded.lanes.length, algorithm.name());
+            for (int cpu = 0; cpu < expected.lanes.length; cpu++) {
+                Timeline lane = loaded.lanes[cpu];
+                assertEquals(expected.lanes[cpu].size, lane.size, algorithm.name() + " CPU " + cpu);
+                for (int s = 0; s < lane.size; s++) {
+                    assertEquals(expected.lanes[cpu].describe(s), lane.describe(s), algorithm.name() + " CPU " + cpu);
+                }
+            }
+            assertEquals(workload.hasPhases(), loaded.processes.hasPhases(), algorithm.name());
+            assertEquals(expected.metrics().turnaround.mean(), loaded.metrics().turnaround.mean(), algorithm.name());
+        }
+    }
+
+    @Test
+    void memoryStaysWithinItsBound() {
+        SplittableRandom random = new SplittableRandom(18);
+        ResultCache cache = new ResultCache(200_000);
+        SchedulingAlgorithm algorithm = SchedulingEngine.forName("Round Robin");
+        for (int i = 0; i < 50; i++) {
+            cache.run(algorithm, SchedulerConfig.DEFAULT, Schedules.random(random, 500, 0, 10), SimulationProgress.NONE);
+            assertTrue(cache.bytes() <= 200_000);
+        }
+        assertTrue(cache.bytes() > 0);
+    }
+
+    @Test
+    void everySettingIsPartOfTheKey() {
+        ProcessTable workload = Schedules.random(new SplittableRandom(16), 30, 1, 10);
+        SchedulerConfig config = SchedulerConfig.DEFAULT;
+        String key = ResultCache.key(workload, "Round Robin", config);
+        for (SchedulerConfig changed : new SchedulerConfig[]{
+            config.withQuantum(4), config.withContextSwitchCost(1), config.withAgingInterval(5),
+            config.withRefillCost(2), config.withRefillInterval(3), config.withMigrationCost(1)
+        }) {
+            assertNotEquals(key, ResultCache.key(workload, "Round Robin", changed), changed.toString());
+        }
+        assertNotEquals(key, ResultCache.key(workload, "SJF Preemptive", config));
+    }
+
+    // A file written by an older version may hold a schedule the engines no longer produce
+    @Test
+    void storedResultOfAnotherVersionIsIgnored() throws IOException {
+        ProcessTable workload = Schedules.random(new SplittableRandom(16), 30, 1, 10);
+        SchedulingAlgorithm algorithm = SchedulingEngine.forName("SJF Preemptive");
+        String key = ResultCache.key(workload, algorithm.name(), SchedulerConfig.DEFAULT);
+        new ResultCache(MEMORY, directory).run(algorithm, SchedulerConfig.DEFAULT, workload, SimulationProgress.NONE);
+        assertNotNull(new ResultCache(MEMORY, directory).get(key));
+
+        Path file = directory.resolve(key + ".result");
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        header.putInt(4, header.getInt(4) - 1);
+        Files.write(file, bytes);
+        assertNull(new ResultCache(MEMORY, directory).get(key));
+    }
+}
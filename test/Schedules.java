@@ -0,0 +1,54 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Workload generation and schedule comparison shared by the tests
+final class Schedules {
+    private Schedules() {
+    }
+
+    // A random workload of n processes with bursts in [minBurst, maxBurst]. Arrivals mostly rise, with
+    // some out of order, so that ties, idle gaps and late arrivals all show up.
+    static ProcessTable random(SplittableRandom random, int n, int minBurst, int maxBurst) {
+        ProcessTable table = new ProcessTable(n);
+        int t = 0;
+        for (int i = 0; i < n; i++) {
+            t += random.nextInt(6);
+            int arrival = random.nextInt(4) == 0 ? random.nextInt(t + 1) : t;
+            int deadline = random.nextInt(3) == 0 ? ProcessTable.NO_DEADLINE : arrival + random.nextInt(60);
+            table.add(arrival, random.nextInt(minBurst, maxBurst + 1), random.nextInt(12) - 2, deadline);
+        }
+        return table;
+    }
+
+    static int[] finishTimes(SimulationResult result) {
+        return Arrays.copyOf(result.processes.finish, result.processes.size);
+    }
+
+    // Which process ran in each time unit of the first CPU, IDLE or CONTEXT_SWITCH otherwise
+    static int[] units(SimulationResult result) {
+        Timeline timeline = result.timeline;
+        int[] units = new int[timeline.endTime()];
+        Arrays.fill(units, Timeline.IDLE);
+        for (int s = 0; s < timeline.size; s++) {
+            Arrays.fill(units, timeline.start[s], timeline.end[s], timeline.process[s]);
+        }
+        return units;
+    }
+
+    // Same processes finished in the same order at the same times, with the same Gantt chart
+    static void assertSameSchedule(SimulationResult expected, SimulationResult actual, String message) {
+        assertArrayEquals(finishTimes(expected), finishTimes(actual), message + ": finish times");
+        assertArrayEquals(Arrays.copyOf(expected.processes.start, expected.processes.size),
+                Arrays.copyOf(actual.processes.start, actual.processes.size), message + ": start times");
+        assertArrayEquals(Arrays.copyOf(expected.completionOrder, expected.completedCount),
+                Arrays.copyOf(actual.completionOrder, actual.completedCount), message + ": completion order");
+        assertEquals(expected.timeline.size, actual.timeline.size, message + ": Gantt segments");
+        for (int s = 0; s < expected.timeline.size; s++) {
+            assertEquals(expected.timeline.describe(s), actual.timeline.describe(s), message + ": segment " + s);
+        }
+        assertEquals(expected.averageWaitingTime, actual.averageWaitingTime, message + ": average waiting time");
+    }
+}
@@ -0,0 +1,130 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+// Hand-worked schedules of EDF, CFS and MLFQ, checked against what each policy is meant to do
+// rather than against another engine
+class SchedulingPoliciesTest {
+    // P1 is preempted by P2's earlier deadline; P0 has none and runs last, although it arrived
+    // with P1
+    @Test
+    void edfRunsTheEarliestDeadlineAndThoseWithoutOneLast() {
+        ProcessTable workload = new ProcessTable(3);
+        workload.add(0, 4, 0);
+        workload.add(0, 10, 0, 50);
+        workload.add(2, 3, 0, 10);
+        SimulationResult result = run("EDF", SchedulerConfig.DEFAULT, workload);
+        assertRuns(result, 1, 0, 2, 2, 2, 5, 1, 5, 13, 0, 13, 17);
+    }
+
+    // Equal weights share the CPU in slices of half the target latency, taking turns
+    @Test
+    void cfsAlternatesEqualWeights() {
+        ProcessTable workload = new ProcessTable(2);
+        workload.add(0, 24, 0);
+        workload.add(0, 24, 0);
+        SimulationResult result = run("CFS", SchedulerConfig.DEFAULT, workload);
+        assertRuns(result, 0, 0, 12, 1, 12, 24, 0, 24, 36, 1, 36, 48);
+    }
+
+    // Nice 0 against nice 5 (weights 1024 and 335): while both run, the first gets about
+    // 1024 / 1359 of the CPU
+    @Test
+    void cfsSharesTheCpuByWeight() {
+        ProcessTable workload = new ProcessTable(2);
+        workload.add(0, 5000, 0);
+        workload.add(0, 5000, 5);
+        int[] units = Schedules.units(run("CFS", SchedulerConfig.DEFAULT, workload));
+        int first = 0;
+        for (int t = 0; t < 4000; t++) {
+            if (units[t] == 0) {
+                first++;
+            }
+        }
+        assertEquals(1024.0 / 1359, first / 4000.0, 0.01);
+    }
+
+    // P0 and P1 arrive together and P0 runs first. A newcomer preempts P0 only once P0 is more
+    // than minGranularity (3) ahead of the process waiting longest: not at 3, but at 4.
+    @Test
+    void cfsNewcomerPreemptsOnlyPastTheGranularity() {
+        for (int arrival : new int[]{3, 4}) {
+            ProcessTable workload = new ProcessTable(3);
+            workload.add(0, 20, 0);
+            workload.add(0, 20, 0);
+            workload.add(arrival, 20, 0);
+            int[] units = Schedules.units(run("CFS", SchedulerConfig.DEFAULT, workload));
+            int ranUntil = 0;
+            while (units[ranUntil] == 0) {
+                ranUntil++;
+            }
+            // Without a preemption P0 keeps its slice of target latency / 2 processes
+            assertEquals(arrival == 3 ? 12 : 4, ranUntil, "newcomer at " + arrival);
+            assertEquals(1, units[ranUntil], "newcomer at " + arrival);
+        }
+    }
+
+    // Quanta 3, 6, 12. P0 uses up its top-level quantum at 3 and drops a level, so P1, arriving
+    // on the top level at 5, preempts it; arriving at 2, it waits for P0's first quantum to end.
+    // P0 keeps its level when preempted, then drops again after its second quantum.
+    @Test
+    void mlfqDropsALevelWhenTheQuantumRunsOut() {
+        ProcessTable workload = new ProcessTable(2);
+        workload.add(0, 20, 0);
+        workload.add(5, 2, 0);
+        SimulationResult result = run("MLFQ", SchedulerConfig.DEFAULT, workload);
+        assertRuns(result, 0, 0, 5, 1, 5, 7, 0, 7, 22);
+
+        workload = new ProcessTable(2);
+        workload.add(0, 20, 0);
+        workload.add(2, 2, 0);
+        result = run("MLFQ", SchedulerConfig.DEFAULT, workload);
+        assertRuns(result, 0, 0, 3, 1, 3, 5, 0, 5, 22);
+    }
+
+    // Quanta 2 and 50. P0 drops to the bottom level at 2, where P1's arrival at 12 would preempt
+    // it; a boost at 10 has brought it back to the top level, so P1 waits for its slice to end.
+    @Test
+    void mlfqBoostMovesProcessesBackToTheTop() {
+        ProcessTable workload = new ProcessTable(2);
+        workload.add(0, 100, 0);
+        workload.add(12, 5, 0);
+        SchedulerConfig config = SchedulerConfig.DEFAULT.withLevelQuanta(2, 50);
+        int[] noBoost = Schedules.units(run("MLFQ", config.withBoostInterval(0), workload));
+        assertEquals(1, noBoost[12]);
+        int[] boosted = Schedules.units(run("MLFQ", config.withBoostInterval(10), workload));
+        int[] p0Until52 = new int[52];
+        assertArrayEquals(p0Until52, Arrays.copyOf(boosted, 52));
+        assertEquals(1, boosted[52]);
+    }
+
+    @Test
+    void mlfqWithOneLevelIsRoundRobin() {
+        SplittableRandom random = new SplittableRandom(15);
+        for (int trial = 0; trial < 100; trial++) {
+            ProcessTable workload = Schedules.random(random, 1 + random.nextInt(50), 0, 15);
+            int quantum = 1 + random.nextInt(6);
+            SchedulerConfig config = SchedulerConfig.DEFAULT.withQuantum(quantum).withLevelQuanta(quantum)
+                    .withBoostInterval(random.nextInt(3) * 7).withContextSwitchCost(random.nextInt(2));
+            Schedules.assertSameSchedule(run("Round Robin", config, workload), run("MLFQ", config, workload),
+                    "trial " + trial);
+        }
+    }
+
+    private static SimulationResult run(String name, SchedulerConfig config, ProcessTable workload) {
+        return SchedulingEngine.run(SchedulingEngine.forName(name, config), workload);
+    }
+
+    // The first CPU ran exactly these (process, start, end) triples, in order and without gaps
+    private static void assertRuns(SimulationResult result, int... runs) {
+        int[] expected = new int[runs[runs.length - 1]];
+        for (int k = 0; k < runs.length; k += 3) {
+            Arrays.fill(expected, runs[k + 1], runs[k + 2], runs[k]);
+        }
+        assertArrayEquals(expected, Schedules.units(result));
+    }
+}
@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+
+class SimulationProgressTest {
+    private static final String[] SLICING = {"Round Robin", "CFS", "MLFQ"};
+
+    // Three processes of a million time units each: the slicing policies dispatch them thousands
+    // of times, and progress follows the clock long before anything completes
+    private static ProcessTable longBursts() {
+        ProcessTable workload = new ProcessTable(3);
+        for (int i = 0; i < 3; i++) {
+            workload.add(0, 1_000_000, i);
+        }
+        return workload;
+    }
+
+    @Test
+    void fewLongProcessesReportAsTheyRun() {
+        SchedulerConfig config = SchedulerConfig.DEFAULT.withQuantum(1);
+        for (String name : SLICING) {
+            List<long[]> updates = new ArrayList<>();
+            SchedulingAlgorithm algorithm = SchedulingEngine.forName(name, config);
+            SchedulingEngine.run(algorithm, longBursts(), (time, horizon) -> updates.add(new long[]{time, horizon}));
+            assertTrue(updates.size() > 10, name + ": " + updates.size() + " updates");
+            long previous = 0;
+            for (long[] update : updates) {
+                assertEquals(3_000_000, update[1], name);
+                assertTrue(update[0] >= previous, name + ": progress went back");
+                previous = update[0];
+            }
+            assertEquals(3_000_000, previous, name + ": the last update is the end");
+        }
+    }
+
+    // Throwing from update() stops the run at the next report, not when it is over
+    @Test
+    void cancellationStopsARunOfLongProcesses() {
+        SchedulerConfig config = SchedulerConfig.DEFAULT.withQuantum(1);
+        for (String name : SLICING) {
+            long[] stoppedAt = {-1};
+            SchedulingAlgorithm algorithm = SchedulingEngine.forName(name, config);
+            assertThrows(CancellationException.class, () -> SchedulingEngine.run(algorithm, longBursts(),
+                    (time, horizon) -> {
+                        stoppedAt[0] = time;
+                        throw new CancellationException();
+                    }), name);
+            assertTrue(stoppedAt[0] < 100_000, name + " stopped at " + stoppedAt[0]);
+        }
+    }
+}
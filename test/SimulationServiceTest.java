@@ -0,0 +1,151 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+// Runs the service on a free localhost port and talks to it over HTTP
+class SimulationServiceTest {
+    // A single process sliced a few hundred million times: long enough to be caught running
+    private static final String SLOW = "0,300000000\n";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private SimulationService service;
+
+    @AfterEach
+    void stop() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void answersWithTheExportedJson() throws Exception {
+        start(2, 4, SimulationService.MAX_BODY_BYTES);
+        String workload = "0,5,2\n1,3,1\n2,8,4,30\n3,6/4@0/2,3\n";
+        HttpResponse<String> response = post("/simulate?algorithm=Round%20Robin&quantum=2&cs=1", workload).join();
+        assertEquals(200, response.statusCode(), response.body());
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(""));
+
+        SchedulingAlgorithm algorithm = SchedulingEngine.forName("Round Robin",
+                SchedulerConfig.DEFAULT.withQuantum(2).withContextSwitchCost(1));
+        ProcessTable processes = TraceReader.readAll(new ByteArrayInputStream(workload.getBytes(StandardCharsets.UTF_8)),
+                "test");
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ResultExporter.writeJson(SchedulingEngine.run(algorithm, processes), expected);
+        assertEquals(expected.toString(StandardCharsets.UTF_8), response.body());
+    }
+
+    // The second request arrives while the first is simulating the same run and waits for its result
+    @Test
+    void identicalRequestsShareOneRun() throws Exception {
+        start(2, 4, SimulationService.MAX_BODY_BYTES);
+        String path = "/simulate?algorithm=Round%20Robin&quantum=1";
+        CompletableFuture<HttpResponse<String>> first = post(path, SLOW);
+        awaitStat("running", 1);
+        CompletableFuture<HttpResponse<String>> second = post(path, SLOW);
+        assertEquals(200, first.join().statusCode());
+        assertEquals(200, second.join().statusCode());
+        assertEquals(first.join().body(), second.join().body());
+        assertEquals(1, stat("simulations"));
+        assertEquals(1, stat("shared"));
+    }
+
+    @Test
+    void badRequestsGet400() throws Exception {
+        start(1, 4, SimulationService.MAX_BODY_BYTES);
+        String[][] requests = {
+            {"/simulate", "0,5\n"},
+            {"/simulate?algorithm=Nope", "0,5\n"},
+            {"/simulate?algorithm=EDF&quantum=x", "0,5\n"},
+            {"/simulate?algorithm=EDF&colour=red", "0,5\n"},
+            {"/simulate?algorithm=EDF&quantum=0", "0,5\n"},
+            {"/simulate?algorithm=EDF", ""},
+            {"/simulate?algorithm=EDF", "0,-5\n"},
+            {"/simulate?algorithm=EDF", "not a workload\n"},
+        };
+        for (String[] request : requests) {
+            HttpResponse<String> response = post(request[0], request[1]).join();
+            assertEquals(400, response.statusCode(), request[0] + " " + request[1] + ": " + response.body());
+        }
+        HttpResponse<String> get = client.send(HttpRequest.newBuilder(uri("/simulate?algorithm=EDF")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, get.statusCode());
+        assertEquals(0, stat("simulations"));
+    }
+
+    // With one permit and one waiting place, a third distinct run is turned away until they are done
+    @Test
+    void tooManyWaitingGet503() throws Exception {
+        start(1, 1, SimulationService.MAX_BODY_BYTES);
+        CompletableFuture<HttpResponse<String>> running = post("/simulate?algorithm=Round%20Robin&quantum=1", SLOW);
+        awaitStat("running", 1);
+        CompletableFuture<HttpResponse<String>> waiting = post("/simulate?algorithm=EDF", "0,1\n");
+        awaitStat("waiting", 1);
+        HttpResponse<String> rejected = post("/simulate?algorithm=EDF", "0,2\n").join();
+        assertEquals(503, rejected.statusCode());
+        assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(""));
+        assertEquals(1, stat("rejected"));
+        assertEquals(200, running.join().statusCode());
+        assertEquals(200, waiting.join().statusCode());
+    }
+
+    @Test
+    void oversizedBodiesGet413() throws Exception {
+        start(1, 4, 1000);
+        String small = "0,5\n";
+        assertEquals(200, post("/simulate?algorithm=EDF", small).join().statusCode());
+        String large = String.join("", Collections.nCopies(300, "0,5\n"));
+        assertEquals(413, post("/simulate?algorithm=EDF", large).join().statusCode());
+        // Streamed without a length, it is cut off once past the limit
+        HttpRequest chunked = HttpRequest.newBuilder(uri("/simulate?algorithm=EDF"))
+                .POST(HttpRequest.BodyPublishers.ofInputStream(
+                        () -> new ByteArrayInputStream(large.getBytes(StandardCharsets.UTF_8))))
+                .build();
+        assertEquals(413, client.send(chunked, HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(1, stat("simulations"));
+    }
+
+    private void start(int concurrency, int maxWaiting, long maxBodyBytes) throws IOException {
+        service = new SimulationService(0, concurrency, maxWaiting, maxBodyBytes, new ResultCache(64 << 20));
+        service.start();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + service.port() + path);
+    }
+
+    private CompletableFuture<HttpResponse<String>> post(String path, String body) {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private long stat(String name) throws IOException, InterruptedException {
+        String stats = client.send(HttpRequest.newBuilder(uri("/stats")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = Pattern.compile("\"" + name + "\":(\\d+)").matcher(stats);
+        assertTrue(matcher.find(), stats);
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private void awaitStat(String name, long value) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (stat(name) != value) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for " + name + " = " + value);
+            Thread.sleep(5);
+        }
+    }
+}
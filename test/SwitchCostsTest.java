@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class SwitchCostsTest {
+    private static final String[] ALGORITHMS = {
+        "Round Robin", "SJF Non-Preemptive", "Priority Non-Preemptive", "SJF Preemptive", "Priority Preemptive",
+        "CFS", "MLFQ", "EDF"
+    };
+
+    // P1 has nothing to run and is dispatched at 5 through a 2-unit switch; P2, which outranks it in
+    // Priority and EDF, arrives at 6, during that switch. P1 must finish at 7 and not wait behind P2.
+    @Test
+    void processWithNothingLeftFinishesAfterItsSwitch() {
+        ProcessTable workload = new ProcessTable(3);
+        workload.add(0, 0, 0);
+        workload.add(5, 0, 16, 50);
+        workload.add(6, 8, 9, 10);
+        SchedulerConfig config = SchedulerConfig.DEFAULT.withContextSwitchCost(2);
+        for (String name : new String[]{"SJF Preemptive", "Priority Preemptive", "EDF"}) {
+            SchedulingAlgorithm algorithm = SchedulingEngine.forName(name, config);
+            SimulationResult result = SchedulingEngine.run(algorithm, workload);
+            assertEquals(7, result.processes.finish[1], name);
+            assertEquals(2, result.processes.waiting[1], name);
+            Schedules.assertSameSchedule(result, EventSimulator.run(algorithm, workload.copyInputs(),
+                    SimulationProgress.NONE), name + " on the event simulator");
+            MultiCoreScheduler.Policy policy = MultiCoreScheduler.Policy.find(name);
+            if (policy != null) {
+                Schedules.assertSameSchedule(result, SchedulingEngine.run(new MultiCoreScheduler(policy, config),
+                        workload), name + " on one CPU of the multi-core scheduler");
+            }
+        }
+    }
+
+    // Every engine that runs a single-CPU policy gives the same schedule with the same costs, zero
+    // bursts and arrivals during switches included
+    @Test
+    void enginesAgreeWithCosts() {
+        SplittableRandom random = new SplittableRandom(23);
+        for (int trial = 0; trial < 150; trial++) {
+            ProcessTable workload = Schedules.random(random, 1 + random.nextInt(60), 0, 10);
+            SchedulerConfig config = SchedulerConfig.DEFAULT.withQuantum(1 + random.nextInt(5))
+                    .withContextSwitchCost(random.nextInt(4)).withRefillCost(random.nextInt(5))
+                    .withRefillInterval(1 + random.nextInt(5)).withAgingInterval(random.nextInt(3) * 5);
+            for (String name : ALGORITHMS) {
+                SchedulingAlgorithm algorithm = SchedulingEngine.forName(name, config);
+                SimulationResult expected = SchedulingEngine.run(algorithm, workload);
+                String message = name + " trial " + trial;
+                Schedules.assertSameSchedule(expected, EventSimulator.run(algorithm, workload.copyInputs(),
+                        SimulationProgress.NONE), message + " on the event simulator");
+                MultiCoreScheduler.Policy policy = MultiCoreScheduler.Policy.find(name);
+                if (policy != null) {
+                    Schedules.assertSameSchedule(expected, SchedulingEngine.run(new MultiCoreScheduler(policy, config),
+                            workload), message + " on one CPU of the multi-core scheduler");
+                }
+            }
+        }
+    }
+
+    // The overhead is the share of CPU time spent in CONTEXT_SWITCH segments
+    @Test
+    void overheadCountsSwitchSegments() {
+        ProcessTable workload = new ProcessTable(2);
+        workload.add(0, 4, 0);
+        workload.add(0, 4, 0);
+        SchedulerConfig config = SchedulerConfig.DEFAULT.withQuantum(2).withContextSwitchCost(1);
+        SimulationResult result = SchedulingEngine.run(SchedulingEngine.forName("Round Robin", config), workload);
+        // P0 0-2, CS, P1 3-5, CS, P0 6-8, CS, P1 9-11
+        assertEquals(11, result.makespan());
+        assertEquals(3.0 / 11, result.metrics().overhead(), 1e-9);
+    }
+}